@@ -0,0 +1,56 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.impl.AlohaDispersionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ALOHA plume polygon construction, reached through the public entry points
+ * that wrap {@code createPlumePolygon}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlohaDispersionModelBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    private AlohaDispersionModel model;
+    private DispersionInput input;
+    private DispersionInput chemicalInput;
+
+    @Setup
+    public void setUp() {
+        model = new AlohaDispersionModel(BenchmarkFixtures.chemicalService());
+        input = BenchmarkFixtures.input(stabilityClass);
+        chemicalInput = BenchmarkFixtures.input(stabilityClass);
+        chemicalInput.setChemicalPropertiesJson(BenchmarkFixtures.CHLORINE_PROPERTIES_JSON);
+    }
+
+    @Benchmark
+    public DispersionResult createPlumePolygonGas() {
+        return model.calculateGas(input);
+    }
+
+    @Benchmark
+    public DispersionResult createPlumePolygonChemical() {
+        return model.calculateChemical(chemicalInput);
+    }
+}
@@ -0,0 +1,78 @@
+package com.chad.benchmark;
+
+import com.chad.model.Chemical;
+import com.chad.model.DispersionInput;
+import com.chad.repository.ChemicalRepository;
+import com.chad.service.ChemicalService;
+import com.chad.service.DispersionResultCache;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared inputs for the benchmarks. Everything is wired by hand so the
+ * benchmarks run without a Spring context or a database.
+ */
+final class BenchmarkFixtures {
+
+    static final String CHEMICAL_NAME = "Chlorine";
+
+    static final Map<String, Object> CHLORINE_PROPERTIES = Map.of(
+            "molecularWeight", 70.9,
+            "vaporPressure", 779000,
+            "liquidDensity", 1562,
+            "heatOfVaporization", 288000,
+            "defaultTemperature", 239.1,
+            "AEGL-1", 0.5,
+            "AEGL-2", 2.0,
+            "AEGL-3", 20.0);
+
+    static final String CHLORINE_PROPERTIES_JSON = "{\"molecularWeight\":70.9,\"decayRate\":0.0,"
+            + "\"AEGL-1\":0.5,\"AEGL-2\":2.0,\"AEGL-3\":20.0}";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A warmed ChemicalService whose repository answers from memory with
+     * {@link #CHLORINE_PROPERTIES} for {@link #CHEMICAL_NAME}.
+     */
+    static ChemicalService chemicalService() {
+        Chemical chlorine = new Chemical();
+        chlorine.setName(CHEMICAL_NAME);
+        chlorine.setProperties(CHLORINE_PROPERTIES);
+        List<Chemical> found = List.of(chlorine);
+
+        ChemicalRepository repository = (ChemicalRepository) Proxy.newProxyInstance(
+                ChemicalRepository.class.getClassLoader(),
+                new Class<?>[] { ChemicalRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByNameIgnoreCase" ->
+                        CHEMICAL_NAME.equalsIgnoreCase((String) args[0]) ? found : Collections.emptyList();
+                    case "findAll" -> found;
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryChemicalRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        ChemicalService service = new ChemicalService(repository, new DispersionResultCache(false, 1, 1));
+        service.reloadCache();
+        return service;
+    }
+
+    static DispersionInput input(DispersionInput.StabilityClass stabilityClass) {
+        DispersionInput input = new DispersionInput();
+        input.setModel("GAUSSIAN");
+        input.setChemicalName(CHEMICAL_NAME);
+        input.setLatitude(29.7604);
+        input.setLongitude(-95.3698);
+        input.setSourceReleaseRate(2.5);
+        input.setWindSpeed(3.0);
+        input.setWindDirection(270.0);
+        input.setStabilityClass(stabilityClass);
+        return input;
+    }
+}
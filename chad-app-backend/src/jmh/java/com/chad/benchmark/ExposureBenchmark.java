@@ -0,0 +1,78 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.exposure.Receptor;
+import com.chad.service.exposure.ReceptorIndex;
+import com.chad.service.model.impl.GaussianDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposure of a Gaussian plume's AEGL zones against census-block points
+ * scattered uniformly over a 0.2 degree square around the source, with one
+ * in a hundred being a listed facility.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExposureBenchmark {
+
+    @Param({ "100000", "500000" })
+    public int receptors;
+
+    private ReceptorIndex index;
+    private List<Geometry> zones;
+
+    @Setup
+    public void setUp() {
+        DispersionInput input = BenchmarkFixtures.input(DispersionInput.StabilityClass.F);
+        GaussianDispersionModel model = new GaussianDispersionModel(new GaussianPlumeGridEngine(),
+                BenchmarkFixtures.chemicalService(), 200, 200, 1000, 0);
+        DispersionResult result = model.calculateGas(input);
+        zones = new ArrayList<>();
+        for (Map<String, Object> contour : result.getConcentrationContours()) {
+            zones.add((Geometry) contour.get("geoJson"));
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        List<Receptor> points = new ArrayList<>(receptors);
+        for (int i = 0; i < receptors; i++) {
+            double lat = input.getLatitude() + random.nextDouble(-0.1, 0.1);
+            double lon = input.getLongitude() + random.nextDouble(-0.1, 0.1);
+            boolean facility = i % 100 == 0;
+            points.add(new Receptor(Integer.toString(i), facility ? "Facility " + i : "",
+                    facility ? "SCHOOL" : "CENSUS_BLOCK", lat, lon, facility ? 0 : 40));
+        }
+        index = new ReceptorIndex(points);
+    }
+
+    @Benchmark
+    public void assessZones(Blackhole blackhole) {
+        for (Geometry zone : zones) {
+            blackhole.consume(index.assess(zone, 100, Set.of("CENSUS_BLOCK")));
+        }
+    }
+}
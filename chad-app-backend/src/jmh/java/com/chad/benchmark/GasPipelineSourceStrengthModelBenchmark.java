@@ -0,0 +1,65 @@
+package com.chad.benchmark;
+
+import com.chad.model.ChemicalProperties;
+import com.chad.model.PipelineReleaseCurve;
+import com.chad.model.PipelineSegment;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.impl.sources.GasPipelineSourceStrengthModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Release-rate curves for a batch of pipeline segments with a mix of leaks
+ * and full-bore ruptures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GasPipelineSourceStrengthModelBenchmark {
+
+    @Param({ "1", "1000" })
+    public int segmentCount;
+
+    private GasPipelineSourceStrengthModel model;
+    private ChemicalProperties properties;
+    private List<PipelineSegment> segments;
+
+    @Setup
+    public void setUp() {
+        ChemicalService chemicalService = BenchmarkFixtures.chemicalService();
+        model = new GasPipelineSourceStrengthModel(chemicalService, 64);
+        properties = chemicalService.propertiesFor(BenchmarkFixtures.CHEMICAL_NAME);
+        segments = new ArrayList<>();
+        for (int i = 0; i < segmentCount; i++) {
+            PipelineSegment segment = new PipelineSegment();
+            segment.setId("segment-" + i);
+            segment.setDiameter(0.2 + 0.1 * (i % 8));
+            segment.setLength(500 + 250 * (i % 20));
+            segment.setPressure(2e6 + 1e5 * (i % 60));
+            // Every fourth segment ruptures
+            segment.setHoleDiameter(i % 4 == 0 ? 0 : 0.01 + 0.01 * (i % 10));
+            segments.add(segment);
+        }
+    }
+
+    @Benchmark
+    public List<PipelineReleaseCurve> solveAll() {
+        return model.solveAll(segments, properties);
+    }
+}
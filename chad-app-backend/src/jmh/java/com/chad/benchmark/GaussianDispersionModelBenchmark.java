@@ -0,0 +1,66 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.impl.GaussianDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end Gaussian model calls: grid, contours, outline and GeoJSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GaussianDispersionModelBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    // Receptor grid nodes per side
+    @Param({ "100", "200", "500" })
+    public int gridResolution;
+
+    private GaussianDispersionModel model;
+    private DispersionInput input;
+    private DispersionInput chemicalInput;
+
+    @Setup
+    public void setUp() {
+        model = new GaussianDispersionModel(new GaussianPlumeGridEngine(), BenchmarkFixtures.chemicalService(),
+                gridResolution, gridResolution, 1000, 0);
+        input = BenchmarkFixtures.input(stabilityClass);
+        chemicalInput = BenchmarkFixtures.input(stabilityClass);
+        chemicalInput.setChemicalPropertiesJson(BenchmarkFixtures.CHLORINE_PROPERTIES_JSON);
+    }
+
+    @Benchmark
+    public DispersionResult calculateGas() {
+        return model.calculateGas(input);
+    }
+
+    @Benchmark
+    public DispersionResult calculateLiquid() {
+        return model.calculateLiquid(input);
+    }
+
+    @Benchmark
+    public DispersionResult calculateChemical() {
+        return model.calculateChemical(chemicalInput);
+    }
+}
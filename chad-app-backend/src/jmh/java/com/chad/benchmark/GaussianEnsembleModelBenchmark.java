@@ -0,0 +1,54 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.EnsembleRequest;
+import com.chad.service.model.impl.GaussianEnsembleModel;
+import com.chad.service.model.impl.dispersion.GaussianEnsembleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-seed Monte Carlo ensemble on the default 200 x 200 grid, from
+ * sampling through probability contours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GaussianEnsembleModelBenchmark {
+
+    @Param({ "100", "1000" })
+    public int members;
+
+    private GaussianEnsembleModel model;
+    private EnsembleRequest request;
+
+    @Setup
+    public void setUp() {
+        model = new GaussianEnsembleModel(new GaussianEnsembleEngine(), BenchmarkFixtures.chemicalService(),
+                200, 1000, 0);
+        request = new EnsembleRequest();
+        request.setBase(BenchmarkFixtures.input(DispersionInput.StabilityClass.D));
+        request.setMembers(members);
+        request.setSeed(42L);
+    }
+
+    @Benchmark
+    public DispersionResult runEnsemble() {
+        return model.calculate(request);
+    }
+}
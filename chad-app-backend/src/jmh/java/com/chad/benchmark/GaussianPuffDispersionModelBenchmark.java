@@ -0,0 +1,56 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.MetConditions;
+import com.chad.service.model.impl.GaussianPuffDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPuffEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 60-minute draining-tank release at 10 s steps with one wind shift,
+ * run to completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GaussianPuffDispersionModelBenchmark {
+
+    // Receptor grid nodes per side
+    @Param({ "100", "200", "500" })
+    public int gridResolution;
+
+    private GaussianPuffDispersionModel model;
+    private DispersionInput input;
+
+    @Setup
+    public void setUp() {
+        model = new GaussianPuffDispersionModel(new GaussianPuffEngine(), BenchmarkFixtures.chemicalService(),
+                gridResolution, 5000, 3600, 10, 20000);
+        input = BenchmarkFixtures.input(DispersionInput.StabilityClass.D);
+        input.setModel("PUFF");
+        input.setReleaseMass(3000);
+        input.setMetSchedule(List.of(new MetConditions(1200, 2.0, 200.0, DispersionInput.StabilityClass.F)));
+    }
+
+    @Benchmark
+    public DispersionResult simulate() {
+        return model.calculate(input);
+    }
+}
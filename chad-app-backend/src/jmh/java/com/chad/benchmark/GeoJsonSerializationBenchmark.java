@@ -0,0 +1,78 @@
+package com.chad.benchmark;
+
+import com.chad.controller.GeoJsonModule;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.ContourExtractor;
+import com.chad.service.model.impl.GaussianDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.io.geojson.GeoJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a finished result to the JSON response body, on its own so
+ * it can be compared with the model cost. The contour is written both with
+ * JTS's GeoJsonWriter (to a string) and with the streaming serializer the
+ * application registers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJsonSerializationBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    @Param({ "100", "200", "500" })
+    public int gridResolution;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonModule(8));
+    private DispersionResult result;
+    private MultiPolygon contour;
+
+    @Setup
+    public void setUp() {
+        GaussianDispersionModel model = new GaussianDispersionModel(new GaussianPlumeGridEngine(),
+                BenchmarkFixtures.chemicalService(), gridResolution, gridResolution, 1000, 0);
+        result = model.calculateGas(BenchmarkFixtures.input(stabilityClass));
+
+        // A dense isopleth at 1% of the peak, independent of chemical thresholds
+        double threshold = result.getConcentrationGrid().getMaxValue() * 0.01;
+        contour = new ContourExtractor(new GeometryFactory())
+                .extract(result.getConcentrationGrid(), new double[] { threshold })[0];
+    }
+
+    @Benchmark
+    public String writeContourGeoJson() {
+        return new GeoJsonWriter().write(contour);
+    }
+
+    @Benchmark
+    public String streamContourGeoJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(contour);
+    }
+
+    @Benchmark
+    public String serializeResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(result);
+    }
+}
@@ -0,0 +1,74 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.impl.hazards.BlastExplosionModel;
+import com.chad.service.model.impl.hazards.ThermalRadiationModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fire and explosion hazard rings, per scenario and as a bulk sweep of
+ * distances over many scenarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HazardZoneModelBenchmark {
+
+    private static final int SWEEP_SIZE = 10_000;
+
+    private ThermalRadiationModel thermalModel;
+    private BlastExplosionModel blastModel;
+    private DispersionInput input;
+    private final double[] sweepInput = new double[SWEEP_SIZE];
+    private final double[] sweepOutput = new double[SWEEP_SIZE];
+
+    @Setup
+    public void setUp() {
+        ChemicalService chemicalService = BenchmarkFixtures.chemicalService();
+        thermalModel = new ThermalRadiationModel(chemicalService, new double[] { 5, 10, 37.5 }, 0.5, 298.15);
+        blastModel = new BlastExplosionModel(chemicalService, new double[] { 1, 3.5, 8 }, 0.03, 60);
+        input = BenchmarkFixtures.input(DispersionInput.StabilityClass.D);
+        input.setReleaseMass(5000);
+        for (int i = 0; i < SWEEP_SIZE; i++) {
+            sweepInput[i] = 1e6 * (1 + i);
+        }
+    }
+
+    @Benchmark
+    public DispersionResult thermalCalculate() {
+        return thermalModel.calculate(input);
+    }
+
+    @Benchmark
+    public DispersionResult blastCalculate() {
+        return blastModel.calculate(input);
+    }
+
+    @Benchmark
+    public double[] thermalSweep() {
+        thermalModel.reaches(sweepInput, 5, sweepOutput);
+        return sweepOutput;
+    }
+
+    @Benchmark
+    public double[] blastSweep() {
+        blastModel.reaches(sweepInput, 1, sweepOutput);
+        return sweepOutput;
+    }
+}
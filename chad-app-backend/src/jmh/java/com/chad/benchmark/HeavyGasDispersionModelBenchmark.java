@@ -0,0 +1,48 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.impl.dispersion.HeavyGasDispersionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense-gas chlorine plume: integration, level distances and footprints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeavyGasDispersionModelBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    private HeavyGasDispersionModel model;
+    private DispersionInput input;
+
+    @Setup
+    public void setUp() {
+        model = new HeavyGasDispersionModel(BenchmarkFixtures.chemicalService(), 5000);
+        input = BenchmarkFixtures.input(stabilityClass);
+        input.setModel("HEAVY_GAS");
+    }
+
+    @Benchmark
+    public DispersionResult calculate() {
+        return model.calculate(input);
+    }
+}
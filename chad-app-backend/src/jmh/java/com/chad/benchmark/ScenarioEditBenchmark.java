@@ -0,0 +1,74 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ScenarioEdits;
+import com.chad.service.model.grid.GridCodec;
+import com.chad.service.model.impl.GaussianDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A wind-direction edit of a stored Gaussian scenario: running the model
+ * again against turning the stored zones to the new direction. Also the cost
+ * of encoding and decoding the grid that is stored with each scenario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioEditBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    private GaussianDispersionModel model;
+    private DispersionInput edited;
+    private DispersionResult stored;
+    private byte[] encodedGrid;
+
+    @Setup
+    public void setUp() {
+        model = new GaussianDispersionModel(new GaussianPlumeGridEngine(), BenchmarkFixtures.chemicalService(),
+                200, 200, 1000, 0);
+        DispersionInput base = BenchmarkFixtures.input(stabilityClass);
+        stored = model.calculateGas(base);
+        edited = new DispersionInput(base);
+        edited.setWindDirection(base.getWindDirection() + 35);
+        encodedGrid = GridCodec.encode(stored.getConcentrationGrid(), stored.getGridProjection());
+    }
+
+    @Benchmark
+    public DispersionResult recompute() {
+        return model.calculateGas(edited);
+    }
+
+    @Benchmark
+    public DispersionResult rotate() {
+        return ScenarioEdits.rotate(stored, edited.getWindDirection());
+    }
+
+    @Benchmark
+    public byte[] encodeGrid() {
+        return GridCodec.encode(stored.getConcentrationGrid(), stored.getGridProjection());
+    }
+
+    @Benchmark
+    public GridCodec.Decoded decodeGrid() {
+        return GridCodec.decode(encodedGrid);
+    }
+}
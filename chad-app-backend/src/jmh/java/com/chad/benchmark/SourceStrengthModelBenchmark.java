@@ -0,0 +1,58 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.impl.sources.PuddleSourceStrengthModel;
+import com.chad.service.model.impl.sources.TankSourceStrengthModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puddle evaporation and tank discharge source terms, including the chemical
+ * property lookup each call performs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SourceStrengthModelBenchmark {
+
+    @Param({ "A", "D", "F" })
+    public DispersionInput.StabilityClass stabilityClass;
+
+    private PuddleSourceStrengthModel puddleModel;
+    private TankSourceStrengthModel tankModel;
+    private DispersionInput input;
+
+    @Setup
+    public void setUp() {
+        ChemicalService chemicalService = BenchmarkFixtures.chemicalService();
+        puddleModel = new PuddleSourceStrengthModel(chemicalService);
+        tankModel = new TankSourceStrengthModel(chemicalService);
+        input = BenchmarkFixtures.input(stabilityClass);
+    }
+
+    @Benchmark
+    public DispersionResult puddleCalculate() {
+        return puddleModel.calculate(input);
+    }
+
+    @Benchmark
+    public DispersionResult tankCalculate() {
+        return tankModel.calculate(input);
+    }
+}
@@ -0,0 +1,93 @@
+package com.chad.benchmark;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ScenarioStore;
+import com.chad.service.model.impl.GaussianDispersionModel;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import com.chad.service.tiles.PlumeTileService;
+import org.locationtech.jts.geom.Envelope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector tiles of a Gaussian plume: cutting every tile that covers the plume
+ * at one zoom for a fresh scenario, against serving one of them again from
+ * the tile cache, which is what every console after the first sees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorTileBenchmark {
+
+    @Param({ "12", "16" })
+    public int zoom;
+
+    private DispersionResult result;
+    private ScenarioStore store;
+    private PlumeTileService warmService;
+    private int minX;
+    private int maxX;
+    private int minY;
+    private int maxY;
+
+    @Setup
+    public void setUp() {
+        GaussianDispersionModel model = new GaussianDispersionModel(new GaussianPlumeGridEngine(),
+                BenchmarkFixtures.chemicalService(), 200, 200, 1000, 0);
+        result = model.calculateGas(BenchmarkFixtures.input(DispersionInput.StabilityClass.A));
+        result.setScenarioId(UUID.randomUUID().toString());
+        store = new ScenarioStore(10, 3600);
+        store.register(result);
+
+        double tiles = Math.scalb(1.0, zoom);
+        Envelope bounds = result.getPlume().getEnvelopeInternal();
+        minX = tileX(bounds.getMinX(), tiles);
+        maxX = tileX(bounds.getMaxX(), tiles);
+        minY = tileY(bounds.getMaxY(), tiles);
+        maxY = tileY(bounds.getMinY(), tiles);
+
+        warmService = new PlumeTileService(store::find, 4096, 64, 64, 3600);
+        warmService.tile(result.getScenarioId(), zoom, minX, minY);
+    }
+
+    @Benchmark
+    public void cutAllTiles(Blackhole blackhole) {
+        PlumeTileService service = new PlumeTileService(store::find, 4096, 64, 64, 3600);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                blackhole.consume(service.tile(result.getScenarioId(), zoom, x, y));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object serveCachedTile() {
+        return warmService.tile(result.getScenarioId(), zoom, minX, minY);
+    }
+
+    private static int tileX(double lon, double tiles) {
+        return (int) ((lon + 180) / 360 * tiles);
+    }
+
+    private static int tileY(double lat, double tiles) {
+        double phi = Math.toRadians(lat);
+        return (int) ((1 - Math.log(Math.tan(phi) + 1 / Math.cos(phi)) / Math.PI) / 2 * tiles);
+    }
+}
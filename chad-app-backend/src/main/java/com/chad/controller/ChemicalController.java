@@ -6,6 +6,8 @@ import com.chad.service.ChemicalService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/chemicals")
 @CrossOrigin(origins = "*")
@@ -61,4 +63,11 @@ public class ChemicalController {
         Chemical saved = chemicalService.saveOrUpdateChemical(dto.getName(), dto.getProperties());
         return ResponseEntity.ok().body(saved);
     }
+
+    // Reload the in-memory chemical cache after out-of-band database changes
+    @PostMapping("/cache/reload")
+    public ResponseEntity<?> reloadCache() {
+        int count = chemicalService.reloadCache();
+        return ResponseEntity.ok().body(Map.of("cached", count));
+    }
 }
@@ -1,9 +1,31 @@
 package com.chad.controller;
 
+import com.chad.model.DispersionBatchItem;
+import com.chad.model.DispersionBatchRequest;
 import com.chad.model.DispersionInput;
 import com.chad.model.DispersionResult;
+import com.chad.model.EnsembleRequest;
+import com.chad.model.PipelineBatchRequest;
+import com.chad.model.PipelineReleaseCurve;
 import com.chad.service.DispersionService;
+import com.chad.service.tiles.PlumeTileService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/dispersion")
@@ -11,13 +33,23 @@ import org.springframework.web.bind.annotation.*;
 public class DispersionController {
 
     private final DispersionService dispersionService;
+    private final PlumeTileService plumeTileService;
+    private final long batchTimeoutMillis;
 
-    public DispersionController(DispersionService dispersionService) {
+    public DispersionController(DispersionService dispersionService, PlumeTileService plumeTileService,
+            @Value("${chad.dispersion.batch.timeout-ms:600000}") long batchTimeoutMillis) {
         this.dispersionService = dispersionService;
+        this.plumeTileService = plumeTileService;
+        this.batchTimeoutMillis = batchTimeoutMillis;
     }
 
+    // zoom or tolerance (metres) coarsen the returned geometry for display;
+    // either may also be given in the body
     @PostMapping("/calculate")
-    public DispersionResult calculateDispersion(@RequestBody DispersionInput input) {
+    public DispersionResult calculateDispersion(@RequestBody DispersionInput input,
+            @RequestParam(required = false) Double zoom,
+            @RequestParam(required = false) Double tolerance) {
+        applyLevelOfDetail(input, zoom, tolerance);
         String releaseType = input.getSourceReleaseType();
         System.out.println("Source Release Type received: " + releaseType);
 
@@ -38,7 +70,162 @@ public class DispersionController {
             }
         }
 
-        // Delegate to your service layer for dispersion calculation
-        return dispersionService.runModel(input);
+        // Delegate to your service layer for dispersion calculation; invalid
+        // inputs (e.g. an out-of-range zoom) are the caller's error
+        try {
+            return dispersionService.runModel(input);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Result cache hit/miss counters
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return dispersionService.getCacheStats();
+    }
+
+    // Evaluate many scenarios in one request; results are streamed as
+    // newline-delimited JSON in completion order as they finish
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> calculateBatch(@RequestBody DispersionBatchRequest request) {
+        List<DispersionInput> inputs = expandBatch(request);
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMillis);
+        CompletableFuture<Void> done;
+        try {
+            done = dispersionService.runBatch(inputs, item -> sendLine(emitter, item));
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many batches in progress, try again later");
+        }
+        done.whenComplete((ignored, error) -> {
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    // Reactive stream of results in request order, as NDJSON or Server-Sent
+    // Events depending on the Accept header, so clients can draw the first
+    // plumes while later scenarios are still running
+    @PostMapping(value = "/stream", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<DispersionResult> streamDispersion(@RequestBody DispersionBatchRequest request) {
+        return dispersionService.streamBatch(expandBatch(request));
+    }
+
+    // Time-stepped puff simulation; one frame of the evolving concentration
+    // field per frameInterval seconds of simulated time
+    @PostMapping(value = "/puff/stream", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<DispersionResult> streamPuff(@RequestBody DispersionInput input,
+            @RequestParam(defaultValue = "60") double frameInterval,
+            @RequestParam(required = false) Double zoom,
+            @RequestParam(required = false) Double tolerance) {
+        applyLevelOfDetail(input, zoom, tolerance);
+        try {
+            return dispersionService.streamPuff(input, frameInterval);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Monte Carlo ensemble around a Gaussian scenario; contours are the areas
+    // where at least each requested fraction of members reach a toxic level
+    @PostMapping("/ensemble")
+    public DispersionResult calculateEnsemble(@RequestBody EnsembleRequest request,
+            @RequestParam(required = false) Double zoom,
+            @RequestParam(required = false) Double tolerance) {
+        if (request.getBase() != null) {
+            applyLevelOfDetail(request.getBase(), zoom, tolerance);
+        }
+        try {
+            return dispersionService.runEnsemble(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Mapbox Vector Tile of a computed scenario's plume and contours, using the
+    // scenarioId from its result. A scenario's tiles never change, so clients
+    // may cache them; tiles with nothing in them are 204
+    @GetMapping("/{scenarioId}/tiles/{z}/{x}/{y}")
+    public ResponseEntity<byte[]> getTile(@PathVariable String scenarioId, @PathVariable int z,
+            @PathVariable int x, @PathVariable int y) {
+        byte[] tile;
+        try {
+            tile = plumeTileService.tile(scenarioId, z, x, y)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                            "Unknown or expired scenario " + scenarioId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(PlumeTileService.MEDIA_TYPE))
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS))
+                .body(tile);
+    }
+
+    // Release-rate curves for many pipeline segments of one gas, in input order
+    @PostMapping("/source/pipeline/batch")
+    public List<PipelineReleaseCurve> calculatePipelineBatch(@RequestBody PipelineBatchRequest request) {
+        int size = request.getSegments() != null ? request.getSegments().size() : 0;
+        if (size == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one pipeline segment is required");
+        }
+        if (size > dispersionService.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch of " + size + " segments exceeds the limit of " + dispersionService.getMaxBatchSize());
+        }
+        try {
+            return dispersionService.runPipelineBatch(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private List<DispersionInput> expandBatch(DispersionBatchRequest request) {
+        long size = request.size();
+        if (size == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one input or a sweep is required");
+        }
+        if (size > dispersionService.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch of " + size + " scenarios exceeds the limit of " + dispersionService.getMaxBatchSize());
+        }
+        try {
+            return request.toInputs();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static void sendLine(ResponseBodyEmitter emitter, DispersionBatchItem item) {
+        // Workers finish concurrently; keep each JSON line and its newline together
+        synchronized (emitter) {
+            try {
+                emitter.send(item, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void applyLevelOfDetail(DispersionInput input, Double zoom, Double tolerance) {
+        if (zoom != null) {
+            input.setZoom(zoom);
+        }
+        if (tolerance != null) {
+            input.setSimplifyTolerance(tolerance);
+        }
     }
 }
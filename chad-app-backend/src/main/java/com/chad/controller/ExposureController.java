@@ -0,0 +1,26 @@
+package com.chad.controller;
+
+import com.chad.service.exposure.ExposureService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/exposure")
+@CrossOrigin(origins = "*")
+public class ExposureController {
+
+    private final ExposureService exposureService;
+
+    public ExposureController(ExposureService exposureService) {
+        this.exposureService = exposureService;
+    }
+
+    // Rebuild the receptor index after locations or the receptor file changed
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        int count = exposureService.reload();
+        return ResponseEntity.ok().body(Map.of("indexed", count));
+    }
+}
@@ -0,0 +1,153 @@
+package com.chad.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+
+/**
+ * Writes a JTS geometry as an embedded GeoJSON object straight to the JSON
+ * generator, instead of building a GeoJSON string that is then quoted and
+ * escaped into the response.
+ *
+ * <p>Coordinates are read from the geometry's coordinate sequences and
+ * rounded to a fixed number of decimals. Each number is formatted into a
+ * small reused buffer, so nothing is allocated per vertex.
+ */
+public class GeoJsonGeometrySerializer extends StdSerializer<Geometry> {
+
+    // Largest scaled value written in fixed point; anything beyond falls back to Jackson
+    private static final double MAX_FIXED = 1e17;
+
+    private final int decimals;
+    private final double scale;
+
+    public GeoJsonGeometrySerializer(int decimals) {
+        super(Geometry.class);
+        if (decimals < 0 || decimals > 15) {
+            throw new IllegalArgumentException("GeoJSON coordinate precision must be 0 to 15 decimals");
+        }
+        this.decimals = decimals;
+        this.scale = Math.pow(10, decimals);
+    }
+
+    @Override
+    public void serialize(Geometry geometry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(geometry, gen, new char[32]);
+    }
+
+    private void write(Geometry geometry, JsonGenerator gen, char[] buffer) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", geometry.getGeometryType());
+        if (geometry instanceof GeometryCollection && !isMulti(geometry)) {
+            gen.writeArrayFieldStart("geometries");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                write(geometry.getGeometryN(i), gen, buffer);
+            }
+            gen.writeEndArray();
+        } else {
+            gen.writeFieldName("coordinates");
+            writeCoordinates(geometry, gen, buffer);
+        }
+        gen.writeEndObject();
+    }
+
+    private static boolean isMulti(Geometry geometry) {
+        return geometry instanceof MultiPoint || geometry instanceof MultiLineString
+                || geometry instanceof MultiPolygon;
+    }
+
+    private void writeCoordinates(Geometry geometry, JsonGenerator gen, char[] buffer) throws IOException {
+        if (geometry instanceof Point) {
+            Point point = (Point) geometry;
+            if (point.isEmpty()) {
+                gen.writeStartArray();
+                gen.writeEndArray();
+            } else {
+                writePosition(point.getCoordinateSequence(), 0, gen, buffer);
+            }
+        } else if (geometry instanceof LineString) {
+            writeSequence(((LineString) geometry).getCoordinateSequence(), gen, buffer);
+        } else if (geometry instanceof Polygon) {
+            writePolygon((Polygon) geometry, gen, buffer);
+        } else {
+            // Multi-geometries: one coordinate array per member
+            gen.writeStartArray();
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                writeCoordinates(geometry.getGeometryN(i), gen, buffer);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private void writePolygon(Polygon polygon, JsonGenerator gen, char[] buffer) throws IOException {
+        gen.writeStartArray();
+        if (!polygon.isEmpty()) {
+            writeSequence(polygon.getExteriorRing().getCoordinateSequence(), gen, buffer);
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeSequence(polygon.getInteriorRingN(i).getCoordinateSequence(), gen, buffer);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeSequence(CoordinateSequence sequence, JsonGenerator gen, char[] buffer) throws IOException {
+        gen.writeStartArray();
+        for (int i = 0, n = sequence.size(); i < n; i++) {
+            writePosition(sequence, i, gen, buffer);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writePosition(CoordinateSequence sequence, int index, JsonGenerator gen, char[] buffer)
+            throws IOException {
+        gen.writeStartArray();
+        writeNumber(sequence.getX(index), gen, buffer);
+        writeNumber(sequence.getY(index), gen, buffer);
+        gen.writeEndArray();
+    }
+
+    // Fixed-point decimal with trailing zeros dropped, e.g. -94.99921684 or 30
+    private void writeNumber(double value, JsonGenerator gen, char[] buffer) throws IOException {
+        double scaled = Math.rint(value * scale);
+        if (!(Math.abs(scaled) < MAX_FIXED)) {
+            gen.writeNumber(value);
+            return;
+        }
+        long digits = (long) Math.abs(scaled);
+        int end = buffer.length;
+        int pos = end;
+
+        // Fraction, skipping trailing zeros
+        int fractionDigits = decimals;
+        while (fractionDigits > 0 && digits % 10 == 0) {
+            digits /= 10;
+            fractionDigits--;
+        }
+        for (int i = 0; i < fractionDigits; i++) {
+            buffer[--pos] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        if (fractionDigits > 0) {
+            buffer[--pos] = '.';
+        }
+        do {
+            buffer[--pos] = (char) ('0' + digits % 10);
+            digits /= 10;
+        } while (digits > 0);
+        if (scaled < 0) {
+            buffer[--pos] = '-';
+        }
+        gen.writeRawValue(buffer, pos, end - pos);
+    }
+}
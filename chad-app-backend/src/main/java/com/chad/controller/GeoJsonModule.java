@@ -0,0 +1,20 @@
+package com.chad.controller;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jackson module picked up by Spring Boot's ObjectMapper: every JTS geometry
+ * in a response, such as a result's plume or its contours, is written as
+ * embedded GeoJSON.
+ */
+@Component
+public class GeoJsonModule extends SimpleModule {
+
+    public GeoJsonModule(@Value("${chad.geojson.coordinate-precision:8}") int coordinatePrecision) {
+        super("GeoJsonModule");
+        addSerializer(Geometry.class, new GeoJsonGeometrySerializer(coordinatePrecision));
+    }
+}
@@ -1,10 +1,17 @@
 package com.chad.controller;
 
-import com.chad.model.Location;
+import com.chad.model.BoundingBox;
+import com.chad.model.LocationPage;
+import com.chad.model.LocationView;
 import com.chad.repository.LocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -13,13 +20,45 @@ import java.util.List;
 public class LocationController {
 
     private final LocationRepository locationRepository;
+    private final int maxPageSize;
 
-    public LocationController(LocationRepository locationRepository) {
+    public LocationController(LocationRepository locationRepository,
+            @Value("${chad.locations.max-page-size:5000}") int maxPageSize) {
         this.locationRepository = locationRepository;
+        this.maxPageSize = maxPageSize;
     }
 
+    // One page of locations in id order, starting after the id given as
+    // after (the previous page's nextAfter). bbox=minLon,minLat,maxLon,maxLat
+    // limits the pages to locations inside it
     @GetMapping("/locations")
-    public List<Location> getLocations() {
-        return locationRepository.findAll();
+    public LocationPage getLocations(@RequestParam(required = false) String bbox,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize);
+        }
+        // One extra row tells whether another page follows
+        List<LocationView> items;
+        if (bbox == null) {
+            items = locationRepository.findPageAfter(after, PageRequest.of(0, limit + 1));
+        } else {
+            BoundingBox box = parseBoundingBox(bbox);
+            items = locationRepository.findPageWithinBoundingBox(box.minLon(), box.minLat(), box.maxLon(),
+                    box.maxLat(), after, limit + 1);
+        }
+        if (items.size() <= limit) {
+            return new LocationPage(items, null);
+        }
+        items = items.subList(0, limit);
+        return new LocationPage(items, items.get(limit - 1).getId());
+    }
+
+    static BoundingBox parseBoundingBox(String bbox) {
+        try {
+            return BoundingBox.parse(bbox);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,275 @@
+package com.chad.controller;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.GridSpec;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link DispersionResult} in a compact binary form for clients that
+ * send {@code Accept: application/x-chad-plume}. Unlike the JSON response it
+ * includes the concentration grid.
+ *
+ * <p>Layout, all numbers little-endian:
+ * <pre>
+ * header    "CHPL", version u8 (1), flags u8 (bit 0: grid present),
+ *           coordinate decimals u8, reserved u8
+ * summary   u32 byte length + hazard summary as UTF-8 JSON
+ * plume     geometry
+ * grid      if flagged: origin lon, origin lat, x-axis bearing (deg) f64,
+ *           columns u32, rows u32, xMin, xMax, yMin, yMax f64 (m),
+ *           then columns * rows f32 values (kg/m3), row-major from yMin
+ * contours  u32 count, then per contour: level string, threshold key
+ *           string, threshold f64 (NaN if none), geometry
+ * string    u16 byte length + UTF-8
+ * geometry  varint polygon count; per polygon varint ring count; per ring
+ *           varint point count, then per point zigzag varint deltas of lon
+ *           and lat scaled by 10^decimals, running from 0 through the whole
+ *           geometry
+ * </pre>
+ * Geometries other than polygons and multi-polygons are written with no
+ * polygons.
+ *
+ * <p>Everything is encoded straight from the grid's primitive array and the
+ * geometries' coordinate sequences through one fixed buffer.
+ */
+public class PlumeBinaryMessageConverter extends AbstractHttpMessageConverter<DispersionResult> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-chad-plume");
+
+    private static final byte[] MAGIC = { 'C', 'H', 'P', 'L' };
+    private static final int VERSION = 1;
+    private static final int FLAG_GRID = 1;
+
+    private final ObjectMapper objectMapper;
+    private final int decimals;
+    private final double scale;
+
+    public PlumeBinaryMessageConverter(ObjectMapper objectMapper, int decimals) {
+        super(MEDIA_TYPE);
+        if (decimals < 0 || decimals > 12) {
+            throw new IllegalArgumentException("Binary coordinate precision must be 0 to 12 decimals");
+        }
+        this.objectMapper = objectMapper;
+        this.decimals = decimals;
+        this.scale = Math.pow(10, decimals);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DispersionResult.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DispersionResult readInternal(Class<? extends DispersionResult> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary plume results cannot be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(DispersionResult result, HttpOutputMessage outputMessage) throws IOException {
+        Writer out = new Writer(outputMessage.getBody());
+        ConcentrationGrid grid = result.getConcentrationGrid();
+        LocalTangentProjection projection = result.getGridProjection();
+        boolean hasGrid = grid != null && projection != null;
+
+        out.bytes(MAGIC, MAGIC.length);
+        out.u8(VERSION);
+        out.u8(hasGrid ? FLAG_GRID : 0);
+        out.u8(decimals);
+        out.u8(0);
+
+        Map<String, Object> summary = result.getHazardSummary() != null ? result.getHazardSummary()
+                : Collections.emptyMap();
+        byte[] summaryJson = objectMapper.writeValueAsBytes(summary);
+        out.u32(summaryJson.length);
+        out.bytes(summaryJson, summaryJson.length);
+
+        geometry(out, result.getPlume());
+
+        if (hasGrid) {
+            GridSpec spec = grid.getSpec();
+            out.f64(projection.getOriginLon());
+            out.f64(projection.getOriginLat());
+            out.f64(projection.getBearing());
+            out.u32(spec.getColumns());
+            out.u32(spec.getRows());
+            out.f64(spec.getXMin());
+            out.f64(spec.getXMax());
+            out.f64(spec.getYMin());
+            out.f64(spec.getYMax());
+            double[] values = grid.getValues();
+            for (double value : values) {
+                out.f32((float) value);
+            }
+        }
+
+        List<Map<String, Object>> contours = result.getConcentrationContours() != null
+                ? result.getConcentrationContours()
+                : Collections.emptyList();
+        out.u32(contours.size());
+        for (Map<String, Object> contour : contours) {
+            Object level = contour.get("level");
+            out.string(level != null ? level.toString() : "");
+            String thresholdKey = thresholdKey(contour);
+            out.string(thresholdKey != null ? thresholdKey : "");
+            out.f64(thresholdKey != null ? ((Number) contour.get(thresholdKey)).doubleValue() : Double.NaN);
+            Object geometry = contour.get("geoJson");
+            geometry(out, geometry instanceof Geometry ? (Geometry) geometry : null);
+        }
+        out.flush();
+    }
+
+    // The concentration threshold if there is one, else the first numeric threshold
+    private static String thresholdKey(Map<String, Object> contour) {
+        if (contour.get("threshold_kg_per_m3") instanceof Number) {
+            return "threshold_kg_per_m3";
+        }
+        for (Map.Entry<String, Object> entry : contour.entrySet()) {
+            if (entry.getKey().startsWith("threshold") && entry.getValue() instanceof Number) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void geometry(Writer out, Geometry geometry) throws IOException {
+        if (geometry == null || geometry.isEmpty()
+                || !(geometry instanceof Polygon || geometry instanceof MultiPolygon)) {
+            out.varint(0);
+            return;
+        }
+        int polygons = geometry.getNumGeometries();
+        out.varint(polygons);
+        long[] previous = new long[2];
+        for (int p = 0; p < polygons; p++) {
+            Polygon polygon = (Polygon) geometry.getGeometryN(p);
+            int holes = polygon.getNumInteriorRing();
+            out.varint(1 + holes);
+            ring(out, polygon.getExteriorRing().getCoordinateSequence(), previous);
+            for (int h = 0; h < holes; h++) {
+                ring(out, polygon.getInteriorRingN(h).getCoordinateSequence(), previous);
+            }
+        }
+    }
+
+    private void ring(Writer out, CoordinateSequence sequence, long[] previous) throws IOException {
+        int n = sequence.size();
+        out.varint(n);
+        for (int i = 0; i < n; i++) {
+            long x = Math.round(sequence.getX(i) * scale);
+            long y = Math.round(sequence.getY(i) * scale);
+            out.zigzag(x - previous[0]);
+            out.zigzag(y - previous[1]);
+            previous[0] = x;
+            previous[1] = y;
+        }
+    }
+
+    /**
+     * Little-endian encoder over a fixed buffer, flushed to the response as
+     * it fills.
+     */
+    private static final class Writer {
+        private final OutputStream stream;
+        private final byte[] buffer = new byte[16 * 1024];
+        private int position;
+
+        Writer(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (position + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            stream.write(buffer, 0, position);
+            position = 0;
+        }
+
+        void u8(int value) throws IOException {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void u32(int value) throws IOException {
+            ensure(4);
+            buffer[position++] = (byte) value;
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 24);
+        }
+
+        void u64(long value) throws IOException {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void f32(float value) throws IOException {
+            u32(Float.floatToRawIntBits(value));
+        }
+
+        void f64(double value) throws IOException {
+            u64(Double.doubleToRawLongBits(value));
+        }
+
+        void varint(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void zigzag(long value) throws IOException {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void bytes(byte[] bytes, int length) throws IOException {
+            if (length > buffer.length) {
+                flush();
+                stream.write(bytes, 0, length);
+                return;
+            }
+            ensure(length);
+            System.arraycopy(bytes, 0, buffer, position, length);
+            position += length;
+        }
+
+        void string(String value) throws IOException {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(utf8.length, 0xFFFF);
+            ensure(2);
+            buffer[position++] = (byte) length;
+            buffer[position++] = (byte) (length >>> 8);
+            bytes(utf8, length);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.chad.controller;
+
+import com.chad.model.BoundingBox;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.Location;
+import com.chad.model.ScenarioSummary;
+import com.chad.repository.LocationRepository;
+import com.chad.repository.ScenarioResultRepository;
+import com.chad.service.DispersionService;
+import com.chad.service.StoredScenario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+// Stored results: reloaded, edited, and queried spatially in PostGIS
+@RestController
+@RequestMapping("/api/scenarios")
+@CrossOrigin(origins = "*")
+public class ScenarioController {
+
+    private final ScenarioResultRepository scenarioResultRepository;
+    private final LocationRepository locationRepository;
+    private final DispersionService dispersionService;
+    private final ObjectMapper objectMapper;
+    private final int maxResults;
+
+    public ScenarioController(ScenarioResultRepository scenarioResultRepository,
+            LocationRepository locationRepository, DispersionService dispersionService, ObjectMapper objectMapper,
+            @Value("${chad.scenarios.query.max-results:500}") int maxResults) {
+        this.scenarioResultRepository = scenarioResultRepository;
+        this.locationRepository = locationRepository;
+        this.dispersionService = dispersionService;
+        this.objectMapper = objectMapper;
+        this.maxResults = maxResults;
+    }
+
+    // Newest scenarios whose plume touches bbox=minLon,minLat,maxLon,maxLat
+    @GetMapping
+    public List<ScenarioSummary> getScenarios(@RequestParam String bbox,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + maxResults);
+        }
+        BoundingBox box = LocationController.parseBoundingBox(bbox);
+        return scenarioResultRepository.findIntersectingBoundingBox(box.minLon(), box.minLat(), box.maxLon(),
+                box.maxLat(), limit);
+    }
+
+    // Locations inside a scenario's plume, or inside one of its contours
+    // (e.g. level=AEGL-2) when a level is given
+    @GetMapping("/{scenarioId}/locations")
+    public List<Location> getLocationsWithin(@PathVariable String scenarioId,
+            @RequestParam(required = false) String level) {
+        if (!scenarioResultRepository.existsById(scenarioId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown scenario " + scenarioId);
+        }
+        return level == null
+                ? locationRepository.findWithinPlume(scenarioId)
+                : locationRepository.findWithinContour(scenarioId, level);
+    }
+
+    // A stored result, reloaded from the database if it is no longer in memory
+    @GetMapping("/{scenarioId}")
+    public DispersionResult getScenario(@PathVariable String scenarioId) {
+        return findScenario(scenarioId).result();
+    }
+
+    // The input a scenario was run with, weather included, as a starting point for edits
+    @GetMapping("/{scenarioId}/input")
+    public DispersionInput getScenarioInput(@PathVariable String scenarioId) {
+        StoredScenario scenario = findScenario(scenarioId);
+        if (scenario.input() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No input stored for scenario " + scenarioId);
+        }
+        return scenario.input();
+    }
+
+    // Re-runs a scenario with the given input fields changed, e.g. {"windDirection": 240},
+    // as a new scenario; only what the change affects is recomputed
+    @PatchMapping("/{scenarioId}")
+    public DispersionResult editScenario(@PathVariable String scenarioId, @RequestBody JsonNode changes) {
+        StoredScenario base = findScenario(scenarioId);
+        if (base.input() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No input stored for scenario " + scenarioId);
+        }
+        if (!changes.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Changes must be a JSON object");
+        }
+        try {
+            DispersionInput edited = objectMapper.readerForUpdating(new DispersionInput(base.input()))
+                    .readValue(changes);
+            return dispersionService.runEdited(base, edited);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid changes: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private StoredScenario findScenario(String scenarioId) {
+        return dispersionService.findScenario(scenarioId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Unknown scenario " + scenarioId));
+    }
+}
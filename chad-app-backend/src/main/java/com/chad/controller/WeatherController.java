@@ -1,18 +1,29 @@
 package com.chad.controller;
 
+import com.chad.model.WeatherObservation;
+import com.chad.service.weather.WeatherService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 @RestController
 public class WeatherController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final WeatherService weatherService;
+
+    public WeatherController(WeatherService weatherService) {
+        this.weatherService = weatherService;
+    }
 
     @GetMapping("/api/weather/current")
-    public String getCurrentWeather(@RequestParam double lat, @RequestParam double lon) {
-        String url = String.format("https://api.weather.gov/points/%f,%f", lat, lon);
-        return restTemplate.getForObject(url, String.class);
+    public Mono<ResponseEntity<WeatherObservation>> getCurrentWeather(@RequestParam double lat,
+            @RequestParam double lon) {
+        return weatherService.currentObservation(lat, lon)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build()));
     }
 }
@@ -0,0 +1,28 @@
+package com.chad.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final int coordinatePrecision;
+
+    public WebConfig(ObjectMapper objectMapper,
+            @Value("${chad.geojson.coordinate-precision:8}") int coordinatePrecision) {
+        this.objectMapper = objectMapper;
+        this.coordinatePrecision = coordinatePrecision;
+    }
+
+    // The binary plume format goes after JSON so only an explicit Accept selects it
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PlumeBinaryMessageConverter(objectMapper, coordinatePrecision));
+    }
+}
@@ -0,0 +1,30 @@
+package com.chad.model;
+
+/**
+ * A lon/lat rectangle from a {@code bbox} request parameter, written
+ * {@code minLon,minLat,maxLon,maxLat} as in GeoJSON.
+ */
+public record BoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
+
+    public BoundingBox {
+        if (!(minLon >= -180 && maxLon <= 180 && minLat >= -90 && maxLat <= 90)) {
+            throw new IllegalArgumentException("Bounding box is outside lon/lat range");
+        }
+        if (!(minLon <= maxLon) || !(minLat <= maxLat)) {
+            throw new IllegalArgumentException("Bounding box minimum must not exceed its maximum");
+        }
+    }
+
+    public static BoundingBox parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            return new BoundingBox(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.chad.model;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
@@ -30,14 +32,37 @@ public class Chemical {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Parsed once per load or change of properties, see getTypedProperties()
+    @Transient
+    @JsonIgnore
+    private volatile ChemicalProperties typedProperties;
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
 
+    @PostLoad
+    public void postLoad() {
+        this.typedProperties = ChemicalProperties.from(properties);
+    }
+
     public Chemical() {
     }
 
+    /**
+     * Detached copy with the same id and values, e.g. to update without
+     * touching an instance that others share.
+     */
+    public Chemical(Chemical other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.properties = other.properties != null ? new LinkedHashMap<>(other.properties) : null;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.typedProperties = other.typedProperties;
+    }
+
     public Long getId() {
         return id;
     }
@@ -56,6 +81,17 @@ public class Chemical {
 
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
+        this.typedProperties = ChemicalProperties.from(properties);
+    }
+
+    @JsonIgnore
+    public ChemicalProperties getTypedProperties() {
+        ChemicalProperties typed = typedProperties;
+        if (typed == null) {
+            typed = ChemicalProperties.from(properties);
+            typedProperties = typed;
+        }
+        return typed;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -0,0 +1,82 @@
+package com.chad.model;
+
+import java.util.Map;
+
+/**
+ * Typed, immutable view of the chemical properties the models use, parsed
+ * once from the jsonb {@code properties} map (or a request's properties JSON)
+ * instead of on every calculation.
+ *
+ * <p>Missing values take the defaults the models have always assumed. Toxic
+ * endpoints (AEGL/ERPG, ppm) and the molecular weight have no sensible default
+ * and are {@code NaN} / {@code 0} when absent.
+ */
+public record ChemicalProperties(
+        double molecularWeight, // g/mol, 0 if unknown
+        double vaporPressure, // Pa
+        double liquidDensity, // kg/m3
+        double heatOfVaporization, // J/kg
+        double defaultTemperature, // K
+        double tankPressure, // Pa
+        double tankTemperature, // K
+        double holeDiameter, // m
+        double dischargeCoefficient,
+        double decayRate,
+        double heatCapacityRatio, // cp/cv of the vapour
+        double pipelineDiameter, // m, inner
+        double pipelineLength, // m
+        double pipelinePressure, // Pa, absolute operating pressure
+        double pipelineTemperature, // K
+        double heatOfCombustion, // J/kg
+        double radiativeFraction, // share of the combustion energy radiated by a fire
+        double aegl1, // ppm
+        double aegl2,
+        double aegl3,
+        double erpg1,
+        double erpg2,
+        double erpg3) {
+
+    public static final ChemicalProperties DEFAULTS = from(Map.of());
+
+    public static ChemicalProperties from(Map<String, Object> properties) {
+        if (properties == null) {
+            properties = Map.of();
+        }
+        return new ChemicalProperties(
+                number(properties, "molecularWeight", 0.0),
+                number(properties, "vaporPressure", 3000),
+                number(properties, "liquidDensity", 1000),
+                number(properties, "heatOfVaporization", 2.5e6),
+                number(properties, "defaultTemperature", 298.15),
+                number(properties, "tankPressure", 101325),
+                number(properties, "tankTemperature", 298.15),
+                number(properties, "holeDiameter", 0.05),
+                number(properties, "dischargeCoefficient", 0.61),
+                number(properties, "decayRate", 0.0),
+                number(properties, "heatCapacityRatio", 1.31),
+                number(properties, "pipelineDiameter", 0.3),
+                number(properties, "pipelineLength", 1000),
+                number(properties, "pipelinePressure", 7.0e6),
+                number(properties, "pipelineTemperature", 288.15),
+                number(properties, "heatOfCombustion", 4.6e7),
+                number(properties, "radiativeFraction", 0.3),
+                level(properties, "AEGL-1", "aegl1"),
+                level(properties, "AEGL-2", "aegl2"),
+                level(properties, "AEGL-3", "aegl3"),
+                level(properties, "ERPG-1", "erpg1"),
+                level(properties, "ERPG-2", "erpg2"),
+                level(properties, "ERPG-3", "erpg3"));
+    }
+
+    private static double number(Map<String, Object> properties, String key, double defaultValue) {
+        Object value = properties.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    // Accepts both the published name ("AEGL-2") and the camel-case key ("aegl2")
+    private static double level(Map<String, Object> properties, String name, String key) {
+        Object value = properties.containsKey(name) ? properties.get(name) : properties.get(key);
+        return value instanceof Number && ((Number) value).doubleValue() > 0 ? ((Number) value).doubleValue()
+                : Double.NaN;
+    }
+}
@@ -0,0 +1,65 @@
+package com.chad.model;
+
+/**
+ * One finished scenario of a batch. Items are streamed in completion order,
+ * so {@code index} refers back to the position in the expanded request.
+ */
+public class DispersionBatchItem {
+
+    private int index;
+    private DispersionInput input;
+    private DispersionResult result;
+    private String error;
+
+    public DispersionBatchItem() {
+        // Default constructor
+    }
+
+    public static DispersionBatchItem success(int index, DispersionInput input, DispersionResult result) {
+        DispersionBatchItem item = new DispersionBatchItem();
+        item.index = index;
+        item.input = input;
+        item.result = result;
+        return item;
+    }
+
+    public static DispersionBatchItem failure(int index, DispersionInput input, String error) {
+        DispersionBatchItem item = new DispersionBatchItem();
+        item.index = index;
+        item.input = input;
+        item.error = error;
+        return item;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public DispersionInput getInput() {
+        return input;
+    }
+
+    public void setInput(DispersionInput input) {
+        this.input = input;
+    }
+
+    public DispersionResult getResult() {
+        return result;
+    }
+
+    public void setResult(DispersionResult result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.chad.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request body for batch evaluation: explicit inputs, a parameter sweep, or
+ * both (explicit inputs come first).
+ */
+public class DispersionBatchRequest {
+
+    private List<DispersionInput> inputs;
+    private DispersionSweep sweep;
+
+    public DispersionBatchRequest() {
+        // Default constructor
+    }
+
+    /**
+     * Number of scenarios in the request, without expanding the sweep.
+     */
+    public long size() {
+        return (inputs != null ? inputs.size() : 0) + (sweep != null ? sweep.size() : 0);
+    }
+
+    /**
+     * All scenarios in evaluation order.
+     */
+    public List<DispersionInput> toInputs() {
+        List<DispersionInput> all = new ArrayList<>();
+        if (inputs != null) {
+            all.addAll(inputs);
+        }
+        if (sweep != null) {
+            all.addAll(sweep.expand());
+        }
+        return all;
+    }
+
+    public List<DispersionInput> getInputs() {
+        return inputs;
+    }
+
+    public void setInputs(List<DispersionInput> inputs) {
+        this.inputs = inputs;
+    }
+
+    public DispersionSweep getSweep() {
+        return sweep;
+    }
+
+    public void setSweep(DispersionSweep sweep) {
+        this.sweep = sweep;
+    }
+}
@@ -1,11 +1,15 @@
 package com.chad.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Holds input parameters for dispersion modeling.
  */
 public class DispersionInput {
 
     private String model; // e.g., "GAUSSIAN"
+    private String transportModel; // dispersion model fed by the source term when model is "COUPLED"
     private String chemicalName;
     private IncidentType incidentType; // Enum defined below
     private double latitude;
@@ -15,10 +19,24 @@ public class DispersionInput {
     private double windDirection; // degrees from north
     private String sourceReleaseType;
     private StabilityClass stabilityClass; // Enum defined below
+    private WeatherSource weatherSource; // where the wind and stability came from; set by the service
 
     // New field to hold chemical properties JSON
     private String chemicalPropertiesJson;
 
+    // Time-varying (PUFF) runs; zero means use the model default
+    private double simulationDuration; // s
+    private double timeStep; // s
+    private double releaseMass; // kg inventory; if set, the release rate decays as the tank drains
+    private List<MetConditions> metSchedule; // changes in wind/stability after the release starts
+
+    // PIPELINE source: the failed segment; unset (or zero) fields take the chemical's pipeline defaults
+    private PipelineSegment pipeline;
+
+    // Output level of detail; a zero tolerance and no zoom keep full detail. An explicit tolerance wins over zoom
+    private double simplifyTolerance; // m
+    private Double zoom; // web map zoom level the result will be drawn at; null if not given
+
     /**
      * Enum for chemical incident type.
      */
@@ -35,10 +53,48 @@ public class DispersionInput {
         A, B, C, D, E, F
     }
 
+    /**
+     * Origin of the wind and stability a run used: given in the request,
+     * observed by a weather provider, or the fallback used when no
+     * observation was available in time.
+     */
+    public static enum WeatherSource {
+        REQUEST,
+        NWS,
+        STUB,
+        FALLBACK
+    }
+
     public DispersionInput() {
         // Default constructor
     }
 
+    /**
+     * Copy constructor, used to derive scenario variants from a base input.
+     */
+    public DispersionInput(DispersionInput other) {
+        this.model = other.model;
+        this.transportModel = other.transportModel;
+        this.chemicalName = other.chemicalName;
+        this.incidentType = other.incidentType;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.sourceReleaseRate = other.sourceReleaseRate;
+        this.windSpeed = other.windSpeed;
+        this.windDirection = other.windDirection;
+        this.sourceReleaseType = other.sourceReleaseType;
+        this.stabilityClass = other.stabilityClass;
+        this.weatherSource = other.weatherSource;
+        this.chemicalPropertiesJson = other.chemicalPropertiesJson;
+        this.simulationDuration = other.simulationDuration;
+        this.timeStep = other.timeStep;
+        this.releaseMass = other.releaseMass;
+        this.metSchedule = other.metSchedule != null ? new ArrayList<>(other.metSchedule) : null;
+        this.pipeline = other.pipeline != null ? new PipelineSegment(other.pipeline) : null;
+        this.simplifyTolerance = other.simplifyTolerance;
+        this.zoom = other.zoom;
+    }
+
     // Getters and setters
 
     public String getModel() {
@@ -49,6 +105,14 @@ public class DispersionInput {
         this.model = model;
     }
 
+    public String getTransportModel() {
+        return transportModel;
+    }
+
+    public void setTransportModel(String transportModel) {
+        this.transportModel = transportModel;
+    }
+
     public String getChemicalName() {
         return chemicalName;
     }
@@ -113,6 +177,14 @@ public class DispersionInput {
         this.stabilityClass = stabilityClass;
     }
 
+    public WeatherSource getWeatherSource() {
+        return weatherSource;
+    }
+
+    public void setWeatherSource(WeatherSource weatherSource) {
+        this.weatherSource = weatherSource;
+    }
+
     public String getSourceReleaseType() {
         return sourceReleaseType;
     }
@@ -129,10 +201,67 @@ public class DispersionInput {
         this.chemicalPropertiesJson = chemicalPropertiesJson;
     }
 
+    public double getSimulationDuration() {
+        return simulationDuration;
+    }
+
+    public void setSimulationDuration(double simulationDuration) {
+        this.simulationDuration = simulationDuration;
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    public void setTimeStep(double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    public double getReleaseMass() {
+        return releaseMass;
+    }
+
+    public void setReleaseMass(double releaseMass) {
+        this.releaseMass = releaseMass;
+    }
+
+    public List<MetConditions> getMetSchedule() {
+        return metSchedule;
+    }
+
+    public void setMetSchedule(List<MetConditions> metSchedule) {
+        this.metSchedule = metSchedule;
+    }
+
+    public double getSimplifyTolerance() {
+        return simplifyTolerance;
+    }
+
+    public void setSimplifyTolerance(double simplifyTolerance) {
+        this.simplifyTolerance = simplifyTolerance;
+    }
+
+    public PipelineSegment getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(PipelineSegment pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public Double getZoom() {
+        return zoom;
+    }
+
+    public void setZoom(Double zoom) {
+        this.zoom = zoom;
+    }
+
     @Override
     public String toString() {
         return "DispersionInput{" +
                 "model='" + model + '\'' +
+                ", transportModel='" + transportModel + '\'' +
                 ", chemicalName='" + chemicalName + '\'' +
                 ", incidentType=" + incidentType +
                 ", latitude=" + latitude +
@@ -142,7 +271,15 @@ public class DispersionInput {
                 ", windDirection=" + windDirection +
                 ", sourceReleaseType='" + sourceReleaseType + '\'' +
                 ", stabilityClass=" + stabilityClass +
+                ", weatherSource=" + weatherSource +
                 ", chemicalPropertiesJson='" + chemicalPropertiesJson + '\'' +
+                ", simulationDuration=" + simulationDuration +
+                ", timeStep=" + timeStep +
+                ", releaseMass=" + releaseMass +
+                ", metSchedule=" + metSchedule +
+                ", pipeline=" + pipeline +
+                ", simplifyTolerance=" + simplifyTolerance +
+                ", zoom=" + zoom +
                 '}';
     }
 }
@@ -1,5 +1,11 @@
 package com.chad.model;
 
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.locationtech.jts.geom.Geometry;
+
 import java.util.List;
 import java.util.Map;
 
@@ -11,9 +17,16 @@ import java.util.Map;
 public class DispersionResult {
 
     /**
-     * GeoJSON string representation of the plume polygon or hazard zone.
+     * Id under which the result can be fetched again, e.g. as map tiles.
+     * Identical requests answered from the result cache share one id.
+     */
+    private String scenarioId;
+
+    /**
+     * Plume polygon or hazard zone in lon/lat, written to JSON as embedded
+     * GeoJSON under {@code geoJsonPlume}.
      */
-    private String geoJsonPlume;
+    private Geometry plume;
 
     /**
      * A map containing summary hazard metrics, e.g., max concentration, affected
@@ -22,20 +35,46 @@ public class DispersionResult {
     private Map<String, Object> hazardSummary;
 
     /**
-     * Optional list of concentration contour data points or layers.
+     * Optional list of concentration contour data points or layers; each
+     * layer's {@code geoJson} entry is a {@link Geometry}.
      */
     private List<Map<String, Object>> concentrationContours;
 
+    /**
+     * Receptor grid the contours were derived from, if the model produced one.
+     * Not part of the JSON response.
+     */
+    @JsonIgnore
+    private ConcentrationGrid concentrationGrid;
+
+    /**
+     * Places the grid's local frame on the map; models without a grid may
+     * still set the frame their zones were drawn in. Not part of the JSON
+     * response.
+     */
+    @JsonIgnore
+    private LocalTangentProjection gridProjection;
+
     public DispersionResult() {
         // Default constructor
     }
 
-    public String getGeoJsonPlume() {
-        return geoJsonPlume;
+    public String getScenarioId() {
+        return scenarioId;
+    }
+
+    public void setScenarioId(String scenarioId) {
+        this.scenarioId = scenarioId;
+    }
+
+    @JsonProperty("geoJsonPlume")
+    public Geometry getPlume() {
+        return plume;
     }
 
-    public void setGeoJsonPlume(String geoJsonPlume) {
-        this.geoJsonPlume = geoJsonPlume;
+    @JsonProperty("geoJsonPlume")
+    public void setPlume(Geometry plume) {
+        this.plume = plume;
     }
 
     public Map<String, Object> getHazardSummary() {
@@ -54,10 +93,27 @@ public class DispersionResult {
         this.concentrationContours = concentrationContours;
     }
 
+    public ConcentrationGrid getConcentrationGrid() {
+        return concentrationGrid;
+    }
+
+    public void setConcentrationGrid(ConcentrationGrid concentrationGrid) {
+        this.concentrationGrid = concentrationGrid;
+    }
+
+    public LocalTangentProjection getGridProjection() {
+        return gridProjection;
+    }
+
+    public void setGridProjection(LocalTangentProjection gridProjection) {
+        this.gridProjection = gridProjection;
+    }
+
     @Override
     public String toString() {
         return "DispersionResult{" +
-                "geoJsonPlume='" + geoJsonPlume + '\'' +
+                "scenarioId=" + scenarioId +
+                ", plume=" + plume +
                 ", hazardSummary=" + hazardSummary +
                 ", concentrationContours=" + concentrationContours +
                 '}';
@@ -0,0 +1,111 @@
+package com.chad.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parameter sweep over a base scenario. Every combination of the listed
+ * values is evaluated; a null or empty list keeps the base value.
+ */
+public class DispersionSweep {
+
+    private DispersionInput base;
+    private List<Double> sourceReleaseRates;
+    private List<Double> windSpeeds;
+    private List<Double> windDirections;
+    private List<DispersionInput.StabilityClass> stabilityClasses;
+
+    public DispersionSweep() {
+        // Default constructor
+    }
+
+    /**
+     * Number of scenarios {@link #expand()} would produce, without building them.
+     */
+    public long size() {
+        return (long) count(sourceReleaseRates) * count(windSpeeds) * count(windDirections) * count(stabilityClasses);
+    }
+
+    /**
+     * Expands the sweep into one input per parameter combination, varying the
+     * stability class fastest.
+     */
+    public List<DispersionInput> expand() {
+        if (base == null) {
+            throw new IllegalArgumentException("Sweep base input is required");
+        }
+        List<DispersionInput> inputs = new ArrayList<>((int) Math.min(size(), Integer.MAX_VALUE));
+        for (Double rate : valuesOrNull(sourceReleaseRates)) {
+            for (Double speed : valuesOrNull(windSpeeds)) {
+                for (Double direction : valuesOrNull(windDirections)) {
+                    for (DispersionInput.StabilityClass stability : valuesOrNull(stabilityClasses)) {
+                        DispersionInput input = new DispersionInput(base);
+                        if (rate != null)
+                            input.setSourceReleaseRate(rate);
+                        if (speed != null)
+                            input.setWindSpeed(speed);
+                        if (direction != null)
+                            input.setWindDirection(direction);
+                        if (stability != null)
+                            input.setStabilityClass(stability);
+                        inputs.add(input);
+                    }
+                }
+            }
+        }
+        return inputs;
+    }
+
+    private static int count(List<?> values) {
+        return values == null || values.isEmpty() ? 1 : values.size();
+    }
+
+    private static <T> List<T> valuesOrNull(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            List<T> keepBase = new ArrayList<>(1);
+            keepBase.add(null);
+            return keepBase;
+        }
+        return values;
+    }
+
+    public DispersionInput getBase() {
+        return base;
+    }
+
+    public void setBase(DispersionInput base) {
+        this.base = base;
+    }
+
+    public List<Double> getSourceReleaseRates() {
+        return sourceReleaseRates;
+    }
+
+    public void setSourceReleaseRates(List<Double> sourceReleaseRates) {
+        this.sourceReleaseRates = sourceReleaseRates;
+    }
+
+    public List<Double> getWindSpeeds() {
+        return windSpeeds;
+    }
+
+    public void setWindSpeeds(List<Double> windSpeeds) {
+        this.windSpeeds = windSpeeds;
+    }
+
+    public List<Double> getWindDirections() {
+        return windDirections;
+    }
+
+    public void setWindDirections(List<Double> windDirections) {
+        this.windDirections = windDirections;
+    }
+
+    public List<DispersionInput.StabilityClass> getStabilityClasses() {
+        return stabilityClasses;
+    }
+
+    public void setStabilityClasses(List<DispersionInput.StabilityClass> stabilityClasses) {
+        this.stabilityClasses = stabilityClasses;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chad.model;
+
+import java.util.List;
+
+/**
+ * Request body for a Monte Carlo ensemble around a base Gaussian scenario.
+ * Each member perturbs the base wind direction, wind speed, stability class
+ * and release rate; unset spreads fall back to the defaults below.
+ */
+public class EnsembleRequest {
+
+    private DispersionInput base;
+    private Integer members; // default 1000
+    private Long seed; // random if unset; echoed in the result so a run can be repeated
+    private Double windDirectionSpread; // standard deviation in degrees, default 15
+    private Double windSpeedSpread; // relative standard deviation, default 0.2
+    private Double stabilityShiftProbability; // chance of moving one class either way, default 0.3
+    private Double releaseRateSpread; // relative standard deviation, default 0
+    private List<Double> probabilities; // exceedance probabilities to contour, default 0.1, 0.5, 0.9
+
+    public EnsembleRequest() {
+        // Default constructor
+    }
+
+    public DispersionInput getBase() {
+        return base;
+    }
+
+    public void setBase(DispersionInput base) {
+        this.base = base;
+    }
+
+    public Integer getMembers() {
+        return members;
+    }
+
+    public void setMembers(Integer members) {
+        this.members = members;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Double getWindDirectionSpread() {
+        return windDirectionSpread;
+    }
+
+    public void setWindDirectionSpread(Double windDirectionSpread) {
+        this.windDirectionSpread = windDirectionSpread;
+    }
+
+    public Double getWindSpeedSpread() {
+        return windSpeedSpread;
+    }
+
+    public void setWindSpeedSpread(Double windSpeedSpread) {
+        this.windSpeedSpread = windSpeedSpread;
+    }
+
+    public Double getStabilityShiftProbability() {
+        return stabilityShiftProbability;
+    }
+
+    public void setStabilityShiftProbability(Double stabilityShiftProbability) {
+        this.stabilityShiftProbability = stabilityShiftProbability;
+    }
+
+    public Double getReleaseRateSpread() {
+        return releaseRateSpread;
+    }
+
+    public void setReleaseRateSpread(Double releaseRateSpread) {
+        this.releaseRateSpread = releaseRateSpread;
+    }
+
+    public List<Double> getProbabilities() {
+        return probabilities;
+    }
+
+    public void setProbabilities(List<Double> probabilities) {
+        this.probabilities = probabilities;
+    }
+}
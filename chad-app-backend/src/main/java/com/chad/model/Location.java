@@ -1,5 +1,9 @@
 package com.chad.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.locationtech.jts.geom.Point;
+
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.Id;
@@ -16,6 +20,12 @@ public class Location {
     private double latitude;
     private double longitude;
 
+    // Generated by the database from longitude/latitude (SRID 4326) and GiST
+    // indexed for spatial queries; see schema.sql
+    @JsonIgnore
+    @Column(insertable = false, updatable = false, columnDefinition = "geometry(Point,4326)")
+    private Point geom;
+
     public Location() {
     }
 
@@ -41,6 +51,11 @@ public class Location {
         return longitude;
     }
 
+    @JsonIgnore
+    public Point getGeom() {
+        return geom;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
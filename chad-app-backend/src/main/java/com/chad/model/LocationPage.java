@@ -0,0 +1,10 @@
+package com.chad.model;
+
+import java.util.List;
+
+/**
+ * One page of locations in id order. Pass {@code nextAfter} as {@code after}
+ * to get the next page; it is null on the last page.
+ */
+public record LocationPage(List<LocationView> items, Long nextAfter) {
+}
@@ -0,0 +1,16 @@
+package com.chad.model;
+
+/**
+ * The columns of a {@link Location} that map clients draw, read straight
+ * from the query without loading the entity or its geometry.
+ */
+public interface LocationView {
+
+    Long getId();
+
+    String getName();
+
+    double getLatitude();
+
+    double getLongitude();
+}
@@ -0,0 +1,67 @@
+package com.chad.model;
+
+/**
+ * Meteorological conditions in effect from {@code startSeconds} after the
+ * start of the release until the next entry of a met schedule.
+ */
+public class MetConditions {
+
+    private double startSeconds; // s after release start
+    private double windSpeed; // m/s
+    private double windDirection; // degrees from north
+    private DispersionInput.StabilityClass stabilityClass;
+
+    public MetConditions() {
+        // Default constructor
+    }
+
+    public MetConditions(double startSeconds, double windSpeed, double windDirection,
+            DispersionInput.StabilityClass stabilityClass) {
+        this.startSeconds = startSeconds;
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.stabilityClass = stabilityClass;
+    }
+
+    public double getStartSeconds() {
+        return startSeconds;
+    }
+
+    public void setStartSeconds(double startSeconds) {
+        this.startSeconds = startSeconds;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public void setWindSpeed(double windSpeed) {
+        this.windSpeed = windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    public void setWindDirection(double windDirection) {
+        this.windDirection = windDirection;
+    }
+
+    public DispersionInput.StabilityClass getStabilityClass() {
+        return stabilityClass;
+    }
+
+    public void setStabilityClass(DispersionInput.StabilityClass stabilityClass) {
+        this.stabilityClass = stabilityClass;
+    }
+
+    @Override
+    public String toString() {
+        return "MetConditions{" +
+                "startSeconds=" + startSeconds +
+                ", windSpeed=" + windSpeed +
+                ", windDirection=" + windDirection +
+                ", stabilityClass=" + stabilityClass +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.chad.model;
+
+import java.util.List;
+
+/**
+ * Pipeline segments carrying the same gas, screened in one call.
+ */
+public class PipelineBatchRequest {
+
+    private String chemicalName;
+    private String chemicalPropertiesJson; // used if the chemical is not in the database
+    private List<PipelineSegment> segments;
+
+    public PipelineBatchRequest() {
+        // Default constructor
+    }
+
+    public String getChemicalName() {
+        return chemicalName;
+    }
+
+    public void setChemicalName(String chemicalName) {
+        this.chemicalName = chemicalName;
+    }
+
+    public String getChemicalPropertiesJson() {
+        return chemicalPropertiesJson;
+    }
+
+    public void setChemicalPropertiesJson(String chemicalPropertiesJson) {
+        this.chemicalPropertiesJson = chemicalPropertiesJson;
+    }
+
+    public List<PipelineSegment> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<PipelineSegment> segments) {
+        this.segments = segments;
+    }
+}
@@ -0,0 +1,101 @@
+package com.chad.model;
+
+/**
+ * Release rate over time from one pipeline segment, sampled at
+ * {@code times} (s after the failure) with rates in kg/s.
+ */
+public class PipelineReleaseCurve {
+
+    private String segmentId;
+    private String mode; // "LEAK" or "RUPTURE"
+    private double initialRate; // kg/s
+    private double inventory; // kg of gas in the segment at failure
+    private double chokedDuration; // s until the flow through the opening becomes subsonic
+    private double releaseDuration; // s until the release has effectively stopped
+    private double[] times;
+    private double[] rates;
+    private String error;
+
+    public PipelineReleaseCurve() {
+        // Default constructor
+    }
+
+    public static PipelineReleaseCurve failure(String segmentId, String error) {
+        PipelineReleaseCurve curve = new PipelineReleaseCurve();
+        curve.segmentId = segmentId;
+        curve.error = error;
+        return curve;
+    }
+
+    public String getSegmentId() {
+        return segmentId;
+    }
+
+    public void setSegmentId(String segmentId) {
+        this.segmentId = segmentId;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public double getInitialRate() {
+        return initialRate;
+    }
+
+    public void setInitialRate(double initialRate) {
+        this.initialRate = initialRate;
+    }
+
+    public double getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(double inventory) {
+        this.inventory = inventory;
+    }
+
+    public double getChokedDuration() {
+        return chokedDuration;
+    }
+
+    public void setChokedDuration(double chokedDuration) {
+        this.chokedDuration = chokedDuration;
+    }
+
+    public double getReleaseDuration() {
+        return releaseDuration;
+    }
+
+    public void setReleaseDuration(double releaseDuration) {
+        this.releaseDuration = releaseDuration;
+    }
+
+    public double[] getTimes() {
+        return times;
+    }
+
+    public void setTimes(double[] times) {
+        this.times = times;
+    }
+
+    public double[] getRates() {
+        return rates;
+    }
+
+    public void setRates(double[] rates) {
+        this.rates = rates;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chad.model;
+
+/**
+ * One pipeline segment to screen for a leak or rupture. Zero values take the
+ * chemical's pipeline defaults (see {@link ChemicalProperties}).
+ */
+public class PipelineSegment {
+
+    private String id;
+    private double diameter; // m, inner
+    private double length; // m, between isolation valves
+    private double pressure; // Pa, absolute operating pressure
+    private double temperature; // K
+    private double holeDiameter; // m; 0 or at least the pipe diameter means a full-bore rupture
+
+    public PipelineSegment() {
+        // Default constructor
+    }
+
+    public PipelineSegment(PipelineSegment other) {
+        this.id = other.id;
+        this.diameter = other.diameter;
+        this.length = other.length;
+        this.pressure = other.pressure;
+        this.temperature = other.temperature;
+        this.holeDiameter = other.holeDiameter;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public double getDiameter() {
+        return diameter;
+    }
+
+    public void setDiameter(double diameter) {
+        this.diameter = diameter;
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public void setLength(double length) {
+        this.length = length;
+    }
+
+    public double getPressure() {
+        return pressure;
+    }
+
+    public void setPressure(double pressure) {
+        this.pressure = pressure;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public void setTemperature(double temperature) {
+        this.temperature = temperature;
+    }
+
+    public double getHoleDiameter() {
+        return holeDiameter;
+    }
+
+    public void setHoleDiameter(double holeDiameter) {
+        this.holeDiameter = holeDiameter;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineSegment{" +
+                "id='" + id + '\'' +
+                ", diameter=" + diameter +
+                ", length=" + length +
+                ", pressure=" + pressure +
+                ", temperature=" + temperature +
+                ", holeDiameter=" + holeDiameter +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package com.chad.model;
+
+import javax.persistence.*;
+import java.util.Map;
+
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * One hazard zone of a persisted {@link ScenarioResult}, e.g. its AEGL-2
+ * contour. Ensemble results have one row per level and probability.
+ * {@code properties} holds every entry of the contour besides its level and
+ * geometry (thresholds in whatever unit the model uses, distances,
+ * probability); the common ones are also copied to columns for queries.
+ */
+@Entity
+@Table(name = "scenario_contour", schema = "public")
+@TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
+public class ScenarioContour {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "scenario_id", nullable = false)
+    private ScenarioResult scenario;
+
+    @Column(nullable = false)
+    private String level;
+
+    @Column(name = "threshold_ppm")
+    private Double thresholdPpm;
+
+    @Column(name = "threshold_kg_per_m3")
+    private Double thresholdKgPerM3;
+
+    private Double probability;
+
+    @Type(type = "jsonb")
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> properties;
+
+    @Column(columnDefinition = "geometry(Geometry,4326)", nullable = false)
+    private Geometry geom;
+
+    public ScenarioContour() {
+    }
+
+    public ScenarioContour(String level, Double thresholdPpm, Double thresholdKgPerM3, Double probability,
+            Map<String, Object> properties, Geometry geom) {
+        this.level = level;
+        this.thresholdPpm = thresholdPpm;
+        this.thresholdKgPerM3 = thresholdKgPerM3;
+        this.probability = probability;
+        this.properties = properties;
+        this.geom = geom;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ScenarioResult getScenario() {
+        return scenario;
+    }
+
+    void setScenario(ScenarioResult scenario) {
+        this.scenario = scenario;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public Double getThresholdPpm() {
+        return thresholdPpm;
+    }
+
+    public Double getThresholdKgPerM3() {
+        return thresholdKgPerM3;
+    }
+
+    public Double getProbability() {
+        return probability;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public Geometry getGeom() {
+        return geom;
+    }
+}
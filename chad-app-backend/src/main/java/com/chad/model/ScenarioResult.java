@@ -0,0 +1,139 @@
+package com.chad.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A computed result kept in PostGIS under its scenario id, so assets inside a
+ * plume or hazard zone can be found with a spatial query. Geometries are
+ * lon/lat with SRID 4326; the columns and GiST indexes are created by
+ * schema.sql. The input that produced the result and its concentration grid
+ * (see {@code GridCodec}) are kept too, so the scenario can be reloaded and
+ * edited after it has left memory.
+ */
+@Entity
+@Table(name = "scenario_result", schema = "public")
+@TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
+public class ScenarioResult {
+
+    @Id
+    @Column(name = "scenario_id", length = 36)
+    private String scenarioId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private String model;
+
+    @Column(name = "parent_scenario_id", length = 36)
+    private String parentScenarioId;
+
+    @Column(name = "chemical_name")
+    private String chemicalName;
+
+    @Type(type = "jsonb")
+    @Column(name = "hazard_summary", columnDefinition = "jsonb")
+    private Map<String, Object> hazardSummary;
+
+    @Type(type = "jsonb")
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> input;
+
+    @Column(columnDefinition = "geometry(Geometry,4326)")
+    private Geometry plume;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] grid;
+
+    @OneToMany(mappedBy = "scenario", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<ScenarioContour> contours = new ArrayList<>();
+
+    public ScenarioResult() {
+    }
+
+    public String getScenarioId() {
+        return scenarioId;
+    }
+
+    public void setScenarioId(String scenarioId) {
+        this.scenarioId = scenarioId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getParentScenarioId() {
+        return parentScenarioId;
+    }
+
+    public void setParentScenarioId(String parentScenarioId) {
+        this.parentScenarioId = parentScenarioId;
+    }
+
+    public String getChemicalName() {
+        return chemicalName;
+    }
+
+    public void setChemicalName(String chemicalName) {
+        this.chemicalName = chemicalName;
+    }
+
+    public Map<String, Object> getHazardSummary() {
+        return hazardSummary;
+    }
+
+    public void setHazardSummary(Map<String, Object> hazardSummary) {
+        this.hazardSummary = hazardSummary;
+    }
+
+    public Map<String, Object> getInput() {
+        return input;
+    }
+
+    public void setInput(Map<String, Object> input) {
+        this.input = input;
+    }
+
+    public Geometry getPlume() {
+        return plume;
+    }
+
+    public void setPlume(Geometry plume) {
+        this.plume = plume;
+    }
+
+    public byte[] getGrid() {
+        return grid;
+    }
+
+    public void setGrid(byte[] grid) {
+        this.grid = grid;
+    }
+
+    public List<ScenarioContour> getContours() {
+        return contours;
+    }
+
+    public void addContour(ScenarioContour contour) {
+        contour.setScenario(this);
+        contours.add(contour);
+    }
+}
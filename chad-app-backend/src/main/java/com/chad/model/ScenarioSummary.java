@@ -0,0 +1,18 @@
+package com.chad.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Light view of a persisted {@link ScenarioResult} for listings, without its
+ * geometries or hazard summary.
+ */
+public interface ScenarioSummary {
+
+    String getScenarioId();
+
+    LocalDateTime getCreatedAt();
+
+    String getModel();
+
+    String getChemicalName();
+}
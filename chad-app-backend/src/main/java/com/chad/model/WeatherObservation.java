@@ -0,0 +1,79 @@
+package com.chad.model;
+
+import java.time.Instant;
+
+/**
+ * Surface meteorology used to drive a dispersion run.
+ */
+public class WeatherObservation {
+
+    private double windSpeed; // m/s
+    private double windDirection; // degrees from north
+    private DispersionInput.StabilityClass stabilityClass;
+    private Instant observedAt;
+    private String source; // e.g. station identifier
+
+    public WeatherObservation() {
+        // Default constructor
+    }
+
+    public WeatherObservation(double windSpeed, double windDirection, DispersionInput.StabilityClass stabilityClass,
+            Instant observedAt, String source) {
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.stabilityClass = stabilityClass;
+        this.observedAt = observedAt;
+        this.source = source;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public void setWindSpeed(double windSpeed) {
+        this.windSpeed = windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    public void setWindDirection(double windDirection) {
+        this.windDirection = windDirection;
+    }
+
+    public DispersionInput.StabilityClass getStabilityClass() {
+        return stabilityClass;
+    }
+
+    public void setStabilityClass(DispersionInput.StabilityClass stabilityClass) {
+        this.stabilityClass = stabilityClass;
+    }
+
+    public Instant getObservedAt() {
+        return observedAt;
+    }
+
+    public void setObservedAt(Instant observedAt) {
+        this.observedAt = observedAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    @Override
+    public String toString() {
+        return "WeatherObservation{" +
+                "windSpeed=" + windSpeed +
+                ", windDirection=" + windDirection +
+                ", stabilityClass=" + stabilityClass +
+                ", observedAt=" + observedAt +
+                ", source='" + source + '\'' +
+                '}';
+    }
+}
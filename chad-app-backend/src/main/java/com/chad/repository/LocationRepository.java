@@ -1,10 +1,60 @@
 package com.chad.repository;
 
 import com.chad.model.Location;
+import com.chad.model.LocationView;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
+
+    // Keyset pages in id order; the primary key index serves both the filter
+    // and the order, so every page costs the same however deep it is
+    @Query("SELECT l.id AS id, l.name AS name, l.latitude AS latitude, l.longitude AS longitude "
+            + "FROM Location l WHERE l.id > :after ORDER BY l.id")
+    List<LocationView> findPageAfter(@Param("after") long after, Pageable page);
+
+    /**
+     * Visits every location page by page, holding one page in memory at a time.
+     */
+    default void forEachView(int pageSize, Consumer<LocationView> action) {
+        long after = 0;
+        List<LocationView> page;
+        do {
+            page = findPageAfter(after, PageRequest.of(0, pageSize));
+            for (LocationView view : page) {
+                action.accept(view);
+                after = view.getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    // && is answered from the GiST index on geom. Aliases are quoted so
+    // Postgres keeps their case for the projection
+    @Query(value = "SELECT l.id AS \"id\", l.name AS \"name\", l.latitude AS \"latitude\", "
+            + "l.longitude AS \"longitude\" FROM public.location l "
+            + "WHERE l.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) AND l.id > :after "
+            + "ORDER BY l.id LIMIT :limit", nativeQuery = true)
+    List<LocationView> findPageWithinBoundingBox(@Param("minLon") double minLon, @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon, @Param("maxLat") double maxLat, @Param("after") long after,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT l.* FROM public.location l JOIN public.scenario_result s "
+            + "ON ST_Intersects(l.geom, s.plume) WHERE s.scenario_id = :scenarioId "
+            + "ORDER BY l.id", nativeQuery = true)
+    List<Location> findWithinPlume(@Param("scenarioId") String scenarioId);
+
+    // Any contour row of the level will do; for ensembles that is the widest probability
+    @Query(value = "SELECT l.* FROM public.location l WHERE EXISTS ("
+            + "SELECT 1 FROM public.scenario_contour c WHERE c.scenario_id = :scenarioId "
+            + "AND c.level = :level AND ST_Intersects(l.geom, c.geom)) "
+            + "ORDER BY l.id", nativeQuery = true)
+    List<Location> findWithinContour(@Param("scenarioId") String scenarioId, @Param("level") String level);
 }
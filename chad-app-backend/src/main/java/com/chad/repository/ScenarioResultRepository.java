@@ -0,0 +1,30 @@
+package com.chad.repository;
+
+import com.chad.model.ScenarioResult;
+import com.chad.model.ScenarioSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScenarioResultRepository extends JpaRepository<ScenarioResult, String> {
+
+    // Newest first; && is answered from the GiST index on plume. Aliases are
+    // quoted so Postgres keeps their case for the projection
+    @Query(value = "SELECT s.scenario_id AS \"scenarioId\", s.created_at AS \"createdAt\", s.model AS \"model\", "
+            + "s.chemical_name AS \"chemicalName\" FROM public.scenario_result s "
+            + "WHERE s.plume && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326) "
+            + "ORDER BY s.created_at DESC LIMIT :limit", nativeQuery = true)
+    List<ScenarioSummary> findIntersectingBoundingBox(@Param("minLon") double minLon,
+            @Param("minLat") double minLat, @Param("maxLon") double maxLon, @Param("maxLat") double maxLat,
+            @Param("limit") int limit);
+
+    // With its contours in the same query, for rebuilding the result outside a transaction
+    @EntityGraph(attributePaths = "contours")
+    Optional<ScenarioResult> findWithContoursByScenarioId(String scenarioId);
+}
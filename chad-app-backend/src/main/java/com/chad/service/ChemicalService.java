@@ -1,34 +1,145 @@
 package com.chad.service;
 
 import com.chad.model.Chemical;
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
 import com.chad.repository.ChemicalRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Chemical lookup backed by a warm, case-insensitive in-memory copy of the
+ * chemicals table. The cache is loaded once the application is ready and kept
+ * current by {@link #saveOrUpdateChemical}; until it is loaded, lookups fall
+ * through to the database. Cached entities are detached copies; they are
+ * shared and must not be modified.
+ * Any change to the chemicals also clears the dispersion result cache.
+ */
 @Service
 public class ChemicalService {
 
     private final ChemicalRepository chemicalRepository;
+    private final DispersionResultCache resultCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public ChemicalService(ChemicalRepository chemicalRepository) {
+    private final Map<String, Chemical> chemicalsByName = new ConcurrentHashMap<>();
+
+    // Request-supplied property JSON, parsed once per distinct document
+    private final Cache<String, ChemicalProperties> parsedJson = Caffeine.newBuilder()
+            .maximumSize(256)
+            .build();
+    private volatile boolean cacheLoaded;
+
+    public ChemicalService(ChemicalRepository chemicalRepository, DispersionResultCache resultCache) {
         this.chemicalRepository = chemicalRepository;
+        this.resultCache = resultCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        reloadCache();
+    }
+
+    /**
+     * Replaces the cache with the current contents of the chemicals table, e.g.
+     * after rows were changed outside this service.
+     *
+     * @return the number of chemicals cached
+     */
+    public synchronized int reloadCache() {
+        List<Chemical> chemicals = chemicalRepository.findAll();
+        Map<String, Chemical> fresh = new ConcurrentHashMap<>();
+        for (Chemical chemical : chemicals) {
+            fresh.putIfAbsent(key(chemical.getName()), new Chemical(chemical));
+        }
+        chemicalsByName.keySet().retainAll(fresh.keySet());
+        chemicalsByName.putAll(fresh);
+        cacheLoaded = true;
+        resultCache.invalidateAll();
+        return chemicals.size();
     }
 
     public Optional<Chemical> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String key = key(name);
+        Chemical cached = chemicalsByName.get(key);
+        if (cached != null || cacheLoaded) {
+            return Optional.ofNullable(cached);
+        }
+
         List<Chemical> chemicals = chemicalRepository.findByNameIgnoreCase(name);
         if (chemicals.isEmpty()) {
             return Optional.empty();
         }
-        return Optional.of(chemicals.get(0));
+        // Detached copy, so saving another copy with the same id in this session cannot change it
+        Chemical chemical = new Chemical(chemicals.get(0));
+        Chemical previous = chemicalsByName.putIfAbsent(key, chemical);
+        return Optional.of(previous != null ? previous : chemical);
+    }
+
+    /**
+     * Typed properties of the named chemical, or the model defaults if it is
+     * unknown.
+     */
+    public ChemicalProperties propertiesFor(String name) {
+        if (name == null || name.isEmpty()) {
+            return ChemicalProperties.DEFAULTS;
+        }
+        return findByName(name).map(Chemical::getTypedProperties).orElse(ChemicalProperties.DEFAULTS);
+    }
+
+    /**
+     * Typed properties from a request's properties JSON, or the model defaults
+     * if it is missing or malformed.
+     */
+    public ChemicalProperties parseProperties(String json) {
+        if (json == null || json.isBlank()) {
+            return ChemicalProperties.DEFAULTS;
+        }
+        return parsedJson.get(json, this::parse);
+    }
+
+    /**
+     * Properties for a scenario: the named chemical if it is known, else the
+     * request's properties JSON, else the defaults.
+     */
+    public ChemicalProperties resolveProperties(DispersionInput input) {
+        return resolveProperties(input.getChemicalName(), input.getChemicalPropertiesJson());
+    }
+
+    public ChemicalProperties resolveProperties(String name, String propertiesJson) {
+        if (name != null && !name.isEmpty()) {
+            Optional<Chemical> chemical = findByName(name);
+            if (chemical.isPresent()) {
+                return chemical.get().getTypedProperties();
+            }
+        }
+        return parseProperties(propertiesJson);
     }
 
-    public Chemical saveOrUpdateChemical(String name, Object propertiesObject) {
+    private ChemicalProperties parse(String json) {
+        try {
+            return ChemicalProperties.from(objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            }));
+        } catch (Exception e) {
+            return ChemicalProperties.DEFAULTS; // ignore parsing errors, use defaults
+        }
+    }
+
+    public synchronized Chemical saveOrUpdateChemical(String name, Object propertiesObject) {
         Map<String, Object> propertiesMap;
         try {
             propertiesMap = objectMapper.convertValue(propertiesObject, new TypeReference<Map<String, Object>>() {
@@ -37,16 +148,22 @@ public class ChemicalService {
             propertiesMap = Map.of(); // fallback to empty map
         }
 
-        Optional<Chemical> existing = findByName(name);
-        Chemical chemical;
-        if (existing.isPresent()) {
-            chemical = existing.get();
-            chemical.setProperties(propertiesMap);
-        } else {
-            chemical = new Chemical();
-            chemical.setName(name);
-            chemical.setProperties(propertiesMap);
-        }
-        return chemicalRepository.save(chemical);
+        // The cached entity is shared, so the update goes on a copy; the cache
+        // only sees the change once the save has succeeded
+        Chemical chemical = findByName(name).map(Chemical::new).orElseGet(() -> {
+            Chemical created = new Chemical();
+            created.setName(name);
+            return created;
+        });
+        chemical.setProperties(propertiesMap);
+        Chemical saved = chemicalRepository.save(chemical);
+        chemicalsByName.put(key(saved.getName()), new Chemical(saved));
+        // Cached plumes may have been contoured against the old properties
+        resultCache.invalidateAll();
+        return saved;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,124 @@
+package com.chad.service;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.MetConditions;
+import com.chad.model.PipelineSegment;
+import com.chad.service.model.grid.GeometrySimplification;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Canonical, quantized form of a {@link DispersionInput} used as a result
+ * cache key. Inputs that differ by less than the quantization steps below
+ * (well inside the uncertainty of the met data) share an entry.
+ */
+public record DispersionCacheKey(
+        String model,
+        String transportModel,
+        String sourceReleaseType,
+        String chemicalName,
+        DispersionInput.IncidentType incidentType,
+        long latitudeSteps,
+        long longitudeSteps,
+        double sourceReleaseRate,
+        long windSpeedSteps,
+        long windDirectionSteps,
+        DispersionInput.StabilityClass stabilityClass,
+        DispersionInput.WeatherSource weatherSource,
+        String chemicalPropertiesJson,
+        double simulationDuration,
+        double timeStep,
+        double releaseMass,
+        List<MetKey> metSchedule,
+        PipelineKey pipeline,
+        double simplifyTolerance) {
+
+    /** Quantized met schedule entry. */
+    public record MetKey(
+            double startSeconds,
+            long windSpeedSteps,
+            long windDirectionSteps,
+            DispersionInput.StabilityClass stabilityClass) {
+    }
+
+    /** Pipeline segment geometry and conditions, exactly as given. */
+    public record PipelineKey(
+            double diameter,
+            double length,
+            double pressure,
+            double temperature,
+            double holeDiameter) {
+
+        public static PipelineKey of(PipelineSegment segment) {
+            return segment != null
+                    ? new PipelineKey(segment.getDiameter(), segment.getLength(), segment.getPressure(),
+                            segment.getTemperature(), segment.getHoleDiameter())
+                    : null;
+        }
+    }
+
+    // 1e-4 degrees is about 11 m
+    private static final double COORDINATE_STEP = 1e-4;
+    private static final double WIND_SPEED_STEP = 0.1; // m/s
+    private static final double WIND_DIRECTION_STEP = 1.0; // degrees
+    private static final MathContext RELEASE_RATE_PRECISION = new MathContext(3);
+
+    public static DispersionCacheKey of(DispersionInput input) {
+        List<MetKey> metSchedule = null;
+        if (input.getMetSchedule() != null) {
+            metSchedule = new ArrayList<>(input.getMetSchedule().size());
+            for (MetConditions met : input.getMetSchedule()) {
+                metSchedule.add(new MetKey(
+                        met.getStartSeconds(),
+                        Math.round(met.getWindSpeed() / WIND_SPEED_STEP),
+                        directionSteps(met.getWindDirection()),
+                        met.getStabilityClass() != null ? met.getStabilityClass() : DispersionInput.StabilityClass.D));
+            }
+        }
+
+        return new DispersionCacheKey(
+                normalize(input.getModel(), "GAUSSIAN"),
+                normalize(input.getTransportModel(), "GAUSSIAN"),
+                normalize(input.getSourceReleaseType(), "GAS"),
+                input.getChemicalName() != null ? input.getChemicalName().trim().toLowerCase(Locale.ROOT) : null,
+                input.getIncidentType(),
+                Math.round(input.getLatitude() / COORDINATE_STEP),
+                Math.round(input.getLongitude() / COORDINATE_STEP),
+                roundSignificant(input.getSourceReleaseRate()),
+                Math.round(input.getWindSpeed() / WIND_SPEED_STEP),
+                directionSteps(input.getWindDirection()),
+                input.getStabilityClass() != null ? input.getStabilityClass() : DispersionInput.StabilityClass.D,
+                input.getWeatherSource(),
+                input.getChemicalPropertiesJson(),
+                input.getSimulationDuration(),
+                input.getTimeStep(),
+                roundSignificant(input.getReleaseMass()),
+                metSchedule,
+                PipelineKey.of(input.getPipeline()),
+                roundSignificant(GeometrySimplification.tolerance(input)));
+    }
+
+    private static long directionSteps(double degrees) {
+        double direction = degrees % 360.0;
+        if (direction < 0) {
+            direction += 360.0;
+        }
+        return Math.round(direction / WIND_DIRECTION_STEP) % Math.round(360.0 / WIND_DIRECTION_STEP);
+    }
+
+    // Same defaults DispersionService applies when the field is missing
+    private static String normalize(String value, String defaultValue) {
+        return value != null && !value.isBlank() ? value.trim().toUpperCase(Locale.ROOT) : defaultValue;
+    }
+
+    private static double roundSignificant(double value) {
+        if (value == 0 || !Double.isFinite(value)) {
+            return value;
+        }
+        return new BigDecimal(value).round(RELEASE_RATE_PRECISION).doubleValue();
+    }
+}
@@ -0,0 +1,138 @@
+package com.chad.service;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of finished dispersion results keyed on
+ * {@link DispersionCacheKey}. Entries are evicted by approximate retained size
+ * and by age. Concurrent requests for the same key share one computation: the
+ * first caller computes on its own thread while later callers wait on the
+ * same future.
+ *
+ * <p>Cached results are shared between callers and must not be modified.
+ */
+@Component
+public class DispersionResultCache {
+
+    // A JTS Coordinate object plus its array slot
+    private static final long BYTES_PER_VERTEX = 48;
+
+    private final boolean enabled;
+    private final AsyncCache<DispersionCacheKey, DispersionResult> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public DispersionResultCache(
+            @Value("${chad.dispersion.cache.enabled:true}") boolean enabled,
+            @Value("${chad.dispersion.cache.max-weight-mb:128}") long maxWeightMb,
+            @Value("${chad.dispersion.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((DispersionCacheKey key, DispersionResult result) -> weigh(result))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached result for {@code key}, joins an in-flight computation
+     * for it, or computes it with {@code compute} on the calling thread.
+     */
+    public DispersionResult get(DispersionCacheKey key, Supplier<DispersionResult> compute) {
+        if (!enabled) {
+            return compute.get();
+        }
+
+        // Claim the key with an incomplete future; whoever installs it computes
+        CompletableFuture<DispersionResult> created = new CompletableFuture<>();
+        CompletableFuture<DispersionResult> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            if (future.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return join(future);
+        }
+
+        misses.increment();
+        try {
+            DispersionResult result = compute.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            failures.increment();
+            // Exceptionally completed futures are dropped by the cache; waiters see the same error
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum() + coalesced.sum();
+        long requestCount = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", cache.synchronous().estimatedSize());
+        stats.put("hits", hits.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("misses", misses.sum());
+        stats.put("failures", failures.sum());
+        stats.put("hitRate", requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+        return stats;
+    }
+
+    private static DispersionResult join(CompletableFuture<DispersionResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Rough retained size in bytes: the grid dominates, then the geometry vertices
+    private static int weigh(DispersionResult result) {
+        long bytes = 512;
+        ConcentrationGrid grid = result.getConcentrationGrid();
+        if (grid != null) {
+            bytes += 8L * grid.getValues().length;
+        }
+        if (result.getPlume() != null) {
+            bytes += BYTES_PER_VERTEX * result.getPlume().getNumPoints();
+        }
+        List<Map<String, Object>> contours = result.getConcentrationContours();
+        if (contours != null) {
+            for (Map<String, Object> contour : contours) {
+                Object geoJson = contour.get("geoJson");
+                bytes += geoJson instanceof Geometry ? BYTES_PER_VERTEX * ((Geometry) geoJson).getNumPoints()
+                        : 256;
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
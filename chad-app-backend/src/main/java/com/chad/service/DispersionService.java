@@ -1,56 +1,408 @@
 package com.chad.service;
 
+import com.chad.model.DispersionBatchItem;
 import com.chad.model.DispersionInput;
 import com.chad.model.DispersionResult;
+import com.chad.model.EnsembleRequest;
+import com.chad.model.PipelineBatchRequest;
+import com.chad.model.PipelineReleaseCurve;
+import com.chad.service.exposure.ExposureService;
 import com.chad.service.model.impl.GaussianDispersionModel;
 import com.chad.service.model.impl.AlohaDispersionModel;
+import com.chad.service.model.impl.CoupledDispersionModel;
+import com.chad.service.model.impl.GaussianEnsembleModel;
+import com.chad.service.model.impl.GaussianPuffDispersionModel;
+import com.chad.service.model.impl.dispersion.HeavyGasDispersionModel;
+import com.chad.service.model.impl.hazards.BlastExplosionModel;
+import com.chad.service.model.impl.hazards.ThermalRadiationModel;
+import com.chad.service.model.impl.sources.GasPipelineSourceStrengthModel;
 import com.chad.service.model.impl.sources.PuddleSourceStrengthModel;
 import com.chad.service.model.impl.sources.TankSourceStrengthModel;
+import com.chad.service.weather.WeatherService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Service
 public class DispersionService {
 
     private final GaussianDispersionModel gaussianModel;
     private final AlohaDispersionModel alohaModel;
+    private final GaussianPuffDispersionModel puffModel;
+    private final CoupledDispersionModel coupledModel;
+    private final GaussianEnsembleModel ensembleModel;
+    private final HeavyGasDispersionModel heavyGasModel;
+    private final ThermalRadiationModel thermalRadiationModel;
+    private final BlastExplosionModel blastModel;
     private final PuddleSourceStrengthModel puddleSourceModel;
     private final TankSourceStrengthModel tankSourceModel;
-    private final WebClient weatherClient;
+    private final GasPipelineSourceStrengthModel pipelineSourceModel;
+    private final WeatherService weatherService;
+    private final DispersionResultCache resultCache;
+    private final ScenarioStore scenarioStore;
+    private final ScenarioArchive scenarioArchive;
+    private final ExposureService exposureService;
+
+    // Bounded pool for batch scenario evaluation
+    private final ThreadPoolExecutor batchExecutor;
+    private final Scheduler batchScheduler;
+    private final int batchParallelism;
+    private final int maxBatchSize;
+    private final int maxEnsembleMembers;
 
     @Autowired
     public DispersionService(
             GaussianDispersionModel gaussianModel,
             AlohaDispersionModel alohaModel,
+            GaussianPuffDispersionModel puffModel,
+            CoupledDispersionModel coupledModel,
+            GaussianEnsembleModel ensembleModel,
+            HeavyGasDispersionModel heavyGasModel,
+            ThermalRadiationModel thermalRadiationModel,
+            BlastExplosionModel blastModel,
             PuddleSourceStrengthModel puddleSourceModel,
-            TankSourceStrengthModel tankSourceModel) {
+            TankSourceStrengthModel tankSourceModel,
+            GasPipelineSourceStrengthModel pipelineSourceModel,
+            DispersionResultCache resultCache,
+            ScenarioStore scenarioStore,
+            ScenarioArchive scenarioArchive,
+            ExposureService exposureService,
+            WeatherService weatherService,
+            @Value("${chad.dispersion.batch.threads:0}") int batchThreads,
+            @Value("${chad.dispersion.batch.queue-capacity:256}") int batchQueueCapacity,
+            @Value("${chad.dispersion.batch.max-size:10000}") int maxBatchSize,
+            @Value("${chad.dispersion.ensemble.max-members:10000}") int maxEnsembleMembers) {
         this.gaussianModel = gaussianModel;
         this.alohaModel = alohaModel;
+        this.puffModel = puffModel;
+        this.coupledModel = coupledModel;
+        this.ensembleModel = ensembleModel;
+        this.heavyGasModel = heavyGasModel;
+        this.thermalRadiationModel = thermalRadiationModel;
+        this.blastModel = blastModel;
         this.puddleSourceModel = puddleSourceModel;
         this.tankSourceModel = tankSourceModel;
-        this.weatherClient = WebClient.create("https://api.weather.gov");
+        this.pipelineSourceModel = pipelineSourceModel;
+        this.resultCache = resultCache;
+        this.scenarioStore = scenarioStore;
+        this.scenarioArchive = scenarioArchive;
+        this.exposureService = exposureService;
+        this.weatherService = weatherService;
+
+        this.batchParallelism = batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors();
+        this.maxBatchSize = maxBatchSize;
+        this.maxEnsembleMembers = maxEnsembleMembers;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.batchExecutor = new ThreadPoolExecutor(batchParallelism, batchParallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dispersion-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.batchScheduler = Schedulers.fromExecutorService(batchExecutor, "dispersion-batch");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Evaluates the inputs in parallel on the batch pool and hands each finished
+     * scenario to {@code onResult} as soon as it completes. A scenario that fails
+     * is reported as an error item rather than failing the batch; if
+     * {@code onResult} itself throws (e.g. the client went away) the remaining
+     * scenarios are abandoned.
+     *
+     * @return a future that completes once every scenario has been reported
+     * @throws RejectedExecutionException if the batch pool's queue cannot take
+     *         all of this batch's workers; the batch is then cancelled before
+     *         any scenario is reported
+     */
+    public CompletableFuture<Void> runBatch(List<DispersionInput> inputs, Consumer<DispersionBatchItem> onResult) {
+        // A fixed number of workers pull the next index, so a large batch occupies
+        // at most batchParallelism queue slots instead of one per scenario
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int workers = Math.min(batchParallelism, inputs.size());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            try {
+                futures[w] = CompletableFuture.runAsync(() -> {
+                    int i;
+                    while (!cancelled.get() && (i = next.getAndIncrement()) < inputs.size()) {
+                        DispersionBatchItem item = evaluate(i, inputs.get(i));
+                        if (cancelled.get()) {
+                            return;
+                        }
+                        onResult.accept(item);
+                    }
+                }, batchExecutor);
+            } catch (RejectedExecutionException e) {
+                // All workers or none: the ones already queued stop without reporting anything
+                cancelled.set(true);
+                for (int started = 0; started < w; started++) {
+                    futures[started].cancel(false);
+                }
+                throw e;
+            }
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Reactive variant of {@link #runBatch}: scenarios are evaluated in parallel
+     * on the batch pool, at most batchParallelism at a time, and emitted in
+     * request order as soon as each one and all before it are done. A failed
+     * scenario is emitted as a result whose hazard summary carries the error, so
+     * one bad input does not end the stream.
+     */
+    public Flux<DispersionResult> streamBatch(List<DispersionInput> inputs) {
+        return Flux.fromIterable(inputs)
+                .flatMapSequential(input -> Mono.fromCallable(() -> runModel(input))
+                        .subscribeOn(batchScheduler)
+                        .onErrorResume(RuntimeException.class, e -> Mono.just(errorResult(e))),
+                        batchParallelism);
+    }
+
+    private static DispersionResult errorResult(RuntimeException e) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("error", e.getMessage());
+        DispersionResult result = new DispersionResult();
+        result.setHazardSummary(summary);
+        return result;
+    }
+
+    private DispersionBatchItem evaluate(int index, DispersionInput input) {
+        try {
+            return DispersionBatchItem.success(index, input, runModel(input));
+        } catch (RuntimeException e) {
+            return DispersionBatchItem.failure(index, input, e.getMessage());
+        }
     }
 
+    /**
+     * Runs the requested model, answering repeated scenarios from the result
+     * cache. Identical requests arriving together are computed only once. The
+     * result's zones are checked against the exposure receptors, its hazard
+     * summary records where the wind came from, and the result is kept in the
+     * scenario store under its scenario id, with its input, and persisted in the
+     * background.
+     */
     public DispersionResult runModel(DispersionInput input) {
-        // Fetch weather if wind speed unknown or zero
+        // Fill in weather before keying so the cached result matches the wind actually used
+        applyWeather(input);
+        // Private copy, stored with the result for edits and reloads
+        DispersionInput stored = new DispersionInput(input);
+        String model = modelName(stored);
+        DispersionResult result = resultCache.get(DispersionCacheKey.of(stored), () -> {
+            DispersionResult computed = computeModel(stored);
+            recordWeatherSource(computed, stored);
+            exposureService.annotate(computed);
+            // Assigned before the result is shared, so every cache hit carries the same id
+            computed.setScenarioId(UUID.randomUUID().toString());
+            scenarioArchive.archive(new StoredScenario(model, stored, computed), null);
+            return computed;
+        });
+        // Re-registered on hits too, in case the store evicted it before the cache did
+        scenarioStore.register(new StoredScenario(model, stored, result));
+        return result;
+    }
+
+    /**
+     * A stored scenario, from the scenario store or, once it has left it,
+     * reloaded from the database and stored again.
+     */
+    public Optional<StoredScenario> findScenario(String scenarioId) {
+        Optional<StoredScenario> stored = scenarioStore.findScenario(scenarioId);
+        if (stored.isPresent() && stored.get().input() != null) {
+            return stored;
+        }
+        // Not in memory, or kept there without its input
+        Optional<StoredScenario> loaded = scenarioArchive.load(scenarioId);
+        loaded.ifPresent(scenarioStore::register);
+        return loaded.isPresent() ? loaded : stored;
+    }
+
+    /**
+     * Runs an edited copy of a stored scenario as a new scenario, recomputing
+     * only what the edit affects. When just the wind direction changed and the
+     * model works in a plume frame, the stored zones and grid are turned to the
+     * new direction instead of recomputed; otherwise the model runs again, and
+     * a coupled run still reuses its source term if the chemical and release
+     * inputs are unchanged. The hazard summary records the parent scenario and
+     * which path was taken, and the edit keeps the parent's weather source
+     * unless it changes the wind.
+     *
+     * <p>Edits bypass the result cache: every edit is a new scenario linked to
+     * its parent, and its lineage must not leak into results served to plain
+     * runs of the same input.
+     */
+    public DispersionResult runEdited(StoredScenario base, DispersionInput edited) {
+        if (base.input() == null || "ENSEMBLE".equals(base.model())) {
+            throw new IllegalArgumentException("Scenario " + base.result().getScenarioId() + " cannot be edited");
+        }
+        if (edited.getWindSpeed() == 0) {
+            weatherService.applyCurrentWeather(edited);
+        } else if (sameWeather(base.input(), edited)) {
+            edited.setWeatherSource(base.input().getWeatherSource());
+        } else {
+            edited.setWeatherSource(DispersionInput.WeatherSource.REQUEST);
+        }
+        DispersionInput stored = new DispersionInput(edited);
+        String model = modelName(stored);
+        String parentId = base.result().getScenarioId();
+        boolean rotate = ScenarioEdits.onlyWindDirectionChanged(base.input(), stored)
+                && model.equals(base.model())
+                && ScenarioEdits.isRotatable(base.model(), base.input(), base.result());
+
+        // Both paths give a fresh result owned by this call
+        DispersionResult computed = rotate
+                ? ScenarioEdits.rotate(base.result(), stored.getWindDirection())
+                : computeModel(stored);
+        Map<String, Object> summary = computed.getHazardSummary() != null
+                ? new LinkedHashMap<>(computed.getHazardSummary())
+                : new LinkedHashMap<>();
+        summary.put("derivedFrom", parentId);
+        summary.put("recompute", rotate ? "ROTATED" : "FULL");
+        computed.setHazardSummary(summary);
+        recordWeatherSource(computed, stored);
+        exposureService.annotate(computed);
+        computed.setScenarioId(UUID.randomUUID().toString());
+
+        StoredScenario scenario = new StoredScenario(model, stored, computed);
+        scenarioStore.register(scenario);
+        scenarioArchive.archive(scenario, parentId);
+        return computed;
+    }
+
+    /**
+     * Time-stepped puff run streamed as one frame per {@code frameInterval}
+     * seconds of simulated time. Steps run on the batch pool as the subscriber
+     * requests frames. Frames are not cached.
+     */
+    public Flux<DispersionResult> streamPuff(DispersionInput input, double frameInterval) {
+        if (!(frameInterval > 0)) {
+            throw new IllegalArgumentException("Frame interval must be positive, got " + frameInterval);
+        }
+        applyWeather(input);
+        return puffModel.stream(input, frameInterval)
+                .doOnNext(frame -> recordWeatherSource(frame, input))
+                .subscribeOn(batchScheduler);
+    }
+
+    /**
+     * Monte Carlo ensemble around a Gaussian scenario: exceedance-probability
+     * zones per toxic level and the mean concentration grid. Members run in
+     * parallel on the engine's fork-join pool. Not cached, but stored and
+     * persisted like any other result.
+     */
+    public DispersionResult runEnsemble(EnsembleRequest request) {
+        if (request.getBase() == null) {
+            throw new IllegalArgumentException("Ensemble base input is required");
+        }
+        int members = GaussianEnsembleModel.memberCount(request);
+        if (members > maxEnsembleMembers) {
+            throw new IllegalArgumentException(
+                    "Ensemble of " + members + " members exceeds the limit of " + maxEnsembleMembers);
+        }
+        applyWeather(request.getBase());
+        DispersionResult result = ensembleModel.calculate(request);
+        recordWeatherSource(result, request.getBase());
+        exposureService.annotate(result);
+        result.setScenarioId(UUID.randomUUID().toString());
+        StoredScenario scenario = new StoredScenario("ENSEMBLE", new DispersionInput(request.getBase()), result);
+        scenarioStore.register(scenario);
+        scenarioArchive.archive(scenario, null);
+        return result;
+    }
+
+    /**
+     * Release-rate curves for a batch of pipeline segments, computed in
+     * parallel. Not cached; each curve costs microseconds.
+     */
+    public List<PipelineReleaseCurve> runPipelineBatch(PipelineBatchRequest request) {
+        return pipelineSourceModel.solveAll(request);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return resultCache.stats();
+    }
+
+    // Current weather if the request left the wind unset; otherwise the request's own
+    private void applyWeather(DispersionInput input) {
         if (input.getWindSpeed() == 0) {
-            fetchWeather(input);
+            weatherService.applyCurrentWeather(input);
+        } else {
+            input.setWeatherSource(DispersionInput.WeatherSource.REQUEST);
         }
+    }
+
+    private static boolean sameWeather(DispersionInput base, DispersionInput edited) {
+        return edited.getWindSpeed() == base.getWindSpeed()
+                && edited.getWindDirection() == base.getWindDirection()
+                && edited.getStabilityClass() == base.getStabilityClass();
+    }
+
+    // Copies the summary, which may be shared with the model or the stored parent
+    private static void recordWeatherSource(DispersionResult result, DispersionInput input) {
+        if (input.getWeatherSource() == null) {
+            // Edited from a scenario archived before sources were recorded
+            return;
+        }
+        Map<String, Object> summary = result.getHazardSummary() != null
+                ? new LinkedHashMap<>(result.getHazardSummary())
+                : new LinkedHashMap<>();
+        summary.put("weatherSource", input.getWeatherSource().name());
+        result.setHazardSummary(summary);
+    }
 
+    private DispersionResult computeModel(DispersionInput input) {
         String releaseType = (input.getSourceReleaseType() != null && !input.getSourceReleaseType().isBlank())
                 ? input.getSourceReleaseType().toUpperCase()
                 : "GAS";
 
-        String modelName = (input.getModel() != null && !input.getModel().isBlank())
-                ? input.getModel().toUpperCase()
-                : "GAUSSIAN";
+        String modelName = modelName(input);
 
         switch (modelName) {
             case "GAUSSIAN":
                 return handleGaussian(input, releaseType);
             case "ALOHA":
                 return handleAloha(input, releaseType);
+            case "PUFF":
+                return puffModel.calculate(input);
+            case "COUPLED":
+                return coupledModel.calculate(input);
+            case "HEAVY_GAS":
+                return heavyGasModel.calculate(input);
+            case "THERMAL_RADIATION":
+                return thermalRadiationModel.calculate(input);
+            case "BLAST":
+                return blastModel.calculate(input);
             case "SOURCE_STRENGTH":
                 return handleSourceStrength(input, releaseType);
             default:
@@ -58,6 +410,12 @@ public class DispersionService {
         }
     }
 
+    private static String modelName(DispersionInput input) {
+        return (input.getModel() != null && !input.getModel().isBlank())
+                ? input.getModel().toUpperCase()
+                : "GAUSSIAN";
+    }
+
     private DispersionResult handleGaussian(DispersionInput input, String releaseType) {
         return switch (releaseType) {
             case "GAS" -> gaussianModel.calculateGas(input);
@@ -80,35 +438,9 @@ public class DispersionService {
         return switch (releaseType) {
             case "PUDDLE" -> puddleSourceModel.calculate(input);
             case "TANK" -> tankSourceModel.calculate(input);
+            case "PIPELINE" -> pipelineSourceModel.calculate(input);
             default ->
                 throw new IllegalArgumentException("Unsupported source type for source strength model: " + releaseType);
         };
     }
-
-    private void fetchWeather(DispersionInput input) {
-        try {
-            String pointUrl = String.format("/points/%.6f,%.6f", input.getLatitude(), input.getLongitude());
-
-            // TODO: call weather API, parse station list URL from pointUrl response
-
-            String stationsUrl = ""; // TODO: extract after API response
-
-            // TODO: call stationsUrl API and get latest station ID
-
-            String latestStationUrl = ""; // TODO: extract latest observation URL
-
-            // TODO: Fetch latest observation and parse wind speed, direction, stability
-
-            // For now, set placeholder values:
-            input.setWindSpeed(3.0);
-            input.setWindDirection(270.0);
-            input.setStabilityClass(DispersionInput.StabilityClass.D);
-
-        } catch (Exception e) {
-            // fallback defaults if API fails
-            input.setWindSpeed(1.5);
-            input.setWindDirection(180.0);
-            input.setStabilityClass(DispersionInput.StabilityClass.D);
-        }
-    }
 }
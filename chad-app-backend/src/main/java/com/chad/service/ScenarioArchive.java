@@ -0,0 +1,209 @@
+package com.chad.service;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.ScenarioContour;
+import com.chad.model.ScenarioResult;
+import com.chad.repository.ScenarioResultRepository;
+import com.chad.service.model.grid.GridCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.Geometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes computed results to PostGIS as {@link ScenarioResult}s so they can
+ * be queried spatially. Writes happen on one background thread and never
+ * hold up or fail a calculation: if the queue is full or the database is
+ * unavailable, the result is only logged as not persisted.
+ *
+ * <p>Each record keeps the input that was run and the concentration grid in
+ * {@link GridCodec} form, so {@link #load} can rebuild the scenario after it
+ * has left the {@link ScenarioStore}.
+ */
+@Service
+public class ScenarioArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(ScenarioArchive.class);
+
+    static final int SRID = 4326;
+
+    private final ScenarioResultRepository repository;
+    private final boolean enabled;
+    private final ThreadPoolExecutor writer;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public ScenarioArchive(ScenarioResultRepository repository,
+            @Value("${chad.scenarios.persist.enabled:true}") boolean enabled,
+            @Value("${chad.scenarios.persist.queue-capacity:1000}") int queueCapacity) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scenario-archive");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    /**
+     * Queues the scenario for writing under its result's scenario id. Results
+     * without an id are skipped.
+     *
+     * @param parentScenarioId the scenario this one was edited from, or null
+     */
+    public void archive(StoredScenario scenario, String parentScenarioId) {
+        DispersionResult result = scenario.result();
+        if (!enabled || result.getScenarioId() == null) {
+            return;
+        }
+        // Built now, on the caller's thread, so later changes to the result are not seen
+        ScenarioResult record = toRecord(scenario, parentScenarioId);
+        try {
+            writer.execute(() -> {
+                try {
+                    // The grid is immutable, so encoding can wait for the writer thread
+                    if (result.getConcentrationGrid() != null && result.getGridProjection() != null) {
+                        record.setGrid(GridCodec.encode(result.getConcentrationGrid(), result.getGridProjection()));
+                    }
+                    repository.save(record);
+                } catch (RuntimeException e) {
+                    log.warn("Scenario {} not persisted: {}", record.getScenarioId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Scenario {} not persisted: write queue is full", record.getScenarioId());
+        }
+    }
+
+    /**
+     * Rebuilds a persisted scenario: its input, zones, hazard summary and, if
+     * it had one, its concentration grid. Empty if the scenario is unknown or
+     * the database cannot be reached.
+     */
+    public Optional<StoredScenario> load(String scenarioId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            return repository.findWithContoursByScenarioId(scenarioId).map(this::fromRecord);
+        } catch (DataAccessException e) {
+            log.warn("Scenario {} not loaded: {}", scenarioId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private ScenarioResult toRecord(StoredScenario scenario, String parentScenarioId) {
+        DispersionInput input = scenario.input();
+        DispersionResult result = scenario.result();
+        ScenarioResult record = new ScenarioResult();
+        record.setScenarioId(result.getScenarioId());
+        record.setParentScenarioId(parentScenarioId);
+        record.setModel(scenario.model());
+        record.setChemicalName(input.getChemicalName());
+        record.setInput(objectMapper.convertValue(input, new TypeReference<Map<String, Object>>() {
+        }));
+        if (result.getHazardSummary() != null) {
+            record.setHazardSummary(new LinkedHashMap<>(result.getHazardSummary()));
+        }
+        record.setPlume(withSrid(result.getPlume()));
+        if (result.getConcentrationContours() != null) {
+            for (Map<String, Object> contour : result.getConcentrationContours()) {
+                Object zone = contour.get("geoJson");
+                if (!(zone instanceof Geometry)) {
+                    continue;
+                }
+                Map<String, Object> properties = new LinkedHashMap<>(contour);
+                properties.remove("level");
+                properties.remove("geoJson");
+                Object level = contour.get("level");
+                record.addContour(new ScenarioContour(level != null ? level.toString() : "",
+                        number(contour.get("threshold_ppm")), number(contour.get("threshold_kg_per_m3")),
+                        number(contour.get("probability")), properties, withSrid((Geometry) zone)));
+            }
+        }
+        return record;
+    }
+
+    private StoredScenario fromRecord(ScenarioResult record) {
+        DispersionResult result = new DispersionResult();
+        result.setScenarioId(record.getScenarioId());
+        result.setPlume(record.getPlume());
+        result.setHazardSummary(record.getHazardSummary());
+
+        List<Map<String, Object>> contours = new ArrayList<>(record.getContours().size());
+        for (ScenarioContour stored : record.getContours()) {
+            // Same entries as the model produced: level, its properties, then the zone
+            Map<String, Object> contour = new LinkedHashMap<>();
+            contour.put("level", stored.getLevel());
+            if (stored.getProperties() != null) {
+                contour.putAll(stored.getProperties());
+            } else {
+                // Written before properties were kept
+                putIfNotNull(contour, "threshold_ppm", stored.getThresholdPpm());
+                putIfNotNull(contour, "threshold_kg_per_m3", stored.getThresholdKgPerM3());
+                putIfNotNull(contour, "probability", stored.getProbability());
+            }
+            contour.put("geoJson", stored.getGeom());
+            contours.add(contour);
+        }
+        result.setConcentrationContours(contours);
+
+        if (record.getGrid() != null) {
+            GridCodec.Decoded grid = GridCodec.decode(record.getGrid());
+            result.setConcentrationGrid(grid.grid());
+            result.setGridProjection(grid.projection());
+        }
+        DispersionInput input = record.getInput() != null
+                ? objectMapper.convertValue(record.getInput(), DispersionInput.class)
+                : null;
+        if (input != null && input.getZoom() != null && input.getZoom() == 0) {
+            // Zoom used to be written as 0 when not given; an explicit world view is not kept across reloads
+            input.setZoom(null);
+        }
+        return new StoredScenario(record.getModel(), input, result);
+    }
+
+    // Result geometries are shared, so the SRID goes on a copy; empty zones are kept as they are
+    private static Geometry withSrid(Geometry geometry) {
+        if (geometry == null) {
+            return null;
+        }
+        Geometry copy = geometry.copy();
+        copy.setSRID(SRID);
+        return copy;
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static Double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+}
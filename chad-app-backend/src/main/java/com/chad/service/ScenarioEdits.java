@@ -0,0 +1,104 @@
+package com.chad.service;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.LocalTangentProjection;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Works out how much of a stored scenario an edit invalidates.
+ *
+ * <p>The steady-state models compute their grid and zones in the plume frame
+ * (x downwind), which depends on everything but the wind direction; the
+ * direction only enters through the projection to lon/lat. An edit that
+ * changes nothing else can therefore turn the stored zones around the source
+ * instead of recomputing them, at the cost of two affine maps per vertex.
+ */
+public final class ScenarioEdits {
+
+    private ScenarioEdits() {
+    }
+
+    /**
+     * Whether {@code edited} differs from {@code base} in at most the wind
+     * direction, to the resolution of the result cache.
+     */
+    public static boolean onlyWindDirectionChanged(DispersionInput base, DispersionInput edited) {
+        DispersionInput probe = new DispersionInput(edited);
+        probe.setWindDirection(base.getWindDirection());
+        probe.setWeatherSource(base.getWeatherSource());
+        return DispersionCacheKey.of(probe).equals(DispersionCacheKey.of(base));
+    }
+
+    /**
+     * Whether results of {@code model} are built in a plume frame that the
+     * wind direction does not change. The puff and ensemble models grid in
+     * east/north and follow the wind through time or across members, so they
+     * are always recomputed, as are the hazard models.
+     */
+    public static boolean isRotatable(String model, DispersionInput input, DispersionResult result) {
+        if (result.getGridProjection() == null
+                || (input.getMetSchedule() != null && !input.getMetSchedule().isEmpty())) {
+            return false;
+        }
+        return switch (model) {
+            case "GAUSSIAN", "ALOHA", "HEAVY_GAS" -> true;
+            case "COUPLED" -> input.getTransportModel() == null || input.getTransportModel().isBlank()
+                    || !"PUFF".equals(input.getTransportModel().trim().toUpperCase(Locale.ROOT));
+            default -> false;
+        };
+    }
+
+    /**
+     * Copy of {@code result} for a wind blowing from {@code windDirection}:
+     * plume and zones are mapped back to the stored plume frame and out again
+     * with the new bearing. The grid is shared, since it does not change in
+     * its own frame. The scenario id is not copied.
+     */
+    public static DispersionResult rotate(DispersionResult result, double windDirection) {
+        LocalTangentProjection from = result.getGridProjection();
+        LocalTangentProjection to = LocalTangentProjection.alongWind(from.getOriginLon(), from.getOriginLat(),
+                windDirection);
+
+        DispersionResult rotated = new DispersionResult();
+        rotated.setPlume(rotate(result.getPlume(), from, to));
+        if (result.getConcentrationContours() != null) {
+            List<Map<String, Object>> contours = new ArrayList<>(result.getConcentrationContours().size());
+            for (Map<String, Object> contour : result.getConcentrationContours()) {
+                Map<String, Object> copy = new LinkedHashMap<>(contour);
+                Object zone = contour.get("geoJson");
+                if (zone instanceof Geometry) {
+                    copy.put("geoJson", rotate((Geometry) zone, from, to));
+                }
+                contours.add(copy);
+            }
+            rotated.setConcentrationContours(contours);
+        }
+        if (result.getHazardSummary() != null) {
+            Map<String, Object> summary = new LinkedHashMap<>(result.getHazardSummary());
+            // Receptors in the old zones; the caller reassesses the new ones
+            summary.remove("exposure");
+            rotated.setHazardSummary(summary);
+        }
+        rotated.setConcentrationGrid(result.getConcentrationGrid());
+        rotated.setGridProjection(to);
+        return rotated;
+    }
+
+    // Stored geometries are shared, so the copy is moved
+    private static Geometry rotate(Geometry geometry, LocalTangentProjection from, LocalTangentProjection to) {
+        if (geometry == null) {
+            return null;
+        }
+        Geometry copy = geometry.copy();
+        from.toLocal(copy);
+        to.toGeographic(copy);
+        return copy;
+    }
+}
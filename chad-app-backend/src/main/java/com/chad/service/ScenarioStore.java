@@ -0,0 +1,61 @@
+package com.chad.service;
+
+import com.chad.model.DispersionResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Recently computed results by scenario id, so clients can come back for
+ * derived views of a plume (e.g. map tiles) without resending the inputs,
+ * or edit the scenario, when it was registered with its input. Entries
+ * expire once nobody has asked for them for a while.
+ *
+ * <p>Stored inputs and results are shared and must not be modified.
+ */
+@Component
+public class ScenarioStore {
+
+    private final Cache<String, StoredScenario> scenarios;
+
+    public ScenarioStore(
+            @Value("${chad.scenarios.max-entries:1000}") long maxEntries,
+            @Value("${chad.scenarios.ttl-seconds:3600}") long ttlSeconds) {
+        this.scenarios = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Keeps {@code result} under its scenario id; does nothing for results
+     * without one.
+     */
+    public void register(DispersionResult result) {
+        register(new StoredScenario(null, null, result));
+    }
+
+    /**
+     * Keeps the scenario under its result's scenario id, with the input and
+     * model it was run with; does nothing for results without an id.
+     */
+    public void register(StoredScenario scenario) {
+        if (scenario.result().getScenarioId() != null) {
+            // An entry registered without its input is completed, never replaced otherwise
+            scenarios.asMap().merge(scenario.result().getScenarioId(), scenario,
+                    (current, added) -> current.input() != null ? current : added);
+        }
+    }
+
+    public Optional<DispersionResult> find(String scenarioId) {
+        return findScenario(scenarioId).map(StoredScenario::result);
+    }
+
+    public Optional<StoredScenario> findScenario(String scenarioId) {
+        return Optional.ofNullable(scenarios.getIfPresent(scenarioId));
+    }
+}
@@ -0,0 +1,15 @@
+package com.chad.service;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+
+/**
+ * A scenario as it was run: the model, the input after weather was filled in,
+ * and the result. Neither the input nor the result may be modified; edits
+ * start from a copy of the input.
+ *
+ * @param model the input's model name, or ENSEMBLE for ensemble runs, whose
+ *              input is the ensemble's base scenario
+ */
+public record StoredScenario(String model, DispersionInput input, DispersionResult result) {
+}
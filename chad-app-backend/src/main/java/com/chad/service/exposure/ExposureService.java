@@ -0,0 +1,212 @@
+package com.chad.service.exposure;
+
+import com.chad.model.DispersionResult;
+import com.chad.repository.LocationRepository;
+import com.chad.service.DispersionResultCache;
+import org.locationtech.jts.geom.Geometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Who and what is inside each hazard zone of a result. Receptors come from
+ * the location table and, optionally, a local CSV file of facilities and
+ * census blocks; they are indexed once the application is ready and again on
+ * {@link #reload}. Until then results are not annotated.
+ *
+ * <p>The CSV needs a header naming at least {@code latitude} and
+ * {@code longitude}; {@code id}, {@code name}, {@code category} and
+ * {@code population} are optional. Census blocks are given by an interior
+ * point carrying the block population.
+ */
+@Service
+public class ExposureService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExposureService.class);
+
+    static final String LOCATION_CATEGORY = "LOCATION";
+    private static final int LOCATION_PAGE_SIZE = 1000;
+
+    private final LocationRepository locationRepository;
+    private final DispersionResultCache resultCache;
+    private final boolean enabled;
+    private final String receptorsFile;
+    private final int maxListed;
+    private final Set<String> countOnlyCategories;
+
+    private volatile ReceptorIndex index;
+
+    public ExposureService(LocationRepository locationRepository, DispersionResultCache resultCache,
+            @Value("${chad.exposure.enabled:true}") boolean enabled,
+            @Value("${chad.exposure.receptors-file:}") String receptorsFile,
+            @Value("${chad.exposure.max-listed:100}") int maxListed,
+            @Value("${chad.exposure.count-only-categories:CENSUS_BLOCK}") List<String> countOnlyCategories) {
+        this.locationRepository = locationRepository;
+        this.resultCache = resultCache;
+        this.enabled = enabled;
+        this.receptorsFile = receptorsFile;
+        this.maxListed = maxListed;
+        this.countOnlyCategories = countOnlyCategories.stream()
+                .map(category -> category.trim().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmIndex() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the receptor index from the location table and the receptor
+     * file, e.g. after either changed. Cached results were annotated against
+     * the old receptors, so the result cache is cleared.
+     *
+     * @return the number of receptors indexed
+     */
+    public synchronized int reload() {
+        List<Receptor> receptors = new ArrayList<>();
+        locationRepository.forEachView(LOCATION_PAGE_SIZE, location ->
+                receptors.add(new Receptor(String.valueOf(location.getId()),
+                        location.getName() != null ? location.getName() : "", LOCATION_CATEGORY,
+                        location.getLatitude(), location.getLongitude(), 0)));
+        if (receptorsFile != null && !receptorsFile.isBlank()) {
+            receptors.addAll(readCsv(Path.of(receptorsFile)));
+        }
+        index = new ReceptorIndex(receptors);
+        resultCache.invalidateAll();
+        log.info("Indexed {} exposure receptors", receptors.size());
+        return receptors.size();
+    }
+
+    /**
+     * Adds an {@code exposure} entry to the result's hazard summary with one
+     * item per contour: its level (and probability, for ensembles) and the
+     * receptors inside it. Does nothing before the index is loaded or if the
+     * result has no contours.
+     */
+    public void annotate(DispersionResult result) {
+        ReceptorIndex current = index;
+        if (current == null || result.getConcentrationContours() == null
+                || result.getConcentrationContours().isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> exposure = new ArrayList<>();
+        for (Map<String, Object> contour : result.getConcentrationContours()) {
+            Object zone = contour.get("geoJson");
+            if (!(zone instanceof Geometry)) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("level", contour.get("level"));
+            if (contour.containsKey("probability")) {
+                item.put("probability", contour.get("probability"));
+            }
+            item.putAll(current.assess((Geometry) zone, maxListed, countOnlyCategories));
+            exposure.add(item);
+        }
+
+        Map<String, Object> summary = result.getHazardSummary() != null
+                ? new LinkedHashMap<>(result.getHazardSummary())
+                : new LinkedHashMap<>();
+        summary.put("exposure", exposure);
+        result.setHazardSummary(summary);
+    }
+
+    private static List<Receptor> readCsv(Path path) {
+        List<Receptor> receptors = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return receptors;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = splitCsv(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("latitude") || !columns.containsKey("longitude")) {
+                throw new IllegalArgumentException(path + " needs latitude and longitude columns");
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = splitCsv(line);
+                try {
+                    String category = field(fields, columns, "category");
+                    String population = field(fields, columns, "population");
+                    receptors.add(new Receptor(
+                            field(fields, columns, "id"),
+                            field(fields, columns, "name"),
+                            category.isEmpty() ? "FACILITY" : category.toUpperCase(Locale.ROOT),
+                            Double.parseDouble(field(fields, columns, "latitude")),
+                            Double.parseDouble(field(fields, columns, "longitude")),
+                            population.isEmpty() ? 0 : Double.parseDouble(population)));
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping receptor on line {} of {}: {}", lineNumber, path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read receptors from " + path, e);
+        }
+        return receptors;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer column = columns.get(name);
+        return column != null && column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    // Comma-separated fields; double quotes protect commas and "" is a literal quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
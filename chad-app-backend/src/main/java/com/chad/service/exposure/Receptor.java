@@ -0,0 +1,17 @@
+package com.chad.service.exposure;
+
+/**
+ * A point that can be exposed to a plume: a monitored location, a facility
+ * such as a school, or a census block represented by its interior point and
+ * population.
+ *
+ * @param id         identifier unique within the category
+ * @param name       display name, may be empty
+ * @param category   e.g. LOCATION, SCHOOL, HOSPITAL, CENSUS_BLOCK
+ * @param latitude   degrees
+ * @param longitude  degrees
+ * @param population residents counted at this point, 0 if not applicable
+ */
+public record Receptor(String id, String name, String category, double latitude, double longitude,
+        double population) {
+}
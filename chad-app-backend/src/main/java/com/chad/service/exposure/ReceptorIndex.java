@@ -0,0 +1,102 @@
+package com.chad.service.exposure;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable STR-packed R-tree over receptor points in lon/lat. The tree is
+ * built once up front, which also makes concurrent queries safe.
+ *
+ * <p>A zone is tested by querying the tree with its envelope and locating
+ * each candidate against the zone's indexed edges (the point-in-area locator
+ * behind JTS prepared polygons), so a query costs a log-time index walk plus
+ * a log-time test per candidate rather than a scan of every receptor.
+ */
+public final class ReceptorIndex {
+
+    private final STRtree tree;
+    private final int size;
+
+    public ReceptorIndex(Collection<Receptor> receptors) {
+        // Leaves of 16 keep the tree shallow for point data
+        this.tree = new STRtree(16);
+        for (Receptor receptor : receptors) {
+            tree.insert(new Envelope(receptor.longitude(), receptor.longitude(), receptor.latitude(),
+                    receptor.latitude()), receptor);
+        }
+        tree.build();
+        this.size = receptors.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Receptors inside or on the edge of a lon/lat zone, summarised as counts
+     * and population per category plus up to {@code maxListed} individual
+     * receptors. Receptors of the {@code countOnly} categories are counted
+     * but never listed.
+     */
+    public Map<String, Object> assess(Geometry zone, int maxListed, Set<String> countOnly) {
+        Map<String, Integer> byCategory = new TreeMap<>();
+        List<Map<String, Object>> listed = new ArrayList<>();
+        int[] count = new int[1];
+        double[] population = new double[1];
+        boolean[] truncated = new boolean[1];
+
+        if (size > 0 && !zone.isEmpty()) {
+            IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(zone);
+            Coordinate probe = new Coordinate();
+            tree.query(zone.getEnvelopeInternal(), item -> {
+                Receptor receptor = (Receptor) item;
+                probe.x = receptor.longitude();
+                probe.y = receptor.latitude();
+                if (locator.locate(probe) == Location.EXTERIOR) {
+                    return;
+                }
+                count[0]++;
+                population[0] += receptor.population();
+                byCategory.merge(receptor.category(), 1, Integer::sum);
+                if (countOnly.contains(receptor.category())) {
+                    return;
+                }
+                if (listed.size() < maxListed) {
+                    listed.add(describe(receptor));
+                } else {
+                    truncated[0] = true;
+                }
+            });
+        }
+
+        Map<String, Object> exposure = new LinkedHashMap<>();
+        exposure.put("receptors", count[0]);
+        exposure.put("population", population[0]);
+        exposure.put("byCategory", byCategory);
+        exposure.put("listed", listed);
+        exposure.put("listedTruncated", truncated[0]);
+        return exposure;
+    }
+
+    private static Map<String, Object> describe(Receptor receptor) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", receptor.id());
+        entry.put("name", receptor.name());
+        entry.put("category", receptor.category());
+        entry.put("latitude", receptor.latitude());
+        entry.put("longitude", receptor.longitude());
+        return entry;
+    }
+}
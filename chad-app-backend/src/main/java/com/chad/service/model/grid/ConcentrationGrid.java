@@ -0,0 +1,41 @@
+package com.chad.service.model.grid;
+
+/**
+ * Concentration values (kg/m³) sampled on a {@link GridSpec}, stored as a
+ * single row-major primitive array.
+ */
+public final class ConcentrationGrid {
+
+    private final GridSpec spec;
+    private final double[] values;
+    private final double maxValue;
+
+    public ConcentrationGrid(GridSpec spec, double[] values, double maxValue) {
+        if (values.length != spec.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + spec.size() + " grid values, got " + values.length);
+        }
+        this.spec = spec;
+        this.values = values;
+        this.maxValue = maxValue;
+    }
+
+    public GridSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Direct access to the backing row-major array; callers must not modify it.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public double value(int column, int row) {
+        return values[spec.index(column, row)];
+    }
+}
@@ -0,0 +1,367 @@
+package com.chad.service.model.grid;
+
+import org.locationtech.jts.algorithm.PointLocation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Marching-squares isopleth extraction for several thresholds in one sweep.
+ *
+ * <p>The grid is treated as if surrounded by a one-node border of zeros so
+ * every isoline closes into a ring. Each cell is visited once; its four corner
+ * values are loaded once and only the thresholds lying between the cell's min
+ * and max are processed. Segments are oriented with the region at or above the
+ * threshold on their left, so outer shells trace counter-clockwise and holes
+ * clockwise and no containment search is needed to tell them apart.
+ *
+ * <p>Output coordinates are in the grid's own frame.
+ */
+public final class ContourExtractor {
+
+    private final GeometryFactory geometryFactory;
+
+    public ContourExtractor(GeometryFactory geometryFactory) {
+        this.geometryFactory = geometryFactory;
+    }
+
+    /**
+     * Extracts the areas where the grid value is at or above each threshold.
+     *
+     * @param grid       concentration grid
+     * @param thresholds positive threshold values, in any order
+     * @return one (possibly empty) MultiPolygon per threshold, in the same order
+     */
+    public MultiPolygon[] extract(ConcentrationGrid grid, double[] thresholds) {
+        int levelCount = thresholds.length;
+        MultiPolygon[] result = new MultiPolygon[levelCount];
+        if (levelCount == 0) {
+            return result;
+        }
+        for (double t : thresholds) {
+            if (!(t > 0)) {
+                throw new IllegalArgumentException("Contour thresholds must be positive, got " + t);
+            }
+        }
+
+        double[] levels = thresholds.clone();
+        Arrays.sort(levels);
+
+        GridSpec spec = grid.getSpec();
+        double[] values = grid.getValues();
+        int nx = spec.getColumns();
+        int ny = spec.getRows();
+        int w = nx + 2; // padded nodes per row
+
+        EdgeLinkMap[] links = new EdgeLinkMap[levelCount];
+        for (int k = 0; k < levelCount; k++) {
+            links[k] = new EdgeLinkMap(256);
+        }
+
+        double lowest = levels[0];
+        double highest = levels[levelCount - 1];
+
+        // Padded cell (a, b) has its lower-left corner on padded node (a, b)
+        for (int b = 0; b <= ny; b++) {
+            for (int a = 0; a <= nx; a++) {
+                double bl = node(values, nx, ny, a, b);
+                double br = node(values, nx, ny, a + 1, b);
+                double tr = node(values, nx, ny, a + 1, b + 1);
+                double tl = node(values, nx, ny, a, b + 1);
+
+                double max = Math.max(Math.max(bl, br), Math.max(tr, tl));
+                if (max < lowest) {
+                    continue;
+                }
+                double min = Math.min(Math.min(bl, br), Math.min(tr, tl));
+                if (min >= highest) {
+                    continue;
+                }
+
+                int base = b * w + a;
+                int bottom = base << 1;
+                int top = (base + w) << 1;
+                int left = (base << 1) | 1;
+                int right = ((base + 1) << 1) | 1;
+
+                for (int k = 0; k < levelCount; k++) {
+                    double t = levels[k];
+                    if (t <= min) {
+                        continue;
+                    }
+                    if (t > max) {
+                        break;
+                    }
+                    int code = (bl >= t ? 1 : 0) | (br >= t ? 2 : 0) | (tr >= t ? 4 : 0) | (tl >= t ? 8 : 0);
+                    EdgeLinkMap map = links[k];
+                    switch (code) {
+                        case 1 -> map.put(bottom, left);
+                        case 2 -> map.put(right, bottom);
+                        case 3 -> map.put(right, left);
+                        case 4 -> map.put(top, right);
+                        case 5 -> {
+                            if ((bl + br + tr + tl) * 0.25 >= t) {
+                                map.put(bottom, right);
+                                map.put(top, left);
+                            } else {
+                                map.put(bottom, left);
+                                map.put(top, right);
+                            }
+                        }
+                        case 6 -> map.put(top, bottom);
+                        case 7 -> map.put(top, left);
+                        case 8 -> map.put(left, top);
+                        case 9 -> map.put(bottom, top);
+                        case 10 -> {
+                            if ((bl + br + tr + tl) * 0.25 >= t) {
+                                map.put(left, bottom);
+                                map.put(right, top);
+                            } else {
+                                map.put(right, bottom);
+                                map.put(left, top);
+                            }
+                        }
+                        case 11 -> map.put(right, top);
+                        case 12 -> map.put(left, right);
+                        case 13 -> map.put(bottom, right);
+                        case 14 -> map.put(left, bottom);
+                        default -> {
+                            // 0 and 15 cannot occur since min < t <= max
+                        }
+                    }
+                }
+            }
+        }
+
+        MultiPolygon[] sortedResult = new MultiPolygon[levelCount];
+        for (int k = 0; k < levelCount; k++) {
+            sortedResult[k] = assemble(traceRings(links[k], levels[k], values, spec));
+        }
+
+        // Map back to the caller's threshold order
+        boolean[] used = new boolean[levelCount];
+        for (int i = 0; i < levelCount; i++) {
+            for (int k = 0; k < levelCount; k++) {
+                if (!used[k] && levels[k] == thresholds[i]) {
+                    used[k] = true;
+                    result[i] = sortedResult[k];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double node(double[] values, int nx, int ny, int a, int b) {
+        int column = a - 1;
+        int row = b - 1;
+        if (column < 0 || row < 0 || column >= nx || row >= ny) {
+            return 0.0;
+        }
+        return values[row * nx + column];
+    }
+
+    private List<Ring> traceRings(EdgeLinkMap links, double threshold, double[] values, GridSpec spec) {
+        List<Ring> rings = new ArrayList<>();
+        int[] keys = links.keys;
+        for (int slot = 0; slot < keys.length; slot++) {
+            int start = keys[slot];
+            if (start == EdgeLinkMap.EMPTY || links.isVisited(slot)) {
+                continue;
+            }
+            List<Coordinate> coords = new ArrayList<>();
+            int edge = start;
+            do {
+                Coordinate c = crossing(edge, threshold, values, spec);
+                if (coords.isEmpty() || !coords.get(coords.size() - 1).equals2D(c)) {
+                    coords.add(c);
+                }
+                edge = links.follow(edge);
+            } while (edge != start && edge != EdgeLinkMap.EMPTY);
+
+            if (coords.size() > 1 && coords.get(0).equals2D(coords.get(coords.size() - 1))) {
+                coords.remove(coords.size() - 1);
+            }
+            if (coords.size() < 3) {
+                continue;
+            }
+            coords.add(new Coordinate(coords.get(0)));
+            rings.add(new Ring(coords.toArray(new Coordinate[0])));
+        }
+        return rings;
+    }
+
+    /**
+     * Interpolated crossing point on a padded-lattice edge. Crossings next to the
+     * zero border are clamped onto the grid boundary node.
+     */
+    private static Coordinate crossing(int edge, double threshold, double[] values, GridSpec spec) {
+        int nx = spec.getColumns();
+        int ny = spec.getRows();
+        int w = nx + 2;
+        int nodeIndex = edge >> 1;
+        int a = nodeIndex % w;
+        int b = nodeIndex / w;
+        int qa = (edge & 1) == 0 ? a + 1 : a;
+        int qb = (edge & 1) == 0 ? b : b + 1;
+
+        boolean pPadded = isPadding(a, b, nx, ny);
+        boolean qPadded = isPadding(qa, qb, nx, ny);
+        if (pPadded) {
+            return new Coordinate(spec.x(qa - 1), spec.y(qb - 1));
+        }
+        if (qPadded) {
+            return new Coordinate(spec.x(a - 1), spec.y(b - 1));
+        }
+        double vp = values[(b - 1) * nx + (a - 1)];
+        double vq = values[(qb - 1) * nx + (qa - 1)];
+        double frac = (threshold - vp) / (vq - vp);
+        double x = spec.x(a - 1) + frac * (spec.x(qa - 1) - spec.x(a - 1));
+        double y = spec.y(b - 1) + frac * (spec.y(qb - 1) - spec.y(b - 1));
+        return new Coordinate(x, y);
+    }
+
+    private static boolean isPadding(int a, int b, int nx, int ny) {
+        return a < 1 || b < 1 || a > nx || b > ny;
+    }
+
+    /**
+     * Groups counter-clockwise shells with the clockwise holes they enclose.
+     */
+    private MultiPolygon assemble(List<Ring> rings) {
+        List<Ring> shells = new ArrayList<>();
+        List<Ring> holes = new ArrayList<>();
+        for (Ring ring : rings) {
+            (ring.signedArea > 0 ? shells : holes).add(ring);
+        }
+
+        List<List<LinearRing>> holesByShell = new ArrayList<>(shells.size());
+        for (int i = 0; i < shells.size(); i++) {
+            holesByShell.add(new ArrayList<>());
+        }
+        for (Ring hole : holes) {
+            int owner = -1;
+            double ownerArea = Double.MAX_VALUE;
+            Coordinate probe = hole.coords[0];
+            for (int i = 0; i < shells.size(); i++) {
+                Ring shell = shells.get(i);
+                if (shell.signedArea < ownerArea
+                        && shell.envelope.contains(hole.envelope)
+                        && PointLocation.isInRing(probe, shell.coords)) {
+                    owner = i;
+                    ownerArea = shell.signedArea;
+                }
+            }
+            if (owner >= 0) {
+                holesByShell.get(owner).add(geometryFactory.createLinearRing(hole.coords));
+            }
+        }
+
+        Polygon[] polygons = new Polygon[shells.size()];
+        for (int i = 0; i < shells.size(); i++) {
+            LinearRing shell = geometryFactory.createLinearRing(shells.get(i).coords);
+            polygons[i] = geometryFactory.createPolygon(shell, holesByShell.get(i).toArray(new LinearRing[0]));
+        }
+        return geometryFactory.createMultiPolygon(polygons);
+    }
+
+    private static final class Ring {
+        final Coordinate[] coords;
+        final Envelope envelope;
+        final double signedArea;
+
+        Ring(Coordinate[] coords) {
+            this.coords = coords;
+            Envelope env = new Envelope();
+            double area2 = 0;
+            for (int i = 0; i < coords.length - 1; i++) {
+                env.expandToInclude(coords[i]);
+                area2 += coords[i].x * coords[i + 1].y - coords[i + 1].x * coords[i].y;
+            }
+            this.envelope = env;
+            this.signedArea = area2 / 2;
+        }
+    }
+
+    /**
+     * Open-addressing int-to-int map from a segment's entry edge to its exit
+     * edge. Each crossed edge starts exactly one segment per threshold.
+     */
+    private static final class EdgeLinkMap {
+        static final int EMPTY = -1;
+
+        int[] keys;
+        int[] next;
+        boolean[] visited;
+        int size;
+
+        EdgeLinkMap(int capacity) {
+            int cap = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+            keys = new int[cap];
+            next = new int[cap];
+            visited = new boolean[cap];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = slotOf(key, keys);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            next[slot] = value;
+        }
+
+        /**
+         * Returns the edge following {@code key} and marks {@code key} visited.
+         */
+        int follow(int key) {
+            int slot = slotOf(key, keys);
+            if (keys[slot] == EMPTY) {
+                return EMPTY;
+            }
+            visited[slot] = true;
+            return next[slot];
+        }
+
+        boolean isVisited(int slot) {
+            return visited[slot];
+        }
+
+        private static int slotOf(int key, int[] table) {
+            int mask = table.length - 1;
+            int h = key * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (table[slot] != EMPTY && table[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldNext = next;
+            keys = new int[oldKeys.length << 1];
+            next = new int[oldKeys.length << 1];
+            visited = new boolean[oldKeys.length << 1];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slotOf(oldKeys[i], keys);
+                    keys[slot] = oldKeys[i];
+                    next[slot] = oldNext[i];
+                }
+            }
+        }
+    }
+}
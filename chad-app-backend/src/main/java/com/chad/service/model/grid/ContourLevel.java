@@ -0,0 +1,50 @@
+package com.chad.service.model.grid;
+
+import com.chad.model.ChemicalProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named concentration threshold to contour, e.g. AEGL-2.
+ *
+ * @param name      display name of the level
+ * @param threshold concentration threshold in kg/m³
+ * @param ppm       the same threshold in ppm, as published
+ */
+public record ContourLevel(String name, double threshold, double ppm) {
+
+    // Molar volume of an ideal gas at 25 °C and 1 atm, L/mol
+    private static final double MOLAR_VOLUME = 24.45;
+
+    /**
+     * Toxic endpoint levels for a chemical: AEGL-1..3 where published,
+     * otherwise ERPG-1..3. Empty if the molecular weight is unknown, since ppm
+     * cannot then be converted to a mass concentration.
+     */
+    public static List<ContourLevel> forChemical(ChemicalProperties props) {
+        double molecularWeight = props.molecularWeight();
+        if (molecularWeight <= 0) {
+            return Collections.emptyList();
+        }
+
+        // AEGL preferred; ERPG only when no AEGL value is present
+        List<ContourLevel> levels = new ArrayList<>();
+        addLevel(levels, "AEGL-1", props.aegl1(), molecularWeight);
+        addLevel(levels, "AEGL-2", props.aegl2(), molecularWeight);
+        addLevel(levels, "AEGL-3", props.aegl3(), molecularWeight);
+        if (levels.isEmpty()) {
+            addLevel(levels, "ERPG-1", props.erpg1(), molecularWeight);
+            addLevel(levels, "ERPG-2", props.erpg2(), molecularWeight);
+            addLevel(levels, "ERPG-3", props.erpg3(), molecularWeight);
+        }
+        return levels;
+    }
+
+    private static void addLevel(List<ContourLevel> levels, String name, double ppm, double molecularWeight) {
+        if (ppm > 0) {
+            levels.add(new ContourLevel(name, ppm * molecularWeight / MOLAR_VOLUME * 1e-6, ppm));
+        }
+    }
+}
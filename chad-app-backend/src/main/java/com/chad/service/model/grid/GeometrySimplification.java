@@ -0,0 +1,109 @@
+package com.chad.service.model.grid;
+
+import com.chad.model.DispersionInput;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Level of detail for output geometry. A request gives either a tolerance in
+ * metres or the web map zoom it will be drawn at, which is turned into the
+ * ground size of one screen pixel there. Geometries are simplified in the
+ * model's metric frame, before projection, so the tolerance means the same
+ * distance in every direction.
+ */
+public final class GeometrySimplification {
+
+    // Ground metres per pixel of a 256 px Web Mercator tile at zoom 0 on the equator
+    private static final double METRES_PER_PIXEL_AT_ZOOM_0 = 156_543.034;
+    private static final double MAX_ZOOM = 24;
+
+    private GeometrySimplification() {
+    }
+
+    /**
+     * Tolerance in metres for the input, or 0 to keep full detail when it gives
+     * neither a tolerance nor a zoom level. An explicit tolerance wins over a
+     * zoom level; zoom 0, the whole world, gets the coarsest tolerance.
+     */
+    public static double tolerance(DispersionInput input) {
+        double tolerance = input.getSimplifyTolerance();
+        if (tolerance < 0 || !Double.isFinite(tolerance)) {
+            throw new IllegalArgumentException("Simplify tolerance must be a non-negative distance in metres");
+        }
+        if (tolerance > 0) {
+            return tolerance;
+        }
+        Double zoom = input.getZoom();
+        if (zoom == null) {
+            return 0;
+        }
+        if (zoom < 0 || zoom > MAX_ZOOM || !Double.isFinite(zoom)) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + (int) MAX_ZOOM);
+        }
+        return METRES_PER_PIXEL_AT_ZOOM_0 * Math.cos(Math.toRadians(input.getLatitude())) / Math.pow(2, zoom);
+    }
+
+    /**
+     * Douglas-Peucker simplification of a geometry in metres; polygons stay
+     * valid. Returns the geometry itself when the tolerance is 0. A zone
+     * smaller than the tolerance is kept as its bounding box rather than
+     * dropped, so no hazard area disappears at low zoom.
+     */
+    public static Geometry simplify(Geometry geometry, double tolerance) {
+        if (tolerance <= 0 || geometry.isEmpty()) {
+            return geometry;
+        }
+        Geometry simplified = DouglasPeuckerSimplifier.simplify(geometry, tolerance);
+        return simplified.isEmpty() ? geometry.getEnvelope() : simplified;
+    }
+
+    /**
+     * Vertices for a circle of the given radius whose chords stray at most
+     * {@code tolerance} from the arc, between {@code min} and {@code max}.
+     */
+    public static int circleVertices(double radius, double tolerance, int min, int max) {
+        if (tolerance <= 0 || !(radius > tolerance)) {
+            return tolerance <= 0 ? max : min;
+        }
+        // Sagitta of a chord spanning angle 2 pi / n is r (1 - cos(pi / n))
+        int n = (int) Math.ceil(Math.PI / Math.acos(1 - tolerance / radius));
+        return Math.max(min, Math.min(max, n));
+    }
+
+    /**
+     * Stations along [x0, x1] at which the piecewise-linear interpolation of
+     * {@code f} is within {@code tolerance} of it at each interval's
+     * midpoint, refined where the curve bends most. Written to
+     * {@code stations} in increasing order; returns the count used (at least
+     * 2, at most the array length).
+     */
+    public static int sample(DoubleUnaryOperator f, double x0, double x1, double tolerance, double[] stations) {
+        int capacity = stations.length;
+        stations[0] = x0;
+        int count = 1;
+        // Depth-first refinement with an explicit stack of interval ends
+        double[] stack = new double[64];
+        int top = 0;
+        stack[top++] = x1;
+        double left = x0;
+        double fLeft = f.applyAsDouble(x0);
+        while (top > 0) {
+            double right = stack[top - 1];
+            double mid = 0.5 * (left + right);
+            double fRight = f.applyAsDouble(right);
+            double error = Math.abs(f.applyAsDouble(mid) - 0.5 * (fLeft + fRight));
+            // Reserve room for the ends still on the stack
+            if (error > tolerance && top < stack.length && count + top + 1 < capacity) {
+                stack[top++] = mid;
+                continue;
+            }
+            stations[count++] = right;
+            top--;
+            left = right;
+            fLeft = fRight;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chad.service.model.grid;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of a concentration grid and the projection that places
+ * it, for storing a result's grid alongside its zones.
+ *
+ * <p>Layout, little-endian: a fixed header (magic, columns, rows, the grid
+ * extent, the projection origin and bearing, and the maximum value as
+ * doubles) followed by the values as row-major float32, deflated. Single
+ * precision is far finer than the model's accuracy, and the zero-filled
+ * upwind part of a plume grid deflates to almost nothing, so a 200 x 200 grid
+ * takes well under the 160 kB of its floats, against 320 kB as doubles.
+ */
+public final class GridCodec {
+
+    private static final int MAGIC = 0x31524743; // "CGR1"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + 8 * Double.BYTES;
+
+    private GridCodec() {
+    }
+
+    /**
+     * A decoded grid and its projection.
+     */
+    public record Decoded(ConcentrationGrid grid, LocalTangentProjection projection) {
+    }
+
+    public static byte[] encode(ConcentrationGrid grid, LocalTangentProjection projection) {
+        GridSpec spec = grid.getSpec();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(spec.getColumns())
+                .putInt(spec.getRows())
+                .putDouble(spec.getXMin())
+                .putDouble(spec.getXMax())
+                .putDouble(spec.getYMin())
+                .putDouble(spec.getYMax())
+                .putDouble(projection.getOriginLon())
+                .putDouble(projection.getOriginLat())
+                .putDouble(projection.getBearing())
+                .putDouble(grid.getMaxValue());
+
+        double[] values = grid.getValues();
+        ByteBuffer raw = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (double value : values) {
+            raw.putFloat((float) value);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_BYTES + raw.capacity() / 4);
+        out.write(header.array(), 0, HEADER_BYTES);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    public static Decoded decode(byte[] bytes) {
+        if (bytes.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Grid data is truncated");
+        }
+        ByteBuffer header = ByteBuffer.wrap(bytes, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded concentration grid");
+        }
+        GridSpec spec = new GridSpec(header.getInt(), header.getInt(), header.getDouble(), header.getDouble(),
+                header.getDouble(), header.getDouble());
+        LocalTangentProjection projection = LocalTangentProjection.withBearing(header.getDouble(),
+                header.getDouble(), header.getDouble());
+        double maxValue = header.getDouble();
+
+        byte[] raw = new byte[spec.size() * Float.BYTES];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IllegalArgumentException("Grid data is truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Grid data is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer floats = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        double[] values = new double[spec.size()];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = floats.getFloat();
+        }
+        return new Decoded(new ConcentrationGrid(spec, values, maxValue), projection);
+    }
+}
@@ -0,0 +1,93 @@
+package com.chad.service.model.grid;
+
+/**
+ * Describes a regular 2D receptor grid in a local metric frame.
+ * Nodes are laid out row-major: column index i runs along x, row index j
+ * along y, and the first node sits at (xMin, yMin).
+ */
+public final class GridSpec {
+
+    private final int columns;
+    private final int rows;
+    private final double xMin;
+    private final double xMax;
+    private final double yMin;
+    private final double yMax;
+    private final double dx;
+    private final double dy;
+
+    public GridSpec(int columns, int rows, double xMin, double xMax, double yMin, double yMax) {
+        if (columns < 2 || rows < 2) {
+            throw new IllegalArgumentException("Grid needs at least 2x2 nodes, got " + columns + "x" + rows);
+        }
+        if (!(xMax > xMin) || !(yMax > yMin)) {
+            throw new IllegalArgumentException("Grid extent must be non-empty");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+        this.dx = (xMax - xMin) / (columns - 1);
+        this.dy = (yMax - yMin) / (rows - 1);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int size() {
+        return columns * rows;
+    }
+
+    public double getXMin() {
+        return xMin;
+    }
+
+    public double getXMax() {
+        return xMax;
+    }
+
+    public double getYMin() {
+        return yMin;
+    }
+
+    public double getYMax() {
+        return yMax;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double x(int column) {
+        return xMin + column * dx;
+    }
+
+    public double y(int row) {
+        return yMin + row * dy;
+    }
+
+    public int index(int column, int row) {
+        return row * columns + column;
+    }
+
+    @Override
+    public String toString() {
+        return "GridSpec{" +
+                "columns=" + columns +
+                ", rows=" + rows +
+                ", x=[" + xMin + ", " + xMax + "]" +
+                ", y=[" + yMin + ", " + yMax + "]" +
+                '}';
+    }
+}
@@ -1,15 +1,15 @@
 package com.chad.service.model.impl;
 
+import com.chad.model.ChemicalProperties;
 import com.chad.model.DispersionInput;
 import com.chad.model.DispersionResult;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.grid.LocalTangentProjection;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Polygon;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -18,54 +18,48 @@ import java.util.Collections;
 public class AlohaDispersionModel {
 
     private final GeometryFactory geometryFactory = new GeometryFactory();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChemicalService chemicalService;
 
+    public AlohaDispersionModel(ChemicalService chemicalService) {
+        this.chemicalService = chemicalService;
+    }
+
+    // Plume sizes are in metres: the former degree offsets at the equator
     public DispersionResult calculateGas(DispersionInput input) {
-        return createPlumePolygon(input, 0.03, 0.003);
+        return createPlumePolygon(input, 3340, 334);
     }
 
     public DispersionResult calculateLiquid(DispersionInput input) {
-        return createPlumePolygon(input, 0.02, 0.005);
+        return createPlumePolygon(input, 2226, 557);
     }
 
     public DispersionResult calculateChemical(DispersionInput input) {
-        try {
-            String chemPropsJson = input.getChemicalPropertiesJson();
-            if (chemPropsJson != null && !chemPropsJson.isEmpty()) {
-                JsonNode props = objectMapper.readTree(chemPropsJson);
-                double decayRate = props.path("decayRate").asDouble(0.0);
-                double molecularWeight = props.path("molecularWeight").asDouble(0.0);
-
-                double downwindLength = 0.025 * (1 - decayRate);
-                double crosswindSpread = 0.004 * (1 + molecularWeight / 100);
-
-                return createPlumePolygon(input, downwindLength, crosswindSpread);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return createPlumePolygon(input, 0.025, 0.004);
+        // Defaults (decay 0, molecular weight 0) give the base 2783 m / 445 m plume
+        ChemicalProperties props = chemicalService.parseProperties(input.getChemicalPropertiesJson());
+        double downwindLength = 2783 * (1 - props.decayRate());
+        double crosswindSpread = 445 * (1 + props.molecularWeight() / 100);
+        return createPlumePolygon(input, downwindLength, crosswindSpread);
     }
 
     private DispersionResult createPlumePolygon(DispersionInput input, double downwindLength, double crosswindSpread) {
-        double lat = input.getLatitude();
-        double lon = input.getLongitude();
-
+        // Plume frame: x downwind, y to the left of the wind
         Coordinate[] coords = new Coordinate[] {
-                new Coordinate(lon, lat),
-                new Coordinate(lon + downwindLength, lat + crosswindSpread),
-                new Coordinate(lon + 2 * downwindLength, lat - crosswindSpread),
-                new Coordinate(lon, lat - crosswindSpread / 2),
-                new Coordinate(lon, lat)
+                new Coordinate(0, 0),
+                new Coordinate(downwindLength, crosswindSpread),
+                new Coordinate(2 * downwindLength, -crosswindSpread),
+                new Coordinate(0, -crosswindSpread / 2),
+                new Coordinate(0, 0)
         };
+        LocalTangentProjection projection = LocalTangentProjection.alongWind(input.getLongitude(),
+                input.getLatitude(), input.getWindDirection());
+        projection.toGeographic(coords);
 
         LinearRing ring = geometryFactory.createLinearRing(coords);
         Polygon polygon = geometryFactory.createPolygon(ring, null);
-        GeoJsonWriter writer = new GeoJsonWriter();
-        String geoJson = writer.write(polygon);
 
         DispersionResult result = new DispersionResult();
-        result.setGeoJsonPlume(geoJson);
+        result.setPlume(polygon);
+        result.setGridProjection(projection);
 
         result.setHazardSummary(Collections.singletonMap("maxConcentration", 55.3));
         result.setConcentrationContours(Collections.emptyList());
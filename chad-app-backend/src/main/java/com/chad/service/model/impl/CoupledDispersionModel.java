@@ -0,0 +1,124 @@
+package com.chad.service.model.impl;
+
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.DispersionCacheKey;
+import com.chad.service.model.DispersionModel;
+import com.chad.service.model.impl.dispersion.HeavyGasDispersionModel;
+import com.chad.service.model.impl.sources.GasPipelineSourceStrengthModel;
+import com.chad.service.model.impl.sources.PuddleSourceStrengthModel;
+import com.chad.service.model.impl.sources.SourceStrengthModel;
+import com.chad.service.model.impl.sources.SourceTerm;
+import com.chad.service.model.impl.sources.TankSourceStrengthModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Source strength and dispersion in one request: the release computed by the
+ * TANK, PUDDLE or PIPELINE source model (chosen by {@code sourceReleaseType}) drives
+ * the dispersion model named by {@code transportModel}. The chemical is
+ * resolved once and shared by both stages.
+ *
+ * <p>GAUSSIAN (the default) and HEAVY_GAS are steady state and use the
+ * initial, highest release rate. PUFF follows the release over time, including a tank
+ * draining or a puddle drying up when {@code releaseMass} is given, and a
+ * pipeline depressurizing.
+ *
+ * <p>Source terms are kept in a small cache keyed on what the source models
+ * read, so re-running a scenario with only the wind or the transport model
+ * changed (the usual edit during an incident) skips the source stage.
+ */
+@Service
+public class CoupledDispersionModel implements DispersionModel {
+
+    private final ChemicalService chemicalService;
+    private final TankSourceStrengthModel tankSourceModel;
+    private final PuddleSourceStrengthModel puddleSourceModel;
+    private final GasPipelineSourceStrengthModel pipelineSourceModel;
+    private final GaussianDispersionModel gaussianModel;
+    private final GaussianPuffDispersionModel puffModel;
+    private final HeavyGasDispersionModel heavyGasModel;
+    private final Cache<SourceTermKey, SourceTerm> sourceTerms;
+
+    /**
+     * Everything the source models read from a request. Wind speed only
+     * matters to the puddle's evaporation and is zero for the others.
+     */
+    private record SourceTermKey(String releaseType, ChemicalProperties props, double sourceReleaseRate,
+            double releaseMass, double windSpeed, DispersionCacheKey.PipelineKey pipeline) {
+    }
+
+    public CoupledDispersionModel(ChemicalService chemicalService,
+            TankSourceStrengthModel tankSourceModel,
+            PuddleSourceStrengthModel puddleSourceModel,
+            GasPipelineSourceStrengthModel pipelineSourceModel,
+            GaussianDispersionModel gaussianModel,
+            GaussianPuffDispersionModel puffModel,
+            HeavyGasDispersionModel heavyGasModel,
+            @Value("${chad.dispersion.source-term-cache.max-entries:256}") long sourceTermCacheSize) {
+        this.chemicalService = chemicalService;
+        this.tankSourceModel = tankSourceModel;
+        this.puddleSourceModel = puddleSourceModel;
+        this.pipelineSourceModel = pipelineSourceModel;
+        this.gaussianModel = gaussianModel;
+        this.puffModel = puffModel;
+        this.heavyGasModel = heavyGasModel;
+        this.sourceTerms = Caffeine.newBuilder()
+                .maximumSize(sourceTermCacheSize)
+                .build();
+    }
+
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        SourceStrengthModel sourceModel = sourceModel(input.getSourceReleaseType());
+        String transport = normalize(input.getTransportModel(), "GAUSSIAN");
+
+        ChemicalProperties props = chemicalService.resolveProperties(input);
+        // Keyed on the resolved properties, so an edited chemical is never answered from the cache
+        String releaseType = normalize(input.getSourceReleaseType(), "");
+        SourceTermKey key = new SourceTermKey(releaseType, props, input.getSourceReleaseRate(),
+                input.getReleaseMass(), "PUDDLE".equals(releaseType) ? input.getWindSpeed() : 0,
+                DispersionCacheKey.PipelineKey.of(input.getPipeline()));
+        SourceTerm sourceTerm = sourceTerms.get(key, k -> sourceModel.sourceTerm(input, props));
+
+        DispersionInput transportInput = new DispersionInput(input);
+        transportInput.setModel(transport);
+        transportInput.setSourceReleaseType("GAS");
+        transportInput.setSourceReleaseRate(sourceTerm.initialRate());
+
+        DispersionResult result = switch (transport) {
+            case "GAUSSIAN" -> gaussianModel.calculateGas(transportInput, props);
+            case "PUFF" -> puffModel.calculate(transportInput, sourceTerm.profile(), props);
+            case "HEAVY_GAS" -> heavyGasModel.calculate(transportInput, props);
+            default -> throw new IllegalArgumentException("Unsupported transport model for coupled run: " + transport);
+        };
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>(result.getHazardSummary());
+        hazardSummary.put("transportModel", transport);
+        hazardSummary.put("sourceTerm", sourceTerm.summary());
+        result.setHazardSummary(hazardSummary);
+        return result;
+    }
+
+    private SourceStrengthModel sourceModel(String releaseType) {
+        String type = normalize(releaseType, "");
+        return switch (type) {
+            case "TANK" -> tankSourceModel;
+            case "PUDDLE" -> puddleSourceModel;
+            case "PIPELINE" -> pipelineSourceModel;
+            default -> throw new IllegalArgumentException("Unsupported source type for coupled run: " + releaseType);
+        };
+    }
+
+    private static String normalize(String value, String defaultValue) {
+        return value != null && !value.isBlank() ? value.trim().toUpperCase(Locale.ROOT) : defaultValue;
+    }
+}
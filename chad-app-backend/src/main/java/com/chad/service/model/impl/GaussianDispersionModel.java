@@ -1,12 +1,23 @@
 package com.chad.service.model.impl;
 
+import com.chad.model.ChemicalProperties;
 import com.chad.model.DispersionInput;
+import com.chad.model.DispersionInput.StabilityClass;
 import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
 import com.chad.service.model.DispersionModel;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.ContourExtractor;
+import com.chad.service.model.grid.ContourLevel;
+import com.chad.service.model.grid.GeometrySimplification;
+import com.chad.service.model.grid.GridSpec;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.chad.service.model.impl.dispersion.GaussianPlumeGridEngine;
+import com.chad.service.model.impl.dispersion.PasquillGiffordSigmaTable;
 import org.locationtech.jts.geom.*;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -14,18 +25,32 @@ import java.util.*;
 @Service
 public class GaussianDispersionModel implements DispersionModel {
 
+    private static final int OUTLINE_SEGMENTS = 50;
+
     private final GeometryFactory geometryFactory = new GeometryFactory();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    // Pasquill-Gifford dispersion coefficients for sigma_y and sigma_z by stability
-    // class
-    private static final Map<String, double[]> dispersionCoefficients = Map.of(
-            "A", new double[] { 0.22, 0.20, 0.0001, 0.0001, 0.20, 0.20 },
-            "B", new double[] { 0.16, 0.12, 0.0001, 0.0015, 0.12, 0.12 },
-            "C", new double[] { 0.11, 0.09, 0.0002, 0.0015, 0.08, 0.08 },
-            "D", new double[] { 0.08, 0.06, 0.0015, 0.0015, 0.06, 0.06 },
-            "E", new double[] { 0.06, 0.03, 0.0003, 0.0015, 0.03, 0.03 },
-            "F", new double[] { 0.04, 0.016, 0.0001, 0.0001, 0.016, 0.016 });
+    private final ContourExtractor contourExtractor = new ContourExtractor(geometryFactory);
+    private final GaussianPlumeGridEngine gridEngine;
+    private final ChemicalService chemicalService;
+
+    // Receptor grid resolution and downwind extent
+    private final int gridColumns;
+    private final int gridRows;
+    private final double gridMaxDownwind;
+    private final double receptorHeight;
+
+    @Autowired
+    public GaussianDispersionModel(GaussianPlumeGridEngine gridEngine, ChemicalService chemicalService,
+            @Value("${chad.dispersion.grid.columns:200}") int gridColumns,
+            @Value("${chad.dispersion.grid.rows:200}") int gridRows,
+            @Value("${chad.dispersion.grid.max-downwind-m:1000}") double gridMaxDownwind,
+            @Value("${chad.dispersion.grid.receptor-height-m:0}") double receptorHeight) {
+        this.gridEngine = gridEngine;
+        this.chemicalService = chemicalService;
+        this.gridColumns = gridColumns;
+        this.gridRows = gridRows;
+        this.gridMaxDownwind = gridMaxDownwind;
+        this.receptorHeight = receptorHeight;
+    }
 
     @Override
     public DispersionResult calculate(DispersionInput input) {
@@ -37,33 +62,34 @@ public class GaussianDispersionModel implements DispersionModel {
         return doGaussianCalculation(input, 0.1); // Effective release height in meters
     }
 
+    /**
+     * Gas release with the chemical's properties already resolved, for callers
+     * that have looked the chemical up themselves.
+     */
+    public DispersionResult calculateGas(DispersionInput input, ChemicalProperties props) {
+        return doGaussianCalculation(input, 0.1, 1.0, ContourLevel.forChemical(props));
+    }
+
     public DispersionResult calculateLiquid(DispersionInput input) {
         return doGaussianCalculation(input, 0.5); // Assumed release height for liquid puddle
     }
 
     public DispersionResult calculateChemical(DispersionInput input) {
-        double decayRate = 0;
-        double molWeightFactor = 1;
-        try {
-            if (input.getChemicalPropertiesJson() != null) {
-                JsonNode props = objectMapper.readTree(input.getChemicalPropertiesJson());
-                decayRate = props.path("decayRate").asDouble(0.0);
-                molWeightFactor = 1 + props.path("molecularWeight").asDouble(0.0) / 100.0;
-            }
-        } catch (Exception e) {
-            // Ignore parsing errors, use defaults
-        }
+        ChemicalProperties props = chemicalService.parseProperties(input.getChemicalPropertiesJson());
+        double decayRate = props.decayRate();
+        double molWeightFactor = 1 + props.molecularWeight() / 100.0;
         double baseHeight = 0.3;
         double effHeight = baseHeight * (1 - decayRate);
         double spreadFactor = molWeightFactor;
-        return doGaussianCalculation(input, effHeight, spreadFactor);
+        return doGaussianCalculation(input, effHeight, spreadFactor, resolveContourLevels(input));
     }
 
     private DispersionResult doGaussianCalculation(DispersionInput input, double effectiveHeight) {
-        return doGaussianCalculation(input, effectiveHeight, 1.0);
+        return doGaussianCalculation(input, effectiveHeight, 1.0, resolveContourLevels(input));
     }
 
-    private DispersionResult doGaussianCalculation(DispersionInput input, double effectiveHeight, double spreadFactor) {
+    private DispersionResult doGaussianCalculation(DispersionInput input, double effectiveHeight, double spreadFactor,
+            List<ContourLevel> levels) {
         // Emission rate (kg/s)
         double Q = input.getSourceReleaseRate();
         double u = input.getWindSpeed();
@@ -73,60 +99,121 @@ public class GaussianDispersionModel implements DispersionModel {
         double xMax = 1000; // Max downwind distance in meters for plotting
 
         // Stability Class (default to D)
-        String stability = input.getStabilityClass() != null ? input.getStabilityClass().name() : "D";
+        StabilityClass stability = input.getStabilityClass() != null ? input.getStabilityClass() : StabilityClass.D;
 
-        List<Coordinate> coords = new ArrayList<>();
-        int points = 50;
+        double tolerance = GeometrySimplification.tolerance(input);
+        double[] stations = outlineStations(stability, spreadFactor, xMax, tolerance);
+        int points = stations.length - 1;
 
+        // Outline in the plume frame (x downwind, y crosswind), out along the
+        // upper edge and back along the lower one
+        double[] outline = new double[2 * (2 * (points + 1) + 1)];
+        int n = 0;
         for (int i = 0; i <= points; i++) {
-            double x = xMax * i / points;
-            double sigmaY = dispersionSigmaY(x, stability) * spreadFactor;
-            double yWidth = sigmaY * 3; // 3 sigma approx.
-
-            coords.add(new Coordinate(input.getLongitude() + x * 0.00001, input.getLatitude() + yWidth * 0.00001));
+            double x = stations[i];
+            outline[n++] = x;
+            outline[n++] = outlineHalfWidth(stability, spreadFactor, x);
         }
-
         for (int i = points; i >= 0; i--) {
-            double x = xMax * i / points;
-            double sigmaY = dispersionSigmaY(x, stability) * spreadFactor;
-            double yWidth = sigmaY * 3;
-
-            coords.add(new Coordinate(input.getLongitude() + x * 0.00001, input.getLatitude() - yWidth * 0.00001));
+            outline[n++] = outline[2 * i];
+            outline[n++] = -outline[2 * i + 1];
         }
+        outline[n++] = outline[0]; // close polygon
+        outline[n] = outline[1];
 
-        coords.add(coords.get(0)); // close polygon
-
-        LinearRing ring = geometryFactory.createLinearRing(coords.toArray(new Coordinate[0]));
-        Polygon polygon = geometryFactory.createPolygon(ring, null);
-        GeoJsonWriter writer = new GeoJsonWriter();
-        String geoJson = writer.write(polygon);
+        LocalTangentProjection projection = projection(input);
+        projection.toGeographic(outline);
+        Polygon polygon = geometryFactory.createPolygon(new PackedCoordinateSequence.Double(outline, 2, 0));
 
         // Estimate max concentration at 100m
-        double sigmaYAt100 = dispersionSigmaY(100, stability);
-        double sigmaZAt100 = dispersionSigmaZ(100, stability);
+        double sigmaYAt100 = PasquillGiffordSigmaTable.sigmaY(stability, 100);
+        double sigmaZAt100 = PasquillGiffordSigmaTable.sigmaZ(stability, 100);
         double conc100m = Q / (2 * Math.PI * u * sigmaYAt100 * sigmaZAt100);
 
+        ConcentrationGrid grid = computeGrid(Q, u, effectiveHeight, stability, spreadFactor);
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>();
+        hazardSummary.put("maxConcentration", conc100m);
+        hazardSummary.put("gridMaxConcentration", grid.getMaxValue());
+        hazardSummary.put("gridColumns", grid.getSpec().getColumns());
+        hazardSummary.put("gridRows", grid.getSpec().getRows());
+
         DispersionResult result = new DispersionResult();
-        result.setGeoJsonPlume(geoJson);
-        result.setHazardSummary(Collections.singletonMap("maxConcentration", conc100m));
-        result.setConcentrationContours(Collections.emptyList());
+        result.setPlume(polygon);
+        result.setHazardSummary(hazardSummary);
+        result.setConcentrationGrid(grid);
+        result.setGridProjection(projection);
+        result.setConcentrationContours(buildContours(grid, levels, projection, tolerance));
 
         return result;
     }
 
-    private double dispersionSigmaY(double x, String stability) {
-        double[] coeffs = dispersionCoefficients.getOrDefault(stability, dispersionCoefficients.get("D"));
-        double a = coeffs[0];
-        double b = coeffs[1];
-        x = Math.max(x, 0.1);
-        return a * Math.pow(x, b);
+    // Full detail is the original 50 even segments; with a tolerance the
+    // stations follow the curvature of the edge, up to twice as many
+    private static double[] outlineStations(StabilityClass stability, double spreadFactor, double xMax,
+            double tolerance) {
+        if (tolerance <= 0) {
+            double[] stations = new double[OUTLINE_SEGMENTS + 1];
+            for (int i = 0; i <= OUTLINE_SEGMENTS; i++) {
+                stations[i] = xMax * i / OUTLINE_SEGMENTS;
+            }
+            return stations;
+        }
+        double[] stations = new double[2 * OUTLINE_SEGMENTS + 1];
+        int count = GeometrySimplification.sample(x -> outlineHalfWidth(stability, spreadFactor, x), 0, xMax,
+                tolerance, stations);
+        return Arrays.copyOf(stations, count);
+    }
+
+    private static double outlineHalfWidth(StabilityClass stability, double spreadFactor, double x) {
+        return PasquillGiffordSigmaTable.sigmaY(stability, x) * spreadFactor * 3; // 3 sigma approx.
+    }
+
+    private ConcentrationGrid computeGrid(double emissionRate, double windSpeed, double effectiveHeight,
+            StabilityClass stability, double spreadFactor) {
+        // Size the crosswind extent so the grid spans +/-4 sigma_y at the far edge
+        double halfWidth = 4 * PasquillGiffordSigmaTable.sigmaY(stability, gridMaxDownwind) * spreadFactor;
+        GridSpec spec = new GridSpec(gridColumns, gridRows, 0, gridMaxDownwind, -halfWidth, halfWidth);
+        return gridEngine.compute(spec, emissionRate, windSpeed, effectiveHeight, receptorHeight,
+                x -> PasquillGiffordSigmaTable.sigmaY(stability, x) * spreadFactor,
+                x -> PasquillGiffordSigmaTable.sigmaZ(stability, x));
+    }
+
+    private List<Map<String, Object>> buildContours(ConcentrationGrid grid, List<ContourLevel> levels,
+            LocalTangentProjection projection, double tolerance) {
+        if (levels.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double[] thresholds = new double[levels.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = levels.get(i).threshold();
+        }
+
+        MultiPolygon[] zones = contourExtractor.extract(grid, thresholds);
+        List<Map<String, Object>> contours = new ArrayList<>();
+        for (int i = 0; i < zones.length; i++) {
+            if (zones[i].isEmpty()) {
+                continue;
+            }
+            Geometry zone = GeometrySimplification.simplify(zones[i], tolerance);
+            projection.toGeographic(zone);
+            ContourLevel level = levels.get(i);
+            Map<String, Object> contour = new LinkedHashMap<>();
+            contour.put("level", level.name());
+            contour.put("threshold_ppm", level.ppm());
+            contour.put("threshold_kg_per_m3", level.threshold());
+            contour.put("geoJson", zone);
+            contours.add(contour);
+        }
+        return contours;
+    }
+
+    // The grid and outline are in the plume frame: x downwind, y crosswind
+    private static LocalTangentProjection projection(DispersionInput input) {
+        return LocalTangentProjection.alongWind(input.getLongitude(), input.getLatitude(), input.getWindDirection());
     }
 
-    private double dispersionSigmaZ(double x, String stability) {
-        double[] coeffs = dispersionCoefficients.getOrDefault(stability, dispersionCoefficients.get("D"));
-        double a = coeffs[4];
-        double b = coeffs[5];
-        x = Math.max(x, 0.1);
-        return a * Math.pow(x, b);
+    private List<ContourLevel> resolveContourLevels(DispersionInput input) {
+        return ContourLevel.forChemical(chemicalService.resolveProperties(input));
     }
 }
@@ -0,0 +1,231 @@
+package com.chad.service.model.impl;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionInput.StabilityClass;
+import com.chad.model.DispersionResult;
+import com.chad.model.EnsembleRequest;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.ContourExtractor;
+import com.chad.service.model.grid.ContourLevel;
+import com.chad.service.model.grid.GeometrySimplification;
+import com.chad.service.model.grid.GridSpec;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.chad.service.model.impl.dispersion.EnsembleMember;
+import com.chad.service.model.impl.dispersion.EnsembleStatistics;
+import com.chad.service.model.impl.dispersion.GaussianEnsembleEngine;
+import org.locationtech.jts.geom.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Monte Carlo uncertainty around a steady-state Gaussian plume. Members are
+ * drawn from one seeded generator, evaluated by
+ * {@link GaussianEnsembleEngine} on an east/north grid around the source,
+ * and reported as the mean concentration grid plus, for each toxic level,
+ * the areas where at least the requested fraction of members reach it.
+ */
+@Service
+public class GaussianEnsembleModel {
+
+    private static final int DEFAULT_MEMBERS = 1000;
+    private static final double DEFAULT_DIRECTION_SPREAD = 15.0;
+    private static final double DEFAULT_SPEED_SPREAD = 0.2;
+    private static final double DEFAULT_STABILITY_SHIFT = 0.3;
+    private static final List<Double> DEFAULT_PROBABILITIES = List.of(0.1, 0.5, 0.9);
+
+    private static final StabilityClass[] CLASSES = StabilityClass.values();
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ContourExtractor contourExtractor = new ContourExtractor(geometryFactory);
+    private final GaussianEnsembleEngine ensembleEngine;
+    private final ChemicalService chemicalService;
+
+    private final int gridCells;
+    private final double gridHalfWidth;
+    private final double receptorHeight;
+
+    @Autowired
+    public GaussianEnsembleModel(GaussianEnsembleEngine ensembleEngine, ChemicalService chemicalService,
+            @Value("${chad.dispersion.ensemble.grid.cells:200}") int gridCells,
+            @Value("${chad.dispersion.ensemble.grid.half-width-m:1000}") double gridHalfWidth,
+            @Value("${chad.dispersion.grid.receptor-height-m:0}") double receptorHeight) {
+        this.ensembleEngine = ensembleEngine;
+        this.chemicalService = chemicalService;
+        this.gridCells = gridCells;
+        this.gridHalfWidth = gridHalfWidth;
+        this.receptorHeight = receptorHeight;
+    }
+
+    /**
+     * Number of members the request asks for, or the default.
+     */
+    public static int memberCount(EnsembleRequest request) {
+        return request.getMembers() != null ? request.getMembers() : DEFAULT_MEMBERS;
+    }
+
+    public DispersionResult calculate(EnsembleRequest request) {
+        DispersionInput base = request.getBase();
+        if (base == null) {
+            throw new IllegalArgumentException("Ensemble base input is required");
+        }
+        if (!(base.getSourceReleaseRate() > 0)) {
+            throw new IllegalArgumentException("Ensemble needs a positive source release rate");
+        }
+        int memberCount = memberCount(request);
+        if (memberCount < 1) {
+            throw new IllegalArgumentException("Ensemble needs at least one member, got " + memberCount);
+        }
+        double[] probabilities = probabilities(request);
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
+
+        List<ContourLevel> levels = ContourLevel.forChemical(chemicalService.resolveProperties(base));
+        double[] thresholds = new double[levels.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = levels.get(i).threshold();
+        }
+
+        GridSpec spec = new GridSpec(gridCells, gridCells, -gridHalfWidth, gridHalfWidth, -gridHalfWidth,
+                gridHalfWidth);
+        EnsembleStatistics statistics = ensembleEngine.run(spec, sample(request, memberCount, seed),
+                releaseHeight(base), receptorHeight, thresholds);
+
+        LocalTangentProjection projection = LocalTangentProjection.eastNorth(base.getLongitude(),
+                base.getLatitude());
+        double tolerance = GeometrySimplification.tolerance(base);
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>();
+        hazardSummary.put("members", memberCount);
+        hazardSummary.put("seed", seed);
+        hazardSummary.put("meanMaxConcentration", statistics.getMean().getMaxValue());
+        hazardSummary.put("gridColumns", spec.getColumns());
+        hazardSummary.put("gridRows", spec.getRows());
+
+        List<Map<String, Object>> contours = new ArrayList<>();
+        Geometry footprint = null;
+        for (int i = 0; i < levels.size(); i++) {
+            ContourLevel level = levels.get(i);
+            ConcentrationGrid probability = statistics.exceedanceProbability(i);
+            hazardSummary.put(level.name() + "_maxProbability", probability.getMaxValue());
+            hazardSummary.put(level.name() + "_expectedArea_m2", statistics.expectedArea(i));
+            if (probability.getMaxValue() <= 0) {
+                continue;
+            }
+
+            MultiPolygon[] zones = contourExtractor.extract(probability, probabilities);
+            for (int p = 0; p < zones.length; p++) {
+                if (zones[p].isEmpty()) {
+                    continue;
+                }
+                Geometry zone = GeometrySimplification.simplify(zones[p], tolerance);
+                projection.toGeographic(zone);
+                // The widest zone of the lowest level outlines the plume
+                if (footprint == null) {
+                    footprint = zone;
+                }
+                Map<String, Object> contour = new LinkedHashMap<>();
+                contour.put("level", level.name());
+                contour.put("threshold_ppm", level.ppm());
+                contour.put("threshold_kg_per_m3", level.threshold());
+                contour.put("probability", probabilities[p]);
+                contour.put("geoJson", zone);
+                contours.add(contour);
+            }
+        }
+        if (footprint == null) {
+            footprint = meanFootprint(statistics.getMean(), projection, tolerance);
+        }
+
+        DispersionResult result = new DispersionResult();
+        result.setPlume(footprint);
+        result.setHazardSummary(hazardSummary);
+        result.setConcentrationGrid(statistics.getMean());
+        result.setGridProjection(projection);
+        result.setConcentrationContours(contours);
+        return result;
+    }
+
+    /**
+     * Draws the members in order from one generator, so a seed always gives
+     * the same ensemble however the members are later split across threads.
+     */
+    static List<EnsembleMember> sample(EnsembleRequest request, int memberCount, long seed) {
+        DispersionInput base = request.getBase();
+        double directionSpread = valueOrDefault(request.getWindDirectionSpread(), DEFAULT_DIRECTION_SPREAD);
+        double speedSpread = valueOrDefault(request.getWindSpeedSpread(), DEFAULT_SPEED_SPREAD);
+        double stabilityShift = valueOrDefault(request.getStabilityShiftProbability(), DEFAULT_STABILITY_SHIFT);
+        double rateSpread = valueOrDefault(request.getReleaseRateSpread(), 0.0);
+        if (directionSpread < 0 || speedSpread < 0 || rateSpread < 0 || stabilityShift < 0 || stabilityShift > 1) {
+            throw new IllegalArgumentException("Ensemble spreads must be non-negative and the stability shift "
+                    + "probability between 0 and 1");
+        }
+
+        double speed = base.getWindSpeed() > 0 ? base.getWindSpeed() : 1; // as the Gaussian model
+        StabilityClass stability = base.getStabilityClass() != null ? base.getStabilityClass() : StabilityClass.D;
+        SplittableRandom random = new SplittableRandom(seed);
+        List<EnsembleMember> members = new ArrayList<>(memberCount);
+        for (int m = 0; m < memberCount; m++) {
+            double direction = base.getWindDirection() + directionSpread * random.nextGaussian();
+            int shifted = stability.ordinal();
+            if (random.nextDouble() < stabilityShift) {
+                shifted += random.nextBoolean() ? 1 : -1;
+                shifted = Math.max(0, Math.min(CLASSES.length - 1, shifted));
+            }
+            members.add(new EnsembleMember(
+                    base.getSourceReleaseRate() * logNormal(random, rateSpread),
+                    speed * logNormal(random, speedSpread),
+                    ((direction % 360) + 360) % 360,
+                    CLASSES[shifted]));
+        }
+        return members;
+    }
+
+    // Mean-one lognormal factor with the given relative spread
+    private static double logNormal(SplittableRandom random, double spread) {
+        if (spread == 0) {
+            return 1;
+        }
+        double sigma2 = Math.log(1 + spread * spread);
+        return Math.exp(Math.sqrt(sigma2) * random.nextGaussian() - sigma2 / 2);
+    }
+
+    private static double[] probabilities(EnsembleRequest request) {
+        List<Double> requested = request.getProbabilities() != null && !request.getProbabilities().isEmpty()
+                ? request.getProbabilities()
+                : DEFAULT_PROBABILITIES;
+        double[] probabilities = new double[requested.size()];
+        for (int i = 0; i < probabilities.length; i++) {
+            Double p = requested.get(i);
+            if (p == null || !(p > 0) || p > 1) {
+                throw new IllegalArgumentException("Exceedance probabilities must be in (0, 1], got " + p);
+            }
+            probabilities[i] = p;
+        }
+        // Ascending, so each level's widest zone comes first
+        Arrays.sort(probabilities);
+        return probabilities;
+    }
+
+    private static double valueOrDefault(Double value, double fallback) {
+        return value != null ? value : fallback;
+    }
+
+    // Same assumed heights as the steady-state Gaussian model
+    private static double releaseHeight(DispersionInput input) {
+        return "LIQUID".equalsIgnoreCase(input.getSourceReleaseType()) ? 0.5 : 0.1;
+    }
+
+    // Without toxic levels, the area where the mean reaches 0.1% of its peak
+    private Geometry meanFootprint(ConcentrationGrid mean, LocalTangentProjection projection, double tolerance) {
+        Geometry footprint = geometryFactory.createMultiPolygon();
+        if (mean.getMaxValue() > 0) {
+            footprint = contourExtractor.extract(mean, new double[] { mean.getMaxValue() * 1e-3 })[0];
+            footprint = GeometrySimplification.simplify(footprint, tolerance);
+            projection.toGeographic(footprint);
+        }
+        return footprint;
+    }
+}
@@ -0,0 +1,258 @@
+package com.chad.service.model.impl;
+
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.MetConditions;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.DispersionModel;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.ContourExtractor;
+import com.chad.service.model.grid.ContourLevel;
+import com.chad.service.model.grid.GeometrySimplification;
+import com.chad.service.model.grid.GridSpec;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.chad.service.model.impl.dispersion.GaussianPuffEngine;
+import com.chad.service.model.impl.dispersion.PuffSimulation;
+import com.chad.service.model.impl.dispersion.ReleaseProfile;
+import org.locationtech.jts.geom.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.*;
+
+/**
+ * Time-varying release on a fixed east/north grid around the source, driven
+ * by {@link GaussianPuffEngine}. Wind and stability may change during the run
+ * through the input's met schedule, and a release mass makes the rate decay
+ * as the tank drains.
+ */
+@Service
+public class GaussianPuffDispersionModel implements DispersionModel {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ContourExtractor contourExtractor = new ContourExtractor(geometryFactory);
+    private final GaussianPuffEngine puffEngine;
+    private final ChemicalService chemicalService;
+
+    private final int gridCells;
+    private final double gridHalfWidth;
+    private final double defaultDuration;
+    private final double defaultTimeStep;
+    private final int maxSteps;
+
+    @Autowired
+    public GaussianPuffDispersionModel(GaussianPuffEngine puffEngine, ChemicalService chemicalService,
+            @Value("${chad.dispersion.puff.grid.cells:200}") int gridCells,
+            @Value("${chad.dispersion.puff.grid.half-width-m:5000}") double gridHalfWidth,
+            @Value("${chad.dispersion.puff.duration-s:3600}") double defaultDuration,
+            @Value("${chad.dispersion.puff.time-step-s:10}") double defaultTimeStep,
+            @Value("${chad.dispersion.puff.max-steps:20000}") int maxSteps) {
+        this.puffEngine = puffEngine;
+        this.chemicalService = chemicalService;
+        this.gridCells = gridCells;
+        this.gridHalfWidth = gridHalfWidth;
+        this.defaultDuration = defaultDuration;
+        this.defaultTimeStep = defaultTimeStep;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Runs the whole simulation and reports the hazard zones of the peak
+     * concentration reached at each point at any time.
+     */
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        validate(input);
+        return calculate(input, releaseProfile(input), chemicalService.resolveProperties(input));
+    }
+
+    /**
+     * As {@link #calculate(DispersionInput)} but with the release and chemical
+     * supplied by the caller, e.g. from a source-strength model. The input's
+     * release rate and mass are not used.
+     */
+    public DispersionResult calculate(DispersionInput input, ReleaseProfile release, ChemicalProperties props) {
+        PuffSimulation simulation = start(input, release);
+        while (!simulation.isFinished()) {
+            simulation.step();
+        }
+
+        ConcentrationGrid peak = simulation.peakGrid();
+        ConcentrationGrid dose = simulation.doseGrid();
+        List<ContourLevel> levels = ContourLevel.forChemical(props);
+
+        Map<String, Object> hazardSummary = summary(simulation);
+        hazardSummary.put("maxConcentration", peak.getMaxValue());
+        hazardSummary.put("maxDose_kg_s_per_m3", dose.getMaxValue());
+
+        DispersionResult result = new DispersionResult();
+        result.setPlume(footprint(peak, input));
+        result.setHazardSummary(hazardSummary);
+        result.setConcentrationGrid(peak);
+        result.setGridProjection(projection(input));
+        result.setConcentrationContours(buildContours(peak, levels, input));
+        return result;
+    }
+
+    /**
+     * Streams the evolving concentration field: one result every
+     * {@code frameInterval} seconds of simulated time plus the final state.
+     * Input errors are thrown here rather than signalled on the stream.
+     */
+    public Flux<DispersionResult> stream(DispersionInput input, double frameInterval) {
+        validate(input);
+        List<ContourLevel> levels = resolveContourLevels(input);
+        ReleaseProfile release = releaseProfile(input);
+        return Flux.generate(() -> start(input, release), (simulation, sink) -> {
+            double frameEnd = simulation.getTime() + frameInterval;
+            do {
+                simulation.step();
+            } while (!simulation.isFinished() && simulation.getTime() < frameEnd - 1e-9);
+
+            ConcentrationGrid current = simulation.concentrationGrid();
+            Map<String, Object> hazardSummary = summary(simulation);
+            hazardSummary.put("maxConcentration", current.getMaxValue());
+
+            DispersionResult frame = new DispersionResult();
+            frame.setHazardSummary(hazardSummary);
+            frame.setConcentrationGrid(current);
+            frame.setGridProjection(projection(input));
+            frame.setConcentrationContours(buildContours(current, levels, input));
+            sink.next(frame);
+            if (simulation.isFinished()) {
+                sink.complete();
+            }
+            return simulation;
+        });
+    }
+
+    private PuffSimulation start(DispersionInput input, ReleaseProfile release) {
+        validateTiming(input);
+        GridSpec spec = new GridSpec(gridCells, gridCells, -gridHalfWidth, gridHalfWidth, -gridHalfWidth,
+                gridHalfWidth);
+        return puffEngine.start(spec, release, releaseHeight(input), metSchedule(input),
+                timeStep(input), duration(input));
+    }
+
+    private void validate(DispersionInput input) {
+        if (!(input.getSourceReleaseRate() > 0)) {
+            throw new IllegalArgumentException("Puff model needs a positive source release rate");
+        }
+        validateTiming(input);
+    }
+
+    private void validateTiming(DispersionInput input) {
+        double duration = duration(input);
+        double timeStep = timeStep(input);
+        if (!(duration > 0) || !(timeStep > 0)) {
+            throw new IllegalArgumentException("Simulation duration and time step must be positive");
+        }
+        if (duration / timeStep > maxSteps) {
+            throw new IllegalArgumentException(
+                    "Simulation of " + duration + " s at " + timeStep + " s steps exceeds " + maxSteps + " steps");
+        }
+    }
+
+    private double duration(DispersionInput input) {
+        return input.getSimulationDuration() != 0 ? input.getSimulationDuration() : defaultDuration;
+    }
+
+    private double timeStep(DispersionInput input) {
+        return input.getTimeStep() != 0 ? input.getTimeStep() : defaultTimeStep;
+    }
+
+    private static ReleaseProfile releaseProfile(DispersionInput input) {
+        return input.getReleaseMass() > 0
+                ? ReleaseProfile.tankDrain(input.getSourceReleaseRate(), input.getReleaseMass())
+                : ReleaseProfile.constant(input.getSourceReleaseRate());
+    }
+
+    // Same assumed heights as the steady-state Gaussian model
+    private static double releaseHeight(DispersionInput input) {
+        return "LIQUID".equalsIgnoreCase(input.getSourceReleaseType()) ? 0.5 : 0.1;
+    }
+
+    // The input's own wind applies from t = 0 until the first scheduled change
+    private static List<MetConditions> metSchedule(DispersionInput input) {
+        List<MetConditions> schedule = new ArrayList<>();
+        schedule.add(new MetConditions(0, input.getWindSpeed(), input.getWindDirection(),
+                input.getStabilityClass()));
+        if (input.getMetSchedule() != null) {
+            for (MetConditions met : input.getMetSchedule()) {
+                if (met != null) {
+                    schedule.add(met);
+                }
+            }
+        }
+        // Stable sort keeps an explicit t = 0 entry after the input's own conditions
+        schedule.sort(Comparator.comparingDouble(MetConditions::getStartSeconds));
+        return schedule;
+    }
+
+    private static Map<String, Object> summary(PuffSimulation simulation) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timeSeconds", simulation.getTime());
+        summary.put("step", simulation.getStep());
+        summary.put("totalSteps", simulation.getTotalSteps());
+        summary.put("releaseRate_kg_per_s", simulation.getReleaseRate());
+        summary.put("releasedMass_kg", simulation.getReleasedMass());
+        summary.put("activePuffs", simulation.getPuffCount());
+        summary.put("gridColumns", simulation.getSpec().getColumns());
+        summary.put("gridRows", simulation.getSpec().getRows());
+        return summary;
+    }
+
+    // Area that saw at least 0.1% of the overall peak at some point
+    private Geometry footprint(ConcentrationGrid peak, DispersionInput input) {
+        Geometry footprint = geometryFactory.createMultiPolygon();
+        if (peak.getMaxValue() > 0) {
+            footprint = contourExtractor.extract(peak, new double[] { peak.getMaxValue() * 1e-3 })[0];
+            footprint = GeometrySimplification.simplify(footprint, GeometrySimplification.tolerance(input));
+            projection(input).toGeographic(footprint);
+        }
+        return footprint;
+    }
+
+    private List<Map<String, Object>> buildContours(ConcentrationGrid grid, List<ContourLevel> levels,
+            DispersionInput input) {
+        if (levels.isEmpty() || grid.getMaxValue() <= 0) {
+            return Collections.emptyList();
+        }
+        double[] thresholds = new double[levels.size()];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = levels.get(i).threshold();
+        }
+
+        MultiPolygon[] zones = contourExtractor.extract(grid, thresholds);
+        LocalTangentProjection projection = projection(input);
+        double tolerance = GeometrySimplification.tolerance(input);
+        List<Map<String, Object>> contours = new ArrayList<>();
+        for (int i = 0; i < zones.length; i++) {
+            if (zones[i].isEmpty()) {
+                continue;
+            }
+            Geometry zone = GeometrySimplification.simplify(zones[i], tolerance);
+            projection.toGeographic(zone);
+            ContourLevel level = levels.get(i);
+            Map<String, Object> contour = new LinkedHashMap<>();
+            contour.put("level", level.name());
+            contour.put("threshold_ppm", level.ppm());
+            contour.put("threshold_kg_per_m3", level.threshold());
+            contour.put("geoJson", zone);
+            contours.add(contour);
+        }
+        return contours;
+    }
+
+    // The grid is east/north metres around the release point
+    private static LocalTangentProjection projection(DispersionInput input) {
+        return LocalTangentProjection.eastNorth(input.getLongitude(), input.getLatitude());
+    }
+
+    private List<ContourLevel> resolveContourLevels(DispersionInput input) {
+        return ContourLevel.forChemical(chemicalService.resolveProperties(input));
+    }
+}
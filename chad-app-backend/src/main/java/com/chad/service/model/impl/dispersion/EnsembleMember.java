@@ -0,0 +1,15 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.model.DispersionInput.StabilityClass;
+
+/**
+ * Release and met conditions of one ensemble member.
+ *
+ * @param emissionRate  source strength in kg/s
+ * @param windSpeed     transport wind speed in m/s
+ * @param windDirection direction the wind blows from, degrees clockwise from north
+ * @param stability     Pasquill-Gifford stability class
+ */
+public record EnsembleMember(double emissionRate, double windSpeed, double windDirection,
+        StabilityClass stability) {
+}
@@ -0,0 +1,72 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.GridSpec;
+
+/**
+ * What is left of an ensemble run once the members have been folded in: the
+ * mean concentration and, per threshold, how many members reached it at each
+ * grid node.
+ */
+public final class EnsembleStatistics {
+
+    private final GridSpec spec;
+    private final int members;
+    private final double[] thresholds;
+    private final ConcentrationGrid mean;
+    private final int[] exceedances; // thresholds.length blocks of spec.size() counts
+
+    EnsembleStatistics(GridSpec spec, int members, double[] thresholds, ConcentrationGrid mean, int[] exceedances) {
+        this.spec = spec;
+        this.members = members;
+        this.thresholds = thresholds;
+        this.mean = mean;
+        this.exceedances = exceedances;
+    }
+
+    public GridSpec getSpec() {
+        return spec;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public ConcentrationGrid getMean() {
+        return mean;
+    }
+
+    /**
+     * Fraction of members at or above threshold {@code level} (in the order
+     * the thresholds were given) at each node.
+     */
+    public ConcentrationGrid exceedanceProbability(int level) {
+        if (level < 0 || level >= thresholds.length) {
+            throw new IndexOutOfBoundsException("No threshold " + level);
+        }
+        int size = spec.size();
+        int offset = level * size;
+        double[] probability = new double[size];
+        int maxCount = 0;
+        for (int n = 0; n < size; n++) {
+            int count = exceedances[offset + n];
+            probability[n] = (double) count / members;
+            maxCount = Math.max(maxCount, count);
+        }
+        return new ConcentrationGrid(spec, probability, (double) maxCount / members);
+    }
+
+    /**
+     * Area in m² at or above threshold {@code level}, averaged over the
+     * members.
+     */
+    public double expectedArea(int level) {
+        int size = spec.size();
+        int offset = level * size;
+        long total = 0;
+        for (int n = 0; n < size; n++) {
+            total += exceedances[offset + n];
+        }
+        return (double) total / members * spec.getDx() * spec.getDy();
+    }
+}
@@ -0,0 +1,248 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.GridSpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs many steady-state Gaussian plumes with perturbed wind, stability and
+ * release rate on one east/north grid and reduces them as they go, so no
+ * member's field is ever kept.
+ *
+ * <p>Members are split into ranges on a fork-join pool. Each leaf owns one
+ * set of buffers: the running sum and exceedance counts it adds its members
+ * into, and per-member tables of the plume amplitude and crosswind factor
+ * against downwind distance. The tables are sampled at half the grid spacing
+ * and interpolated, so a member costs a few hundred sigma lookups plus one
+ * exp per node downwind of the source. Leaves are merged pairwise on join.
+ */
+@Component
+public class GaussianEnsembleEngine {
+
+    // exp(-50) is ~2e-22 of the centreline value; treat as zero and skip the exp
+    private static final double MIN_EXPONENT = -50.0;
+
+    // Leaves per worker thread, so a slow leaf can be balanced by stealing
+    private static final int LEAVES_PER_THREAD = 2;
+
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public GaussianEnsembleEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GaussianEnsembleEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Evaluates every member and returns the mean concentration and the
+     * per-node exceedance counts for each threshold.
+     *
+     * @param spec           receptor grid in the local east/north frame
+     *                       (metres), with the source at the origin
+     * @param members        member conditions; wind speeds must be positive
+     * @param releaseHeight  effective release height H in metres
+     * @param receptorHeight receptor height z in metres
+     * @param thresholds     concentrations (kg/m³) to count exceedances of,
+     *                       in any order
+     */
+    public EnsembleStatistics run(GridSpec spec, List<EnsembleMember> members, double releaseHeight,
+            double receptorHeight, double[] thresholds) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("An ensemble needs at least one member");
+        }
+        for (EnsembleMember member : members) {
+            if (!(member.windSpeed() > 0)) {
+                throw new IllegalArgumentException("Wind speed must be positive, got " + member.windSpeed());
+            }
+        }
+
+        Layout layout = new Layout(spec, releaseHeight, receptorHeight, thresholds);
+        int leafSize = Math.max(1, -Math.floorDiv(-members.size(), pool.getParallelism() * LEAVES_PER_THREAD));
+        Accumulator total = pool.invoke(new MemberTask(layout, members, 0, members.size(), leafSize));
+
+        int size = spec.size();
+        double[] mean = total.sum;
+        double max = 0;
+        for (int n = 0; n < size; n++) {
+            mean[n] /= members.size();
+            max = Math.max(max, mean[n]);
+        }
+        return new EnsembleStatistics(spec, members.size(), thresholds.clone(),
+                new ConcentrationGrid(spec, mean, max), total.exceedances);
+    }
+
+    /**
+     * Everything about the run that is the same for every member.
+     */
+    private static final class Layout {
+        final GridSpec spec;
+        final double zMinusH;
+        final double zPlusH;
+        // Thresholds ascending, with the caller's index of each
+        final double[] levels;
+        final int[] levelOrder;
+        // Downwind distance table: station k sits at k * step
+        final double step;
+        final int stations;
+
+        Layout(GridSpec spec, double releaseHeight, double receptorHeight, double[] thresholds) {
+            this.spec = spec;
+            this.zMinusH = receptorHeight - releaseHeight;
+            this.zPlusH = receptorHeight + releaseHeight;
+
+            Integer[] order = new Integer[thresholds.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(thresholds[a], thresholds[b]));
+            this.levels = new double[thresholds.length];
+            this.levelOrder = new int[thresholds.length];
+            for (int k = 0; k < order.length; k++) {
+                levels[k] = thresholds[order[k]];
+                levelOrder[k] = order[k];
+            }
+
+            // Far enough to reach every grid corner in any wind direction
+            double reachX = Math.max(Math.abs(spec.getXMin()), Math.abs(spec.getXMax()));
+            double reachY = Math.max(Math.abs(spec.getYMin()), Math.abs(spec.getYMax()));
+            this.step = Math.min(spec.getDx(), spec.getDy()) / 2;
+            this.stations = (int) Math.ceil(Math.hypot(reachX, reachY) / step) + 2;
+        }
+    }
+
+    /**
+     * A leaf's running totals and its reusable per-member tables.
+     */
+    private static final class Accumulator {
+        final double[] sum;
+        final int[] exceedances;
+        final double[] amplitude;
+        final double[] crosswindFactor;
+
+        Accumulator(Layout layout) {
+            int size = layout.spec.size();
+            this.sum = new double[size];
+            this.exceedances = new int[layout.levels.length * size];
+            this.amplitude = new double[layout.stations];
+            this.crosswindFactor = new double[layout.stations];
+        }
+
+        void merge(Accumulator other) {
+            for (int n = 0; n < sum.length; n++) {
+                sum[n] += other.sum[n];
+            }
+            for (int n = 0; n < exceedances.length; n++) {
+                exceedances[n] += other.exceedances[n];
+            }
+        }
+
+        void add(Layout layout, EnsembleMember member) {
+            fillTables(layout, member);
+
+            GridSpec spec = layout.spec;
+            int columns = spec.getColumns();
+            int size = spec.size();
+            double[] levels = layout.levels;
+            int[] levelOrder = layout.levelOrder;
+            double lowest = levels.length > 0 ? levels[0] : Double.POSITIVE_INFINITY;
+            double inverseStep = 1.0 / layout.step;
+            int lastStation = layout.stations - 2;
+
+            // Unit vector pointing downwind
+            double bearing = Math.toRadians(member.windDirection() + 180.0);
+            double downEast = Math.sin(bearing);
+            double downNorth = Math.cos(bearing);
+
+            for (int j = 0; j < spec.getRows(); j++) {
+                double north = spec.y(j);
+                double xNorth = north * downNorth;
+                double yNorth = north * downEast;
+                int offset = j * columns;
+                for (int i = 0; i < columns; i++) {
+                    double east = spec.x(i);
+                    double x = east * downEast + xNorth;
+                    if (x <= 0) {
+                        continue; // receptor upwind of (or at) the source
+                    }
+                    double position = x * inverseStep;
+                    int k = Math.min((int) position, lastStation);
+                    double f = position - k;
+                    double a = amplitude[k] + f * (amplitude[k + 1] - amplitude[k]);
+                    double cf = crosswindFactor[k] + f * (crosswindFactor[k + 1] - crosswindFactor[k]);
+                    double y = yNorth - east * downNorth;
+                    double exponent = -y * y * cf;
+                    if (exponent < MIN_EXPONENT) {
+                        continue;
+                    }
+                    double c = a * Math.exp(exponent);
+                    int n = offset + i;
+                    sum[n] += c;
+                    if (c >= lowest) {
+                        for (int level = 0; level < levels.length && c >= levels[level]; level++) {
+                            exceedances[levelOrder[level] * size + n]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Same equation as GaussianPlumeGridEngine, sampled along the plume axis
+        private void fillTables(Layout layout, EnsembleMember member) {
+            double q = member.emissionRate();
+            double u = member.windSpeed();
+            for (int k = 0; k < layout.stations; k++) {
+                double x = Math.max(k * layout.step, PasquillGiffordSigmaTable.MIN_DISTANCE);
+                double sy = PasquillGiffordSigmaTable.sigmaY(member.stability(), x);
+                double sz = PasquillGiffordSigmaTable.sigmaZ(member.stability(), x);
+                double twoSz2 = 2 * sz * sz;
+                double vertical = Math.exp(-layout.zMinusH * layout.zMinusH / twoSz2)
+                        + Math.exp(-layout.zPlusH * layout.zPlusH / twoSz2);
+                amplitude[k] = q / (2 * Math.PI * u * sy * sz) * vertical;
+                crosswindFactor[k] = 1.0 / (2 * sy * sy);
+            }
+        }
+    }
+
+    private static final class MemberTask extends RecursiveTask<Accumulator> {
+
+        private final Layout layout;
+        private final List<EnsembleMember> members;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        MemberTask(Layout layout, List<EnsembleMember> members, int from, int to, int leafSize) {
+            this.layout = layout;
+            this.members = members;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= leafSize) {
+                Accumulator accumulator = new Accumulator(layout);
+                for (int m = from; m < to; m++) {
+                    accumulator.add(layout, members.get(m));
+                }
+                return accumulator;
+            }
+            int mid = (from + to) >>> 1;
+            MemberTask right = new MemberTask(layout, members, mid, to, leafSize);
+            right.fork();
+            Accumulator left = new MemberTask(layout, members, from, mid, leafSize).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.model.MetConditions;
+import com.chad.service.model.grid.GridSpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Starts time-stepped Gaussian puff simulations. A continuous or decaying
+ * release is represented as a train of puffs that are advected and grown
+ * with the met conditions of each step; see {@link PuffSimulation}.
+ */
+@Component
+public class GaussianPuffEngine {
+
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public GaussianPuffEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GaussianPuffEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a simulation at t = 0 with no puffs released yet.
+     *
+     * @param spec          receptor grid in the local east/north frame (metres),
+     *                      with the source at the origin
+     * @param release       emission rate over time
+     * @param releaseHeight effective release height in metres
+     * @param met           met conditions sorted by start time; the first entry
+     *                      must start at 0
+     * @param timeStep      step length in seconds
+     * @param duration      simulated time in seconds
+     */
+    public PuffSimulation start(GridSpec spec, ReleaseProfile release, double releaseHeight,
+            List<MetConditions> met, double timeStep, double duration) {
+        if (!(timeStep > 0) || !(duration > 0)) {
+            throw new IllegalArgumentException("Time step and duration must be positive");
+        }
+        if (met.isEmpty() || met.get(0).getStartSeconds() > 0) {
+            throw new IllegalArgumentException("Met conditions must start at t = 0");
+        }
+        return new PuffSimulation(spec, release, releaseHeight, met.toArray(new MetConditions[0]),
+                timeStep, duration, pool);
+    }
+}
@@ -1,5 +1,315 @@
 package com.chad.service.model.impl.dispersion;
 
-public class HeavyGasDispersionModel {
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionInput.StabilityClass;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.DispersionModel;
+import com.chad.service.model.grid.ContourLevel;
+import com.chad.service.model.grid.GeometrySimplification;
+import com.chad.service.model.grid.LocalTangentProjection;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense-gas plume from a continuous ground-level release, as a box model in
+ * the style of ALOHA's heavy gas option.
+ *
+ * <p>The plume cross-section is a rectangle of half-width b and height h
+ * moving downwind at the wind speed u, with uniform concentration
+ * c = Q / (2 b h u). The cloud slumps sideways as a gravity current,
+ * db/dt = sqrt(g' h) with g' the reduced gravity of the mixture, and dilutes
+ * by entrainment through the top (damped by the cloud's Richardson number)
+ * and at the spreading edges. As the density excess is diluted away the
+ * gravity terms vanish and ambient turbulence takes over, so the same
+ * equations carry the plume into passive dispersion.
+ *
+ * <p>The equations are integrated in downwind distance with a midpoint
+ * method on per-thread scratch arrays, so a run allocates nothing until the
+ * footprint polygons are built.
+ */
+@Component
+public class HeavyGasDispersionModel implements DispersionModel {
+
+    private static final double GRAVITY = 9.81; // m/s2
+    private static final double GAS_CONSTANT = 8.314; // J/(mol K)
+    private static final double AMBIENT_PRESSURE = 101325; // Pa
+    private static final double AMBIENT_TEMPERATURE = 298.15; // K
+    private static final double AMBIENT_DENSITY = 1.184; // kg/m3 of air at 25 °C
+    private static final double VON_KARMAN = 0.41;
+    private static final double ROUGHNESS_LENGTH = 0.03; // m, open country as in the puddle model
+    private static final double REFERENCE_HEIGHT = 10.0; // m, wind measurement height
+
+    // Box-model constants
+    private static final double FRONT_SPEED_COEFFICIENT = 1.0; // gravity current front, sqrt(g' h)
+    private static final double EDGE_ENTRAINMENT = 0.6; // air entrained at the spreading edges
+    private static final double RICHARDSON_DAMPING = 0.8; // top entrainment ~ 1 / (1 + 0.8 Ri)
+    private static final double LATERAL_TURBULENCE = 0.5; // passive lateral spread, in u*
+
+    // Entrainment and lateral mixing relative to neutral (D), indexed by StabilityClass ordinal
+    private static final double[] STABILITY_FACTOR = { 1.6, 1.4, 1.2, 1.0, 0.8, 0.6 };
+
+    private static final int STATIONS = 256;
+    private static final double FIRST_STATION = 1.0; // m
+    private static final int MAX_SUBSTEPS = 1000;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ChemicalService chemicalService;
+    private final double maxDownwind;
+
+    @Autowired
+    public HeavyGasDispersionModel(ChemicalService chemicalService,
+            @Value("${chad.dispersion.heavy-gas.max-downwind-m:5000}") double maxDownwind) {
+        this.chemicalService = chemicalService;
+        this.maxDownwind = maxDownwind;
+    }
+
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        return calculate(input, chemicalService.resolveProperties(input));
+    }
+
+    /**
+     * Heavy-gas run with the chemical's properties already resolved. The
+     * vapour density comes from the molecular weight at the chemical's
+     * default (storage or boiling) temperature.
+     */
+    public DispersionResult calculate(DispersionInput input, ChemicalProperties props) {
+        double q = input.getSourceReleaseRate();
+        if (!(q > 0)) {
+            throw new IllegalArgumentException("Heavy gas model needs a positive source release rate");
+        }
+        if (!(props.molecularWeight() > 0)) {
+            throw new IllegalArgumentException("Heavy gas model needs the chemical's molecular weight");
+        }
+        double u = input.getWindSpeed() > 0 ? input.getWindSpeed() : 1; // as in the Gaussian model
+        StabilityClass stability = input.getStabilityClass() != null ? input.getStabilityClass()
+                : StabilityClass.D;
+        double temperature = props.defaultTemperature() > 0 ? props.defaultTemperature() : AMBIENT_TEMPERATURE;
+        double gasDensity = AMBIENT_PRESSURE * props.molecularWeight() * 1e-3 / (GAS_CONSTANT * temperature);
+
+        Scratch s = SCRATCH.get();
+        int count = integrate(s, q, u, gasDensity, STABILITY_FACTOR[stability.ordinal()]);
+
+        List<ContourLevel> levels = ContourLevel.forChemical(props);
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>();
+        hazardSummary.put("maxConcentration", s.concentration[0]);
+        hazardSummary.put("gasDensity_kg_per_m3", gasDensity);
+        hazardSummary.put("denseGas", gasDensity > AMBIENT_DENSITY);
+        hazardSummary.put("passiveTransitionDistance_m", s.transitionDistance);
+        hazardSummary.put("plumeHalfWidthAtEnd_m", s.halfWidth[count - 1]);
+        hazardSummary.put("plumeHeightAtEnd_m", s.height[count - 1]);
+        hazardSummary.put("modelledDistance_m", s.distance[count - 1]);
+
+        double tolerance = GeometrySimplification.tolerance(input);
+        List<Map<String, Object>> contours = new ArrayList<>();
+        for (ContourLevel level : levels) {
+            double reach = reach(s, count, level.threshold());
+            hazardSummary.put("distanceTo" + level.name() + "_m", reach);
+            if (reach <= 0) {
+                continue;
+            }
+            Map<String, Object> contour = new LinkedHashMap<>();
+            contour.put("level", level.name());
+            contour.put("threshold_ppm", level.ppm());
+            contour.put("threshold_kg_per_m3", level.threshold());
+            contour.put("geoJson", footprint(s, count, reach, input, tolerance));
+            contours.add(contour);
+        }
+
+        // Outline: the lowest level's zone, or the whole modelled plume without levels
+        double outlineReach = levels.isEmpty() ? s.distance[count - 1] : reach(s, count, levels.get(0).threshold());
+        DispersionResult result = new DispersionResult();
+        result.setPlume(outlineReach > 0 ? footprint(s, count, outlineReach, input, tolerance)
+                : geometryFactory.createPolygon());
+        result.setHazardSummary(hazardSummary);
+        result.setConcentrationContours(contours.isEmpty() ? Collections.emptyList() : contours);
+        // No grid, but the zones were drawn in this frame
+        result.setGridProjection(LocalTangentProjection.alongWind(input.getLongitude(), input.getLatitude(),
+                input.getWindDirection()));
+        return result;
+    }
+
+    /**
+     * Integrates the box equations out to the configured distance or until the
+     * plume is negligibly dilute, filling the scratch station arrays.
+     *
+     * @return number of stations filled
+     */
+    private int integrate(Scratch s, double q, double u, double gasDensity, double stabilityFactor) {
+        double frictionVelocity = VON_KARMAN * u / Math.log(REFERENCE_HEIGHT / ROUGHNESS_LENGTH);
+        // Reduced gravity per unit concentration: g' = g c (1 - rho_a / rho_g) / rho_a
+        double buoyancy = Math.max(0, GRAVITY * (1 - AMBIENT_DENSITY / gasDensity) / AMBIENT_DENSITY);
+
+        // Source: pure vapour with a 2:1 width to height cross-section
+        double sourceVolumeFlux = q / gasDensity;
+        double b = Math.sqrt(sourceVolumeFlux / u);
+        double area = sourceVolumeFlux / u; // 2 b h
+        double x = 0;
+
+        s.q = q;
+        s.u = u;
+        s.buoyancy = buoyancy;
+        s.frictionVelocity = frictionVelocity;
+        s.stabilityFactor = stabilityFactor;
+        s.transitionDistance = Double.NaN;
+
+        s.distance[0] = 0;
+        s.halfWidth[0] = b;
+        s.height[0] = area / (2 * b);
+        s.concentration[0] = gasDensity; // undiluted at the source
+        double cutoff = gasDensity * 1e-9;
+
+        double ratio = Math.pow(maxDownwind / FIRST_STATION, 1.0 / (STATIONS - 2));
+        double target = FIRST_STATION;
+        int k = 1;
+        for (; k < STATIONS; k++, target *= ratio) {
+            int substeps = 0;
+            while (x < target && substeps++ < MAX_SUBSTEPS) {
+                s.rates(b, area);
+                // Limit each step to ~5% change in width and area
+                double dx = target - x;
+                if (s.dbdx > 0) {
+                    dx = Math.min(dx, 0.05 * b / s.dbdx);
+                }
+                if (s.dadx > 0) {
+                    dx = Math.min(dx, 0.05 * area / s.dadx);
+                }
+                double bMid = b + 0.5 * dx * s.dbdx;
+                double areaMid = area + 0.5 * dx * s.dadx;
+                s.rates(bMid, areaMid);
+                b += dx * s.dbdx;
+                area += dx * s.dadx;
+                x += dx;
+            }
+            double c = q / (u * area);
+            if (Double.isNaN(s.transitionDistance) && s.richardson(b, area) < 1) {
+                s.transitionDistance = x;
+            }
+            s.distance[k] = x;
+            s.halfWidth[k] = b;
+            s.height[k] = area / (2 * b);
+            s.concentration[k] = c;
+            if (c < cutoff) {
+                return k + 1;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Furthest downwind distance at which the concentration is at or above
+     * {@code threshold}, interpolated between stations; 0 if never reached.
+     */
+    private static double reach(Scratch s, int count, double threshold) {
+        if (s.concentration[0] < threshold) {
+            return 0;
+        }
+        for (int k = 1; k < count; k++) {
+            if (s.concentration[k] < threshold) {
+                double c0 = s.concentration[k - 1];
+                double c1 = s.concentration[k];
+                double f = (c0 - threshold) / (c0 - c1);
+                return s.distance[k - 1] + f * (s.distance[k] - s.distance[k - 1]);
+            }
+        }
+        return s.distance[count - 1];
+    }
+
+    /**
+     * Plume outline from the source to {@code reach} metres downwind,
+     * simplified to {@code tolerance} metres, rotated onto the wind direction
+     * and placed at the release point.
+     */
+    private Geometry footprint(Scratch s, int count, double reach, DispersionInput input, double tolerance) {
+        int last = 0;
+        while (last + 1 < count && s.distance[last + 1] < reach) {
+            last++;
+        }
+        double reachWidth = halfWidthAt(s, count, reach);
+
+        // Upper edge out to reach, then back along the lower edge
+        Coordinate[] coords = new Coordinate[2 * (last + 2) + 1];
+        int n = 0;
+        for (int k = 0; k <= last; k++) {
+            coords[n++] = new Coordinate(s.distance[k], s.halfWidth[k]);
+        }
+        coords[n++] = new Coordinate(reach, reachWidth);
+        coords[n++] = new Coordinate(reach, -reachWidth);
+        for (int k = last; k >= 0; k--) {
+            coords[n++] = new Coordinate(s.distance[k], -s.halfWidth[k]);
+        }
+        coords[n] = new Coordinate(coords[0]);
+
+        Geometry footprint = GeometrySimplification.simplify(geometryFactory.createPolygon(coords), tolerance);
+        LocalTangentProjection.alongWind(input.getLongitude(), input.getLatitude(), input.getWindDirection())
+                .toGeographic(footprint);
+        return footprint;
+    }
+
+    private static double halfWidthAt(Scratch s, int count, double x) {
+        for (int k = 1; k < count; k++) {
+            if (s.distance[k] >= x) {
+                double f = (x - s.distance[k - 1]) / (s.distance[k] - s.distance[k - 1]);
+                return s.halfWidth[k - 1] + f * (s.halfWidth[k] - s.halfWidth[k - 1]);
+            }
+        }
+        return s.halfWidth[count - 1];
+    }
+
+    /**
+     * Per-thread station arrays and the current run's constants. The rate
+     * method writes into fields so the integration loop allocates nothing.
+     */
+    private static final class Scratch {
+        final double[] distance = new double[STATIONS];
+        final double[] halfWidth = new double[STATIONS];
+        final double[] height = new double[STATIONS];
+        final double[] concentration = new double[STATIONS];
+
+        double q;
+        double u;
+        double buoyancy;
+        double frictionVelocity;
+        double stabilityFactor;
+        double transitionDistance;
+
+        double dbdx;
+        double dadx;
+
+        // Reduced gravity times height over u*^2
+        double richardson(double b, double area) {
+            double h = area / (2 * b);
+            double reducedGravity = buoyancy * q / (u * area);
+            return reducedGravity * h / (frictionVelocity * frictionVelocity);
+        }
+
+        // d(half-width)/dx and d(cross-section area)/dx at the given state
+        void rates(double b, double area) {
+            double h = area / (2 * b);
+            double reducedGravity = buoyancy * q / (u * area);
+            double front = FRONT_SPEED_COEFFICIENT * Math.sqrt(reducedGravity * h);
+            double ri = reducedGravity * h / (frictionVelocity * frictionVelocity);
+            double topEntrainment = VON_KARMAN * frictionVelocity * stabilityFactor / (1 + RICHARDSON_DAMPING * ri);
+            double lateral = LATERAL_TURBULENCE * frictionVelocity * stabilityFactor;
+
+            dbdx = (front + lateral) / u;
+            dadx = (2 * b * topEntrainment + 2 * h * EDGE_ENTRAINMENT * front) / u;
+        }
+    }
 }
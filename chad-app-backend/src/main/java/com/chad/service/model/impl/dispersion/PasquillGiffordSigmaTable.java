@@ -0,0 +1,113 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.model.DispersionInput.StabilityClass;
+
+/**
+ * Precomputed Pasquill-Gifford dispersion coefficients sigma_y(x) and
+ * sigma_z(x) per stability class, shared by the dispersion models.
+ *
+ * <p>The power laws {@code a * x^b} are sampled once at log-spaced downwind
+ * distances: 32 knots per octave from 2^-4 m to 2^18 m. A lookup finds its bin
+ * straight from the bits of the IEEE-754 double (binary exponent plus the top
+ * mantissa bits), so evaluating a sigma costs a few integer operations and one
+ * multiply-add instead of a {@code Math.pow}. Linear interpolation within a bin
+ * is accurate to better than 1e-4 relative for the exponents used here.
+ */
+public final class PasquillGiffordSigmaTable {
+
+    // Pasquill-Gifford coefficients indexed by StabilityClass ordinal:
+    // { a_y, b_y, -, -, a_z, b_z } with sigma = a * x^b
+    private static final double[][] COEFFICIENTS = {
+            { 0.22, 0.20, 0.0001, 0.0001, 0.20, 0.20 }, // A
+            { 0.16, 0.12, 0.0001, 0.0015, 0.12, 0.12 }, // B
+            { 0.11, 0.09, 0.0002, 0.0015, 0.08, 0.08 }, // C
+            { 0.08, 0.06, 0.0015, 0.0015, 0.06, 0.06 }, // D
+            { 0.06, 0.03, 0.0003, 0.0015, 0.03, 0.03 }, // E
+            { 0.04, 0.016, 0.0001, 0.0001, 0.016, 0.016 } // F
+    };
+
+    // Distances below this are clamped, as in the original per-point formula
+    public static final double MIN_DISTANCE = 0.1;
+
+    private static final int MIN_EXPONENT = -4;
+    private static final int MAX_EXPONENT = 17;
+    private static final int SUB_BITS = 5;
+    private static final int SUBDIVISIONS = 1 << SUB_BITS;
+    private static final int BINS = (MAX_EXPONENT - MIN_EXPONENT + 1) * SUBDIVISIONS;
+
+    public static final double MAX_DISTANCE = Math.scalb(1.0, MAX_EXPONENT + 1);
+
+    private static final StabilityClass DEFAULT_CLASS = StabilityClass.D;
+
+    // Knot distances and, per class, knot values and per-bin slopes
+    private static final double[] KNOTS = new double[BINS + 1];
+    private static final double[][] SIGMA_Y = new double[COEFFICIENTS.length][BINS + 1];
+    private static final double[][] SIGMA_Z = new double[COEFFICIENTS.length][BINS + 1];
+    private static final double[][] SLOPE_Y = new double[COEFFICIENTS.length][BINS];
+    private static final double[][] SLOPE_Z = new double[COEFFICIENTS.length][BINS];
+
+    static {
+        for (int k = 0; k <= BINS; k++) {
+            int exponent = MIN_EXPONENT + k / SUBDIVISIONS;
+            int sub = k % SUBDIVISIONS;
+            KNOTS[k] = Math.scalb(1.0 + (double) sub / SUBDIVISIONS, exponent);
+        }
+        for (int c = 0; c < COEFFICIENTS.length; c++) {
+            double[] coeffs = COEFFICIENTS[c];
+            for (int k = 0; k <= BINS; k++) {
+                SIGMA_Y[c][k] = coeffs[0] * Math.pow(KNOTS[k], coeffs[1]);
+                SIGMA_Z[c][k] = coeffs[4] * Math.pow(KNOTS[k], coeffs[5]);
+            }
+            for (int k = 0; k < BINS; k++) {
+                double width = KNOTS[k + 1] - KNOTS[k];
+                SLOPE_Y[c][k] = (SIGMA_Y[c][k + 1] - SIGMA_Y[c][k]) / width;
+                SLOPE_Z[c][k] = (SIGMA_Z[c][k + 1] - SIGMA_Z[c][k]) / width;
+            }
+        }
+    }
+
+    private PasquillGiffordSigmaTable() {
+    }
+
+    /**
+     * Crosswind dispersion coefficient in metres at downwind distance x (m).
+     * A null stability class is treated as neutral (D).
+     */
+    public static double sigmaY(StabilityClass stability, double x) {
+        int c = classIndex(stability);
+        x = clamp(x);
+        int bin = bin(x);
+        return SIGMA_Y[c][bin] + (x - KNOTS[bin]) * SLOPE_Y[c][bin];
+    }
+
+    /**
+     * Vertical dispersion coefficient in metres at downwind distance x (m).
+     * A null stability class is treated as neutral (D).
+     */
+    public static double sigmaZ(StabilityClass stability, double x) {
+        int c = classIndex(stability);
+        x = clamp(x);
+        int bin = bin(x);
+        return SIGMA_Z[c][bin] + (x - KNOTS[bin]) * SLOPE_Z[c][bin];
+    }
+
+    private static int classIndex(StabilityClass stability) {
+        return (stability != null ? stability : DEFAULT_CLASS).ordinal();
+    }
+
+    private static double clamp(double x) {
+        if (x < MIN_DISTANCE) {
+            return MIN_DISTANCE;
+        }
+        // Keep the top knot inside the last bin
+        return Math.min(x, Math.nextDown(MAX_DISTANCE));
+    }
+
+    // x must already be clamped to [MIN_DISTANCE, MAX_DISTANCE)
+    private static int bin(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        int exponent = (int) ((bits >>> 52) & 0x7ff) - 1023;
+        int sub = (int) (bits >>> (52 - SUB_BITS)) & (SUBDIVISIONS - 1);
+        return (exponent - MIN_EXPONENT) * SUBDIVISIONS + sub;
+    }
+}
@@ -0,0 +1,406 @@
+package com.chad.service.model.impl.dispersion;
+
+import com.chad.model.DispersionInput.StabilityClass;
+import com.chad.model.MetConditions;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.GridSpec;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * State of one Gaussian puff run, advanced a time step at a time.
+ *
+ * <p>Puffs are kept as parallel primitive arrays (position, mass, distance
+ * travelled, sigmas). Each step moves and grows the existing puffs, releases
+ * the step's mass as new puffs spaced at most half a grid cell apart, and
+ * rebuilds the ground-level concentration field. A puff only touches the
+ * cells within 4 sigma of its centre, and its horizontal Gaussian is
+ * separable, so it is splatted as the outer product of one weight vector per
+ * axis. The weights are the fraction of the puff's mass falling in each cell,
+ * which conserves mass however small sigma is compared with the cell size.
+ * Time-integrated dose and peak concentration are accumulated in the same
+ * pass instead of being recomputed from the history.
+ *
+ * <p>The field is rebuilt from scratch on purpose. Every puff moves and grows
+ * each step, so every footprint changes. An incremental update would subtract
+ * each puff's old footprint and add its new one, which is twice the splat
+ * work, and repeated subtraction would drift. Clearing is just a fill of
+ * each task's rows before it splats them.
+ *
+ * <p>Sigmas grow with the distance travelled under the current stability
+ * class, incrementally, so a puff never shrinks when the class changes.
+ *
+ * <p>Not thread-safe; a simulation is meant to be driven by one caller.
+ */
+public final class PuffSimulation {
+
+    // Puffs stall in calm air; Pasquill-Gifford sigmas need some transport
+    private static final double MIN_WIND_SPEED = 0.5;
+
+    private static final double WINDOW_SIGMAS = 4.0;
+    private static final int MAX_PUFFS_PER_STEP = 16;
+    private static final int ROWS_PER_TASK = 8;
+
+    private static final StabilityClass DEFAULT_CLASS = StabilityClass.D;
+
+    private final GridSpec spec;
+    private final ReleaseProfile release;
+    private final double releaseHeight;
+    private final MetConditions[] met;
+    private final double timeStep;
+    private final int totalSteps;
+    private final double maxPuffSpacing;
+    private final ForkJoinPool pool;
+
+    // Puff state, one slot per live puff
+    private int count;
+    private double[] puffX = new double[64];
+    private double[] puffY = new double[64];
+    private double[] puffMass = new double[64];
+    private double[] puffTravel = new double[64];
+    private double[] puffSigmaY = new double[64];
+    private double[] puffSigmaZ = new double[64];
+
+    // Splat windows and weights, rebuilt every step
+    private int[] colFrom = new int[64];
+    private int[] colTo = new int[64];
+    private int[] rowFrom = new int[64];
+    private int[] rowTo = new int[64];
+    private int[] colWeightOffset = new int[64];
+    private int[] rowWeightOffset = new int[64];
+    private double[] amplitude = new double[64];
+    private double[] weights = new double[1024];
+
+    // Ground-level fields on the grid
+    private final double[] concentration;
+    private final double[] dose; // kg*s/m3
+    private final double[] peak;
+    private final double[] rowMax;
+
+    private int step;
+    private double releasedMass;
+    private double lastRate;
+    private double maxConcentration;
+    private double peakConcentration;
+
+    PuffSimulation(GridSpec spec, ReleaseProfile release, double releaseHeight, MetConditions[] met,
+            double timeStep, double duration, ForkJoinPool pool) {
+        this.spec = spec;
+        this.release = release;
+        this.releaseHeight = releaseHeight;
+        this.met = met;
+        this.timeStep = timeStep;
+        this.totalSteps = (int) Math.ceil(duration / timeStep - 1e-9);
+        this.maxPuffSpacing = 0.5 * Math.min(spec.getDx(), spec.getDy());
+        this.pool = pool;
+        this.concentration = new double[spec.size()];
+        this.dose = new double[spec.size()];
+        this.peak = new double[spec.size()];
+        this.rowMax = new double[spec.getRows()];
+    }
+
+    public boolean isFinished() {
+        return step >= totalSteps;
+    }
+
+    /**
+     * Advances the simulation by one time step.
+     */
+    public void step() {
+        if (isFinished()) {
+            throw new IllegalStateException("Simulation already finished");
+        }
+        double t0 = step * timeStep;
+        double t1 = t0 + timeStep;
+
+        MetConditions conditions = conditionsAt(t0);
+        StabilityClass stability = conditions.getStabilityClass() != null ? conditions.getStabilityClass()
+                : DEFAULT_CLASS;
+        double u = Math.max(conditions.getWindSpeed(), MIN_WIND_SPEED);
+        // Wind direction is where the wind comes from; puffs move the opposite way
+        double bearing = Math.toRadians(conditions.getWindDirection() + 180.0);
+        double east = u * Math.sin(bearing);
+        double north = u * Math.cos(bearing);
+        double distance = u * timeStep;
+
+        for (int p = 0; p < count; p++) {
+            double s = puffTravel[p];
+            puffX[p] += east * timeStep;
+            puffY[p] += north * timeStep;
+            puffSigmaY[p] += PasquillGiffordSigmaTable.sigmaY(stability, s + distance)
+                    - PasquillGiffordSigmaTable.sigmaY(stability, s);
+            puffSigmaZ[p] += PasquillGiffordSigmaTable.sigmaZ(stability, s + distance)
+                    - PasquillGiffordSigmaTable.sigmaZ(stability, s);
+            puffTravel[p] = s + distance;
+        }
+
+        double mass = release.mass(t0, t1);
+        if (mass > 0) {
+            // Spread the step's mass along the path it travelled during the step
+            int n = (int) Math.min(MAX_PUFFS_PER_STEP, Math.max(1, Math.ceil(distance / maxPuffSpacing)));
+            for (int k = 0; k < n; k++) {
+                double age = (n - k - 0.5) / n * timeStep;
+                double s = u * age;
+                addPuff(east * age, north * age, mass / n, s,
+                        PasquillGiffordSigmaTable.sigmaY(stability, s),
+                        PasquillGiffordSigmaTable.sigmaZ(stability, s));
+            }
+        }
+        releasedMass += mass;
+        lastRate = mass / timeStep;
+
+        // Full rebuild: every puff has moved, see the class comment
+        prepareSplat();
+        pool.invoke(new SplatTask(0, spec.getRows()));
+
+        double max = 0;
+        for (double m : rowMax) {
+            max = Math.max(max, m);
+        }
+        maxConcentration = max;
+        peakConcentration = Math.max(peakConcentration, max);
+        step++;
+    }
+
+    /** Simulated time in seconds at the end of the last step. */
+    public double getTime() {
+        return step * timeStep;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    public int getPuffCount() {
+        return count;
+    }
+
+    /** Total mass in kg released so far. */
+    public double getReleasedMass() {
+        return releasedMass;
+    }
+
+    /** Mean emission rate in kg/s over the last step. */
+    public double getReleaseRate() {
+        return lastRate;
+    }
+
+    public GridSpec getSpec() {
+        return spec;
+    }
+
+    /** Snapshot of the current ground-level concentration (kg/m³). */
+    public ConcentrationGrid concentrationGrid() {
+        return new ConcentrationGrid(spec, concentration.clone(), maxConcentration);
+    }
+
+    /** Snapshot of the highest concentration (kg/m³) seen so far at each node. */
+    public ConcentrationGrid peakGrid() {
+        return new ConcentrationGrid(spec, peak.clone(), peakConcentration);
+    }
+
+    /** Snapshot of the time-integrated concentration (kg·s/m³) so far. */
+    public ConcentrationGrid doseGrid() {
+        double[] values = dose.clone();
+        double max = 0;
+        for (double v : values) {
+            max = Math.max(max, v);
+        }
+        return new ConcentrationGrid(spec, values, max);
+    }
+
+    private MetConditions conditionsAt(double t) {
+        MetConditions current = met[0];
+        for (int i = 1; i < met.length && met[i].getStartSeconds() <= t; i++) {
+            current = met[i];
+        }
+        return current;
+    }
+
+    private void addPuff(double x, double y, double mass, double travel, double sigmaY, double sigmaZ) {
+        if (count == puffX.length) {
+            int capacity = count * 2;
+            puffX = Arrays.copyOf(puffX, capacity);
+            puffY = Arrays.copyOf(puffY, capacity);
+            puffMass = Arrays.copyOf(puffMass, capacity);
+            puffTravel = Arrays.copyOf(puffTravel, capacity);
+            puffSigmaY = Arrays.copyOf(puffSigmaY, capacity);
+            puffSigmaZ = Arrays.copyOf(puffSigmaZ, capacity);
+            colFrom = Arrays.copyOf(colFrom, capacity);
+            colTo = Arrays.copyOf(colTo, capacity);
+            rowFrom = Arrays.copyOf(rowFrom, capacity);
+            rowTo = Arrays.copyOf(rowTo, capacity);
+            colWeightOffset = Arrays.copyOf(colWeightOffset, capacity);
+            rowWeightOffset = Arrays.copyOf(rowWeightOffset, capacity);
+            amplitude = Arrays.copyOf(amplitude, capacity);
+        }
+        puffX[count] = x;
+        puffY[count] = y;
+        puffMass[count] = mass;
+        puffTravel[count] = travel;
+        puffSigmaY[count] = sigmaY;
+        puffSigmaZ[count] = sigmaZ;
+        count++;
+    }
+
+    // Moves the last puff into slot p
+    private void removePuff(int p) {
+        int last = --count;
+        puffX[p] = puffX[last];
+        puffY[p] = puffY[last];
+        puffMass[p] = puffMass[last];
+        puffTravel[p] = puffTravel[last];
+        puffSigmaY[p] = puffSigmaY[last];
+        puffSigmaZ[p] = puffSigmaZ[last];
+    }
+
+    /**
+     * Computes each puff's cell window, per-axis mass fractions and vertical
+     * amplitude, and retires puffs that have left the grid.
+     */
+    private void prepareSplat() {
+        double dx = spec.getDx();
+        double dy = spec.getDy();
+        double cellArea = dx * dy;
+        int used = 0;
+        int p = 0;
+        while (p < count) {
+            double sy = puffSigmaY[p];
+            int c0 = Math.max(0, cellOf(puffX[p] - WINDOW_SIGMAS * sy, spec.getXMin(), dx));
+            int c1 = Math.min(spec.getColumns() - 1, cellOf(puffX[p] + WINDOW_SIGMAS * sy, spec.getXMin(), dx));
+            int r0 = Math.max(0, cellOf(puffY[p] - WINDOW_SIGMAS * sy, spec.getYMin(), dy));
+            int r1 = Math.min(spec.getRows() - 1, cellOf(puffY[p] + WINDOW_SIGMAS * sy, spec.getYMin(), dy));
+            if (c0 > c1 || r0 > r1) {
+                removePuff(p); // entirely off the grid; dropped even if the wind later turns back
+                continue;
+            }
+
+            int needed = used + (c1 - c0 + 1) + (r1 - r0 + 1);
+            if (needed > weights.length) {
+                weights = Arrays.copyOf(weights, Math.max(needed, weights.length * 2));
+            }
+            colFrom[p] = c0;
+            colTo[p] = c1;
+            rowFrom[p] = r0;
+            rowTo[p] = r1;
+            colWeightOffset[p] = used;
+            used = fillCellFractions(weights, used, puffX[p], sy, spec.getXMin(), dx, c0, c1);
+            rowWeightOffset[p] = used;
+            used = fillCellFractions(weights, used, puffY[p], sy, spec.getYMin(), dy, r0, r1);
+
+            // Ground-level receptor with reflection: 2 * exp(-H^2 / 2 sz^2) / (sqrt(2 pi) sz)
+            double sz = puffSigmaZ[p];
+            double vertical = 2 * Math.exp(-releaseHeight * releaseHeight / (2 * sz * sz))
+                    / (Math.sqrt(2 * Math.PI) * sz);
+            amplitude[p] = puffMass[p] / cellArea * vertical;
+            p++;
+        }
+    }
+
+    private static int cellOf(double coordinate, double min, double spacing) {
+        return (int) Math.floor((coordinate - min) / spacing + 0.5);
+    }
+
+    /**
+     * Writes the fraction of a 1D Gaussian (centre, sigma) that falls in each of
+     * the cells from..to, where cell i spans node i +/- spacing/2.
+     */
+    private static int fillCellFractions(double[] out, int offset, double centre, double sigma, double min,
+            double spacing, int from, int to) {
+        double scale = 1.0 / (Math.sqrt(2) * sigma);
+        double edge = min + (from - 0.5) * spacing;
+        double previous = erf((edge - centre) * scale);
+        for (int i = from; i <= to; i++) {
+            edge += spacing;
+            double next = erf((edge - centre) * scale);
+            out[offset++] = Math.max(0, 0.5 * (next - previous));
+            previous = next;
+        }
+        return offset;
+    }
+
+    // Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+    private static double erf(double x) {
+        double z = Math.abs(x);
+        if (z > 6) {
+            return Math.copySign(1.0, x);
+        }
+        double t = 1.0 / (1.0 + 0.3275911 * z);
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429))));
+        return Math.copySign(1.0 - poly * Math.exp(-z * z), x);
+    }
+
+    /**
+     * Rebuilds the concentration of a band of rows from the puffs overlapping
+     * it and folds the result into dose and peak.
+     */
+    private final class SplatTask extends RecursiveAction {
+
+        private final int fromRow;
+        private final int toRow;
+
+        SplatTask(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                splatRows();
+                return;
+            }
+            int mid = (fromRow + toRow) >>> 1;
+            invokeAll(new SplatTask(fromRow, mid), new SplatTask(mid, toRow));
+        }
+
+        private void splatRows() {
+            int columns = spec.getColumns();
+            Arrays.fill(concentration, fromRow * columns, toRow * columns, 0.0);
+            for (int p = 0; p < count; p++) {
+                int r0 = Math.max(rowFrom[p], fromRow);
+                int r1 = Math.min(rowTo[p], toRow - 1);
+                if (r0 > r1) {
+                    continue;
+                }
+                int c0 = colFrom[p];
+                int c1 = colTo[p];
+                int colOffset = colWeightOffset[p] - c0;
+                int rowOffset = rowWeightOffset[p] - rowFrom[p];
+                for (int j = r0; j <= r1; j++) {
+                    double a = amplitude[p] * weights[rowOffset + j];
+                    if (a == 0) {
+                        continue;
+                    }
+                    int offset = j * columns;
+                    for (int i = c0; i <= c1; i++) {
+                        concentration[offset + i] += a * weights[colOffset + i];
+                    }
+                }
+            }
+
+            for (int j = fromRow; j < toRow; j++) {
+                int offset = j * columns;
+                double max = 0;
+                for (int i = offset; i < offset + columns; i++) {
+                    double c = concentration[i];
+                    dose[i] += c * timeStep;
+                    if (c > peak[i]) {
+                        peak[i] = c;
+                    }
+                    if (c > max) {
+                        max = c;
+                    }
+                }
+                rowMax[j] = max;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.chad.service.model.impl.dispersion;
+
+import java.util.Arrays;
+
+/**
+ * Source emission rate as a function of time since the release started.
+ */
+public interface ReleaseProfile {
+
+    /**
+     * Emission rate in kg/s at time t (s).
+     */
+    double rate(double t);
+
+    /**
+     * Mass in kg released between t0 and t1 (s).
+     */
+    double mass(double t0, double t1);
+
+    /**
+     * Constant rate for as long as the simulation runs.
+     */
+    static ReleaseProfile constant(double kgPerSecond) {
+        return new Constant(kgPerSecond, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constant rate until {@code inventory} kg have been released.
+     */
+    static ReleaseProfile constant(double kgPerSecond, double inventory) {
+        if (!(kgPerSecond > 0) || !(inventory > 0)) {
+            throw new IllegalArgumentException("Finite release needs a positive rate and inventory");
+        }
+        return new Constant(kgPerSecond, inventory / kgPerSecond);
+    }
+
+    /**
+     * Gravity-driven outflow from a hole in a tank holding {@code inventory} kg.
+     * The rate follows the liquid head, Q ~ sqrt(h), so it falls linearly from
+     * {@code initialRate} to zero when the tank is empty at t = 2 * inventory / initialRate.
+     */
+    static ReleaseProfile tankDrain(double initialRate, double inventory) {
+        if (!(initialRate > 0) || !(inventory > 0)) {
+            throw new IllegalArgumentException("Tank drain needs a positive initial rate and inventory");
+        }
+        return new TankDrain(initialRate, 2 * inventory / initialRate);
+    }
+
+    /**
+     * Rate interpolated linearly between samples (times ascending, from 0),
+     * and zero after the last sample.
+     */
+    static ReleaseProfile tabulated(double[] times, double[] rates) {
+        if (times.length < 2 || times.length != rates.length || times[0] != 0) {
+            throw new IllegalArgumentException("Tabulated release needs matching samples starting at t = 0");
+        }
+        double[] cumulative = new double[times.length];
+        for (int i = 1; i < times.length; i++) {
+            if (!(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Tabulated release times must be increasing");
+            }
+            cumulative[i] = cumulative[i - 1] + 0.5 * (rates[i - 1] + rates[i]) * (times[i] - times[i - 1]);
+        }
+        return new Tabulated(times, rates, cumulative);
+    }
+
+    record Constant(double kgPerSecond, double endTime) implements ReleaseProfile {
+
+        @Override
+        public double rate(double t) {
+            return t >= 0 && t < endTime ? kgPerSecond : 0;
+        }
+
+        @Override
+        public double mass(double t0, double t1) {
+            return kgPerSecond * Math.max(0, Math.min(t1, endTime) - Math.max(t0, 0));
+        }
+    }
+
+    record TankDrain(double initialRate, double drainTime) implements ReleaseProfile {
+
+        @Override
+        public double rate(double t) {
+            return t < 0 || t >= drainTime ? 0 : initialRate * (1 - t / drainTime);
+        }
+
+        @Override
+        public double mass(double t0, double t1) {
+            return released(t1) - released(t0);
+        }
+
+        // Cumulative mass released by time t
+        private double released(double t) {
+            double clamped = Math.max(0, Math.min(t, drainTime));
+            return initialRate * (clamped - clamped * clamped / (2 * drainTime));
+        }
+    }
+
+    record Tabulated(double[] times, double[] rates, double[] cumulative) implements ReleaseProfile {
+
+        @Override
+        public double rate(double t) {
+            if (t < 0 || t > times[times.length - 1]) {
+                return 0;
+            }
+            int i = segment(t);
+            double f = (t - times[i]) / (times[i + 1] - times[i]);
+            return rates[i] + f * (rates[i + 1] - rates[i]);
+        }
+
+        @Override
+        public double mass(double t0, double t1) {
+            return released(t1) - released(t0);
+        }
+
+        private double released(double t) {
+            if (t <= 0) {
+                return 0;
+            }
+            if (t >= times[times.length - 1]) {
+                return cumulative[cumulative.length - 1];
+            }
+            int i = segment(t);
+            return cumulative[i] + 0.5 * (rates[i] + rate(t)) * (t - times[i]);
+        }
+
+        // Index i with times[i] <= t < times[i + 1]
+        private int segment(double t) {
+            int i = Arrays.binarySearch(times, t);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return Math.min(i, times.length - 2);
+        }
+    }
+}
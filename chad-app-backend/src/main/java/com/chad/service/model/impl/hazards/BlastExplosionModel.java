@@ -1,5 +1,153 @@
 package com.chad.service.model.impl.hazards;
 
-public class BlastExplosionModel {
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.DispersionModel;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Overpressure from a vapour cloud explosion, by TNT equivalence.
+ *
+ * <p>The flammable mass is the release mass, or the release rate over the
+ * time the cloud takes to form. A yield fraction of its combustion energy is
+ * expressed as an equivalent TNT charge W, and the side-on overpressure at
+ * distance R follows the Kinney-Graham curve in the scaled distance
+ * Z = R / W^(1/3). Because the curve depends on Z alone, the scaled distance
+ * of each threshold is found by bisection once, at startup; a scenario then
+ * only needs a cube root per threshold.
+ */
+@Component
+public class BlastExplosionModel implements DispersionModel {
+
+    private static final double AMBIENT_PRESSURE = 101325; // Pa
+    private static final double PASCALS_PER_PSI = 6894.757;
+    private static final double TNT_ENERGY = 4.68e6; // J/kg
+
+    // Bracket of the Kinney-Graham fit, m/kg^(1/3)
+    private static final double MIN_SCALED_DISTANCE = 0.05;
+    private static final double MAX_SCALED_DISTANCE = 500;
+    private static final int BISECTION_STEPS = 100;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ChemicalService chemicalService;
+    private final double[] thresholds; // psi, ascending
+    private final double[] scaledDistances; // m/kg^(1/3), per threshold
+    private final double yield;
+    private final double cloudFormationTime;
+
+    @Autowired
+    public BlastExplosionModel(ChemicalService chemicalService,
+            @Value("${chad.hazards.blast.thresholds-psi:1,3.5,8}") double[] thresholds,
+            @Value("${chad.hazards.blast.yield:0.03}") double yield,
+            @Value("${chad.hazards.blast.cloud-formation-s:60}") double cloudFormationTime) {
+        if (!(yield > 0) || yield > 1) {
+            throw new IllegalArgumentException("chad.hazards.blast.yield must be in (0, 1]");
+        }
+        if (!(cloudFormationTime > 0)) {
+            throw new IllegalArgumentException("chad.hazards.blast.cloud-formation-s must be positive");
+        }
+        this.chemicalService = chemicalService;
+        this.thresholds = HazardRings.thresholds(thresholds, "chad.hazards.blast.thresholds-psi");
+        this.scaledDistances = new double[this.thresholds.length];
+        for (int i = 0; i < this.thresholds.length; i++) {
+            scaledDistances[i] = scaledDistance(this.thresholds[i] * PASCALS_PER_PSI);
+        }
+        this.yield = yield;
+        this.cloudFormationTime = cloudFormationTime;
+    }
+
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        return calculate(input, chemicalService.resolveProperties(input));
+    }
+
+    public DispersionResult calculate(DispersionInput input, ChemicalProperties props) {
+        double flammableMass = flammableMass(input);
+        double tntMass = tntEquivalent(flammableMass, props);
+        double cubeRoot = Math.cbrt(tntMass);
+
+        double[] reaches = new double[thresholds.length];
+        for (int i = 0; i < thresholds.length; i++) {
+            reaches[i] = scaledDistances[i] * cubeRoot;
+        }
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>();
+        hazardSummary.put("flammableMass_kg", flammableMass);
+        hazardSummary.put("heatOfCombustion_J_per_kg", props.heatOfCombustion());
+        hazardSummary.put("yield", yield);
+        hazardSummary.put("tntEquivalent_kg", tntMass);
+        return HazardRings.result(geometryFactory, input, thresholds, reaches, "psi", "psi", hazardSummary);
+    }
+
+    /**
+     * Distance (m) to a side-on overpressure of {@code threshold} psi for each
+     * TNT-equivalent mass in {@code tntMass} (kg), written to
+     * {@code reaches}. For sweeping many explosion scenarios at once.
+     */
+    public void reaches(double[] tntMass, double threshold, double[] reaches) {
+        if (reaches.length < tntMass.length) {
+            throw new IllegalArgumentException("Output array is shorter than the input");
+        }
+        double z = scaledDistance(threshold * PASCALS_PER_PSI);
+        for (int i = 0; i < tntMass.length; i++) {
+            reaches[i] = z * Math.cbrt(tntMass[i]);
+        }
+    }
+
+    /**
+     * TNT charge (kg) equivalent to the explosion of {@code flammableMass} kg.
+     */
+    public double tntEquivalent(double flammableMass, ChemicalProperties props) {
+        if (!(props.heatOfCombustion() > 0)) {
+            throw new IllegalArgumentException("Blast model needs a positive heat of combustion");
+        }
+        return yield * flammableMass * props.heatOfCombustion() / TNT_ENERGY;
+    }
+
+    private double flammableMass(DispersionInput input) {
+        if (input.getReleaseMass() > 0) {
+            return input.getReleaseMass();
+        }
+        if (input.getSourceReleaseRate() > 0) {
+            return input.getSourceReleaseRate() * cloudFormationTime;
+        }
+        throw new IllegalArgumentException("Blast model needs a release mass or a positive source release rate");
+    }
+
+    // Scaled distance at which the Kinney-Graham overpressure falls to the given value (Pa)
+    private static double scaledDistance(double overpressure) {
+        double lo = Math.log(MIN_SCALED_DISTANCE);
+        double hi = Math.log(MAX_SCALED_DISTANCE);
+        if (!(overpressure < overpressure(MIN_SCALED_DISTANCE))
+                || !(overpressure > overpressure(MAX_SCALED_DISTANCE))) {
+            throw new IllegalArgumentException("Overpressure of " + overpressure + " Pa is outside the blast curve");
+        }
+        // Overpressure falls monotonically with distance; bisect in log Z
+        for (int i = 0; i < BISECTION_STEPS; i++) {
+            double mid = 0.5 * (lo + hi);
+            if (overpressure(Math.exp(mid)) > overpressure) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return Math.exp(0.5 * (lo + hi));
+    }
+
+    // Kinney-Graham side-on overpressure (Pa) at scaled distance z
+    private static double overpressure(double z) {
+        double a = z / 4.5;
+        double b = z / 0.048;
+        double c = z / 0.32;
+        double d = z / 1.35;
+        return AMBIENT_PRESSURE * 808 * (1 + a * a) / Math.sqrt((1 + b * b) * (1 + c * c) * (1 + d * d));
+    }
 }
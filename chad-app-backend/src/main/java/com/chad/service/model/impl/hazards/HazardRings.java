@@ -0,0 +1,116 @@
+package com.chad.service.model.impl.hazards;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.GeometrySimplification;
+import com.chad.service.model.grid.LocalTangentProjection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Circular hazard zones around the source for the fire and explosion models.
+ * Each threshold's zone is the disc inside its reach, so zones nest like the
+ * toxic concentration contours.
+ */
+final class HazardRings {
+
+    private static final int VERTICES = 72;
+    private static final int MIN_VERTICES = 8;
+
+    // Unit circle, closed, counter-clockwise from east
+    private static final double[] COS = new double[VERTICES + 1];
+    private static final double[] SIN = new double[VERTICES + 1];
+
+    static {
+        for (int i = 0; i < VERTICES; i++) {
+            double angle = 2 * Math.PI * i / VERTICES;
+            COS[i] = Math.cos(angle);
+            SIN[i] = Math.sin(angle);
+        }
+        COS[VERTICES] = COS[0];
+        SIN[VERTICES] = SIN[0];
+    }
+
+    private HazardRings() {
+    }
+
+    /**
+     * Copy of a configured threshold list sorted ascending, rejecting
+     * non-positive entries.
+     */
+    static double[] thresholds(double[] configured, String property) {
+        if (configured == null || configured.length == 0) {
+            throw new IllegalArgumentException(property + " must list at least one threshold");
+        }
+        double[] sorted = configured.clone();
+        Arrays.sort(sorted);
+        if (!(sorted[0] > 0)) {
+            throw new IllegalArgumentException(property + " thresholds must be positive");
+        }
+        return sorted;
+    }
+
+    /**
+     * Builds the result for thresholds sorted ascending and their reaches
+     * (so the reaches descend). The plume outline is the largest zone.
+     */
+    static DispersionResult result(GeometryFactory geometryFactory, DispersionInput input, double[] thresholds,
+            double[] reaches, String unit, String unitKey, Map<String, Object> hazardSummary) {
+        LocalTangentProjection projection = LocalTangentProjection.eastNorth(input.getLongitude(),
+                input.getLatitude());
+        double tolerance = GeometrySimplification.tolerance(input);
+        List<Map<String, Object>> contours = new ArrayList<>(thresholds.length);
+        for (int i = 0; i < thresholds.length; i++) {
+            String label = format(thresholds[i]);
+            hazardSummary.put("distanceTo" + label + unitKey + "_m", reaches[i]);
+
+            Map<String, Object> contour = new LinkedHashMap<>();
+            contour.put("level", label + " " + unit);
+            contour.put("threshold_" + unitKey, thresholds[i]);
+            contour.put("distance_m", reaches[i]);
+            contour.put("geoJson", circle(geometryFactory, projection, reaches[i], tolerance));
+            contours.add(contour);
+        }
+
+        DispersionResult result = new DispersionResult();
+        result.setPlume(circle(geometryFactory, projection, reaches[0], tolerance));
+        result.setHazardSummary(hazardSummary);
+        result.setConcentrationContours(contours);
+        return result;
+    }
+
+    // Ring of the given radius in metres around the source, in lon/lat, with
+    // as few vertices as keep the chords within tolerance of the circle
+    static Polygon circle(GeometryFactory geometryFactory, LocalTangentProjection projection, double radius,
+            double tolerance) {
+        if (!(radius > 0)) {
+            return geometryFactory.createPolygon();
+        }
+        int vertices = GeometrySimplification.circleVertices(radius, tolerance, MIN_VERTICES, VERTICES);
+        double[] packed = new double[2 * (vertices + 1)];
+        for (int i = 0; i <= vertices; i++) {
+            if (vertices == VERTICES) {
+                packed[2 * i] = radius * COS[i];
+                packed[2 * i + 1] = radius * SIN[i];
+            } else {
+                double angle = 2 * Math.PI * (i % vertices) / vertices;
+                packed[2 * i] = radius * Math.cos(angle);
+                packed[2 * i + 1] = radius * Math.sin(angle);
+            }
+        }
+        projection.toGeographic(packed);
+        return geometryFactory.createPolygon(new PackedCoordinateSequence.Double(packed, 2, 0));
+    }
+
+    // 5.0 -> "5", 37.5 -> "37.5"
+    static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
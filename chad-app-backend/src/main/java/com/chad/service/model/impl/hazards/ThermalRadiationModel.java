@@ -1,5 +1,118 @@
 package com.chad.service.model.impl.hazards;
 
-public class ThermalRadiationModel {
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.DispersionModel;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thermal radiation from a fire burning the release, as a point source.
+ *
+ * <p>The fire burns at the source release rate (kg/s) and radiates a fraction
+ * of its combustion energy evenly in all directions. The flux received at
+ * distance x is q = tau * F * m * Hc / (4 pi x^2). The atmosphere absorbs
+ * part of it, with transmissivity tau = 2.02 (Pw x)^-0.09 from the partial
+ * pressure of water vapour Pw, capped at 1 close to the fire. Both branches
+ * invert in closed form, so the distance to each flux threshold costs a
+ * couple of {@code Math.pow} calls.
+ */
+@Component
+public class ThermalRadiationModel implements DispersionModel {
+
+    private static final double TRANSMISSIVITY_COEFFICIENT = 2.02;
+    private static final double TRANSMISSIVITY_EXPONENT = 0.09;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ChemicalService chemicalService;
+    private final double[] thresholds; // kW/m2, ascending
+    private final double waterVapourPressure; // Pa
+    private final double absorption; // 2.02 Pw^-0.09
+    private final double clearDistance; // m, below which tau is capped at 1
+
+    @Autowired
+    public ThermalRadiationModel(ChemicalService chemicalService,
+            @Value("${chad.hazards.thermal.thresholds-kw-m2:5,10,37.5}") double[] thresholds,
+            @Value("${chad.hazards.relative-humidity:0.5}") double relativeHumidity,
+            @Value("${chad.hazards.ambient-temperature-k:298.15}") double ambientTemperature) {
+        if (!(relativeHumidity > 0) || relativeHumidity > 1) {
+            throw new IllegalArgumentException("chad.hazards.relative-humidity must be in (0, 1]");
+        }
+        this.chemicalService = chemicalService;
+        this.thresholds = HazardRings.thresholds(thresholds, "chad.hazards.thermal.thresholds-kw-m2");
+        this.waterVapourPressure = relativeHumidity * saturationPressure(ambientTemperature);
+        this.absorption = TRANSMISSIVITY_COEFFICIENT * Math.pow(waterVapourPressure, -TRANSMISSIVITY_EXPONENT);
+        this.clearDistance = Math.pow(TRANSMISSIVITY_COEFFICIENT, 1 / TRANSMISSIVITY_EXPONENT) / waterVapourPressure;
+    }
+
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        return calculate(input, chemicalService.resolveProperties(input));
+    }
+
+    public DispersionResult calculate(DispersionInput input, ChemicalProperties props) {
+        double power = radiatedPower(input.getSourceReleaseRate(), props);
+
+        double[] reaches = new double[thresholds.length];
+        for (int i = 0; i < thresholds.length; i++) {
+            reaches[i] = reach(power, thresholds[i] * 1e3);
+        }
+
+        Map<String, Object> hazardSummary = new LinkedHashMap<>();
+        hazardSummary.put("burningRate_kg_per_s", input.getSourceReleaseRate());
+        hazardSummary.put("heatOfCombustion_J_per_kg", props.heatOfCombustion());
+        hazardSummary.put("radiativeFraction", props.radiativeFraction());
+        hazardSummary.put("radiatedPower_W", power);
+        hazardSummary.put("waterVapourPressure_Pa", waterVapourPressure);
+        return HazardRings.result(geometryFactory, input, thresholds, reaches, "kW/m2", "kW_per_m2",
+                hazardSummary);
+    }
+
+    /**
+     * Distance (m) to a flux of {@code threshold} kW/m2 for each radiated
+     * power in {@code radiatedPower} (W), written to {@code reaches}. For
+     * sweeping many fire scenarios at once.
+     */
+    public void reaches(double[] radiatedPower, double threshold, double[] reaches) {
+        if (reaches.length < radiatedPower.length) {
+            throw new IllegalArgumentException("Output array is shorter than the input");
+        }
+        double flux = threshold * 1e3;
+        for (int i = 0; i < radiatedPower.length; i++) {
+            reaches[i] = reach(radiatedPower[i], flux);
+        }
+    }
+
+    /**
+     * Power (W) radiated by a fire burning {@code burningRate} kg/s.
+     */
+    public static double radiatedPower(double burningRate, ChemicalProperties props) {
+        if (!(burningRate > 0)) {
+            throw new IllegalArgumentException("Thermal radiation needs a positive burning (source release) rate");
+        }
+        if (!(props.heatOfCombustion() > 0) || !(props.radiativeFraction() > 0) || props.radiativeFraction() > 1) {
+            throw new IllegalArgumentException(
+                    "Thermal radiation needs a positive heat of combustion and a radiative fraction in (0, 1]");
+        }
+        return props.radiativeFraction() * burningRate * props.heatOfCombustion();
+    }
+
+    // Distance at which the received flux (W/m2) falls to the threshold
+    private double reach(double power, double flux) {
+        // With atmospheric absorption: x^2.09 = 2.02 Pw^-0.09 P / (4 pi q)
+        double absorbed = Math.pow(absorption * power / (4 * Math.PI * flux), 1 / (2 + TRANSMISSIVITY_EXPONENT));
+        return absorbed >= clearDistance ? absorbed : Math.sqrt(power / (4 * Math.PI * flux));
+    }
+
+    // Saturation pressure of water (Pa), Antoine form used with the transmissivity correlation
+    private static double saturationPressure(double temperature) {
+        return Math.exp(23.18986 - 3816.42 / (temperature - 46.13));
+    }
 }
@@ -1,5 +1,337 @@
 package com.chad.service.model.impl.sources;
 
-public class GasPipelineSourceStrengthModel {
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionResult;
+import com.chad.model.PipelineBatchRequest;
+import com.chad.model.PipelineReleaseCurve;
+import com.chad.model.PipelineSegment;
+import com.chad.service.ChemicalService;
+import com.chad.service.model.impl.dispersion.ReleaseProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Release of gas from a failed pipeline segment as a function of time.
+ *
+ * <p>A leak (hole smaller than the pipe) is treated as isothermal blowdown
+ * of the segment volume through the hole. While the flow is choked the
+ * pressure decays exponentially, so that phase is closed form. The subsonic
+ * tail is integrated in pressure using the substitution P = Pa + s^2, which
+ * removes the square-root singularity as the pressure approaches ambient.
+ *
+ * <p>A full-bore rupture is limited by friction along the line rather than
+ * by the opening. It uses Wilson's double-exponential blowdown model, which
+ * conserves the segment's inventory.
+ *
+ * <p>Both cases produce the curve directly from closed forms or short
+ * quadratures, with no time stepping, so thousands of segments can be
+ * screened in one call.
+ */
+@Component
+public class GasPipelineSourceStrengthModel implements SourceStrengthModel {
+
+    private static final double GAS_CONSTANT = 8.314; // J/(mol K)
+    private static final double AMBIENT_PRESSURE = 101325; // Pa
+    private static final double FANNING_FRICTION = 0.0025; // typical for large steel lines
+
+    // The release is considered over at this overpressure (leak) or fraction of the initial rate (rupture)
+    private static final double END_OVERPRESSURE = 1e-3;
+    private static final double END_RATE_FRACTION = 1e-3;
+
+    private static final int SIMPSON_INTERVALS = 4; // per subsonic sample interval
+    private static final int BISECTION_STEPS = 60;
+
+    private final ChemicalService chemicalService;
+    private final int curvePoints;
+
+    @Autowired
+    public GasPipelineSourceStrengthModel(ChemicalService chemicalService,
+            @Value("${chad.sources.pipeline.curve-points:64}") int curvePoints) {
+        if (curvePoints < 4) {
+            throw new IllegalArgumentException("chad.sources.pipeline.curve-points must be at least 4");
+        }
+        this.chemicalService = chemicalService;
+        this.curvePoints = curvePoints;
+    }
+
+    @Override
+    public DispersionResult calculate(DispersionInput input) {
+        return sourceTerm(input, chemicalService.resolveProperties(input)).toResult();
+    }
+
+    /**
+     * Release from the input's {@code pipeline} segment, read as in a batch:
+     * zero fields take the chemical's pipeline properties, and a zero hole
+     * (or one at least the pipe diameter) is a full-bore rupture. Without a
+     * segment, the chemical's pipeline leaks through its {@code holeDiameter}.
+     */
+    @Override
+    public SourceTerm sourceTerm(DispersionInput input, ChemicalProperties properties) {
+        PipelineSegment segment;
+        if (input.getPipeline() != null) {
+            segment = input.getPipeline();
+        } else {
+            segment = new PipelineSegment();
+            segment.setHoleDiameter(properties.holeDiameter());
+        }
+        PipelineReleaseCurve curve = solve(segment, properties);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("massFlowRate_kg_per_s", curve.getInitialRate());
+        summary.put("releaseMode", curve.getMode());
+        summary.put("inventory_kg", curve.getInventory());
+        summary.put("chokedDuration_s", curve.getChokedDuration());
+        summary.put("releaseDuration_s", curve.getReleaseDuration());
+        summary.put("pipelineDiameter_m", orDefault(segment.getDiameter(), properties.pipelineDiameter()));
+        summary.put("pipelineLength_m", orDefault(segment.getLength(), properties.pipelineLength()));
+        summary.put("pipelinePressure_Pa", orDefault(segment.getPressure(), properties.pipelinePressure()));
+        summary.put("holeDiameter_m", segment.getHoleDiameter());
+        summary.put("releaseTimes_s", curve.getTimes());
+        summary.put("releaseRates_kg_per_s", curve.getRates());
+        return new SourceTerm(curve.getInitialRate(), ReleaseProfile.tabulated(curve.getTimes(), curve.getRates()),
+                summary);
+    }
+
+    /**
+     * Release curves for many segments of the same gas, computed in parallel.
+     * A segment with invalid parameters yields a curve carrying an error
+     * instead of failing the whole batch. Results are in input order.
+     */
+    public List<PipelineReleaseCurve> solveAll(List<PipelineSegment> segments, ChemicalProperties properties) {
+        PipelineReleaseCurve[] curves = new PipelineReleaseCurve[segments.size()];
+        IntStream.range(0, curves.length).parallel().forEach(i -> {
+            PipelineSegment segment = segments.get(i);
+            String id = segment != null ? segment.getId() : null;
+            try {
+                curves[i] = solve(segment != null ? segment : new PipelineSegment(), properties);
+            } catch (IllegalArgumentException e) {
+                curves[i] = PipelineReleaseCurve.failure(id, e.getMessage());
+            }
+        });
+        return List.of(curves);
+    }
+
+    /**
+     * {@link #solveAll(List, ChemicalProperties)} for a batch request, looking
+     * the gas up once.
+     */
+    public List<PipelineReleaseCurve> solveAll(PipelineBatchRequest request) {
+        ChemicalProperties properties = chemicalService.resolveProperties(request.getChemicalName(),
+                request.getChemicalPropertiesJson());
+        return solveAll(request.getSegments(), properties);
+    }
+
+    /**
+     * Release curve for one segment; zero segment fields take the chemical's
+     * pipeline defaults.
+     */
+    public PipelineReleaseCurve solve(PipelineSegment segment, ChemicalProperties properties) {
+        double diameter = orDefault(segment.getDiameter(), properties.pipelineDiameter());
+        double length = orDefault(segment.getLength(), properties.pipelineLength());
+        double pressure = orDefault(segment.getPressure(), properties.pipelinePressure());
+        double temperature = orDefault(segment.getTemperature(), properties.pipelineTemperature());
+        double hole = segment.getHoleDiameter();
+        double gamma = properties.heatCapacityRatio();
+        double molarMass = properties.molecularWeight() * 1e-3; // kg/mol
+
+        if (!(molarMass > 0)) {
+            throw new IllegalArgumentException("Pipeline model needs the gas's molecular weight");
+        }
+        if (!(diameter > 0) || !(length > 0) || !(temperature > 0) || !(gamma > 1) || hole < 0) {
+            throw new IllegalArgumentException("Pipeline diameter, length, temperature and heat capacity ratio "
+                    + "must be positive, with a ratio above 1");
+        }
+        if (!(pressure > AMBIENT_PRESSURE * (1 + END_OVERPRESSURE))) {
+            throw new IllegalArgumentException("Pipeline pressure must exceed atmospheric, got " + pressure + " Pa");
+        }
+
+        Gas gas = new Gas(gamma, molarMass, temperature);
+        double volume = Math.PI * diameter * diameter / 4 * length;
+        double inventory = pressure * volume * molarMass / (GAS_CONSTANT * temperature);
+
+        PipelineReleaseCurve curve = hole > 0 && hole < diameter
+                ? leak(gas, volume, pressure, hole, properties.dischargeCoefficient())
+                : rupture(gas, inventory, pressure, diameter, length);
+        curve.setSegmentId(segment.getId());
+        curve.setInventory(inventory);
+        return curve;
+    }
+
+    private PipelineReleaseCurve leak(Gas gas, double volume, double p0, double hole, double dischargeCoefficient) {
+        double area = Math.PI * hole * hole / 4;
+        double flowCoefficient = dischargeCoefficient * area; // ṁ = Cd A P * flux(P)
+        // dP/dt = -(R T / (V M)) ṁ
+        double pressureRate = GAS_CONSTANT * gas.temperature / (volume * gas.molarMass);
+
+        double chokedLimit = AMBIENT_PRESSURE / gas.criticalRatio;
+        double endPressure = AMBIENT_PRESSURE * (1 + END_OVERPRESSURE);
+        double tau = 1 / (pressureRate * flowCoefficient * gas.chokedFlux);
+        double chokedDuration = p0 > chokedLimit ? tau * Math.log(p0 / chokedLimit) : 0;
+        double subsonicStart = Math.min(p0, chokedLimit);
+
+        int chokedPoints = chokedDuration > 0 ? curvePoints / 2 : 0;
+        int subsonicPoints = curvePoints - chokedPoints;
+        double[] times = new double[curvePoints];
+        double[] rates = new double[curvePoints];
+
+        // Choked: P(t) = P0 exp(-t / tau), sampled uniformly in time (excluding the limit itself)
+        for (int i = 0; i < chokedPoints; i++) {
+            double t = chokedDuration * i / chokedPoints;
+            times[i] = t;
+            rates[i] = flowCoefficient * p0 * Math.exp(-t / tau) * gas.chokedFlux;
+        }
+
+        // Subsonic: t(P) = integral dP / (rate(P)) with P = Pa + s^2, sampled uniformly in s
+        double sStart = Math.sqrt(subsonicStart - AMBIENT_PRESSURE);
+        double sEnd = Math.sqrt(endPressure - AMBIENT_PRESSURE);
+        double t = chokedDuration;
+        for (int k = 0; k < subsonicPoints; k++) {
+            double s = sStart + (sEnd - sStart) * k / (subsonicPoints - 1);
+            if (k > 0) {
+                double sPrevious = sStart + (sEnd - sStart) * (k - 1) / (subsonicPoints - 1);
+                t += simpson(sPrevious, s, gas, pressureRate, flowCoefficient);
+            }
+            double p = AMBIENT_PRESSURE + s * s;
+            times[chokedPoints + k] = t;
+            rates[chokedPoints + k] = flowCoefficient * p * gas.subsonicFlux(AMBIENT_PRESSURE / p);
+        }
+        rates[curvePoints - 1] = 0; // the release ends here
+
+        PipelineReleaseCurve curve = new PipelineReleaseCurve();
+        curve.setMode("LEAK");
+        curve.setInitialRate(rates[0]);
+        curve.setChokedDuration(chokedDuration);
+        curve.setReleaseDuration(t);
+        curve.setTimes(times);
+        curve.setRates(rates);
+        return curve;
+    }
+
+    /**
+     * Time to fall from Pa + s0^2 to Pa + s1^2 (s1 < s0): the integral of
+     * 2 s / (k ṁ(Pa + s^2)) ds, which is smooth in s.
+     */
+    private static double simpson(double s0, double s1, Gas gas, double pressureRate, double flowCoefficient) {
+        double h = (s0 - s1) / SIMPSON_INTERVALS;
+        double sum = 0;
+        for (int j = 0; j <= SIMPSON_INTERVALS; j++) {
+            double s = s1 + j * h;
+            double weight = j == 0 || j == SIMPSON_INTERVALS ? 1 : (j % 2 == 1 ? 4 : 2);
+            sum += weight * dtds(s, gas, pressureRate, flowCoefficient);
+        }
+        return sum * h / 3;
+    }
+
+    private static double dtds(double s, Gas gas, double pressureRate, double flowCoefficient) {
+        double p = AMBIENT_PRESSURE + s * s;
+        double flux = gas.subsonicFlux(AMBIENT_PRESSURE / p);
+        if (s == 0 || flux == 0) {
+            // Limit as s -> 0: the flux vanishes like s, so 2 s / flux stays finite
+            double ds = 1e-3;
+            double pNear = AMBIENT_PRESSURE + ds * ds;
+            return 2 * ds / (pressureRate * flowCoefficient * pNear * gas.subsonicFlux(AMBIENT_PRESSURE / pNear));
+        }
+        return 2 * s / (pressureRate * flowCoefficient * p * flux);
+    }
+
+    /**
+     * Wilson's model: Q(t) = Q0 / (1 + a) [exp(-t / (a^2 b)) + a exp(-t / b)]
+     * with b = (2/3) (L / c0) sqrt(gamma f L / D) and a = M0 / (Q0 b).
+     */
+    private PipelineReleaseCurve rupture(Gas gas, double inventory, double p0, double diameter, double length) {
+        double area = Math.PI * diameter * diameter / 4;
+        double q0 = area * p0 * gas.chokedFlux;
+        double beta = 2.0 / 3.0 * length / gas.soundSpeed * Math.sqrt(gas.gamma * FANNING_FRICTION * length / diameter);
+        double alpha = inventory / (q0 * beta);
+
+        double releaseDuration = wilsonTime(q0, alpha, beta, q0 * END_RATE_FRACTION);
+        // Choked while the exit pressure, taken proportional to the rate, stays above Pa / r_c
+        double chokedRate = q0 * (AMBIENT_PRESSURE / gas.criticalRatio) / p0;
+        double chokedDuration = chokedRate < q0 ? wilsonTime(q0, alpha, beta, chokedRate) : 0;
+
+        // Quadratic spacing resolves the fast initial decay
+        double[] times = new double[curvePoints];
+        double[] rates = new double[curvePoints];
+        for (int i = 0; i < curvePoints; i++) {
+            double f = (double) i / (curvePoints - 1);
+            times[i] = releaseDuration * f * f;
+            rates[i] = wilson(times[i], q0, alpha, beta);
+        }
+
+        PipelineReleaseCurve curve = new PipelineReleaseCurve();
+        curve.setMode("RUPTURE");
+        curve.setInitialRate(q0);
+        curve.setChokedDuration(chokedDuration);
+        curve.setReleaseDuration(releaseDuration);
+        curve.setTimes(times);
+        curve.setRates(rates);
+        return curve;
+    }
+
+    private static double wilson(double t, double q0, double alpha, double beta) {
+        return q0 / (1 + alpha) * (Math.exp(-t / (alpha * alpha * beta)) + alpha * Math.exp(-t / beta));
+    }
+
+    // Time at which the (decreasing) Wilson rate falls to the target rate
+    private static double wilsonTime(double q0, double alpha, double beta, double targetRate) {
+        double lo = 0;
+        double hi = Math.max(alpha * alpha * beta, beta);
+        while (wilson(hi, q0, alpha, beta) > targetRate) {
+            hi *= 2;
+        }
+        for (int i = 0; i < BISECTION_STEPS; i++) {
+            double mid = 0.5 * (lo + hi);
+            if (wilson(mid, q0, alpha, beta) > targetRate) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    private static double orDefault(double value, double defaultValue) {
+        return value != 0 ? value : defaultValue;
+    }
+
+    /**
+     * Ideal-gas constants for one gas at one temperature. Mass fluxes are per
+     * unit area and unit upstream pressure.
+     */
+    private static final class Gas {
+        final double gamma;
+        final double molarMass;
+        final double temperature;
+        final double soundSpeed;
+        final double criticalRatio; // Pa / P below which the flow is choked
+        final double chokedFlux;
+        private final double subsonicScale;
+
+        Gas(double gamma, double molarMass, double temperature) {
+            this.gamma = gamma;
+            this.molarMass = molarMass;
+            this.temperature = temperature;
+            double rt = GAS_CONSTANT * temperature / molarMass; // R T / M
+            this.soundSpeed = Math.sqrt(gamma * rt);
+            this.criticalRatio = Math.pow(2 / (gamma + 1), gamma / (gamma - 1));
+            this.chokedFlux = Math.sqrt(gamma / rt * Math.pow(2 / (gamma + 1), (gamma + 1) / (gamma - 1)));
+            this.subsonicScale = 2 / rt * gamma / (gamma - 1);
+        }
+
+        // Mass flux per unit area and upstream pressure for outlet/upstream pressure ratio r
+        double subsonicFlux(double r) {
+            if (r <= criticalRatio) {
+                return chokedFlux;
+            }
+            double term = Math.pow(r, 2 / gamma) - Math.pow(r, (gamma + 1) / gamma);
+            return term > 0 ? Math.sqrt(subsonicScale * term) : 0;
+        }
+    }
 }
@@ -1,18 +1,18 @@
 package com.chad.service.model.impl.sources;
 
-import com.chad.model.Chemical;
+import com.chad.model.ChemicalProperties;
 import com.chad.model.DispersionInput;
 import com.chad.model.DispersionResult;
 import com.chad.service.ChemicalService;
-import com.chad.service.model.DispersionModel;
+import com.chad.service.model.impl.dispersion.ReleaseProfile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 
 @Component
-public class PuddleSourceStrengthModel implements DispersionModel {
+public class PuddleSourceStrengthModel implements SourceStrengthModel {
 
     private final ChemicalService chemicalService;
 
@@ -23,36 +23,20 @@ public class PuddleSourceStrengthModel implements DispersionModel {
 
     @Override
     public DispersionResult calculate(DispersionInput input) {
-        // Default values
-        double puddleTemp = 298.15; // K (25°C)
-        double vaporPressure = 3000; // Pa
-        double liquidDensity = 1000; // kg/m3
-        double latentHeatVaporization = 2.5e6; // J/kg
-
-        String chemicalName = input.getChemicalName();
-        if (chemicalName != null && !chemicalName.isEmpty()) {
-            Optional<Chemical> chemicalOpt = chemicalService.findByName(chemicalName);
-            if (chemicalOpt.isPresent()) {
-                Map<String, Object> properties = chemicalOpt.get().getProperties();
-                if (properties != null) {
-                    Object vp = properties.get("vaporPressure");
-                    if (vp instanceof Number)
-                        vaporPressure = ((Number) vp).doubleValue();
-
-                    Object density = properties.get("liquidDensity");
-                    if (density instanceof Number)
-                        liquidDensity = ((Number) density).doubleValue();
-
-                    Object latentHeat = properties.get("heatOfVaporization");
-                    if (latentHeat instanceof Number)
-                        latentHeatVaporization = ((Number) latentHeat).doubleValue();
+        // Defaults apply for unknown chemicals or missing properties
+        return sourceTerm(input, chemicalService.propertiesFor(input.getChemicalName())).toResult();
+    }
 
-                    Object tempVal = properties.get("defaultTemperature");
-                    if (tempVal instanceof Number)
-                        puddleTemp = ((Number) tempVal).doubleValue();
-                }
-            }
-        }
+    /**
+     * Steady evaporation from the puddle. If the input gives the spilled mass
+     * ({@code releaseMass}), evaporation stops once it is used up.
+     */
+    @Override
+    public SourceTerm sourceTerm(DispersionInput input, ChemicalProperties properties) {
+        double puddleTemp = properties.defaultTemperature(); // K
+        double vaporPressure = properties.vaporPressure(); // Pa
+        double liquidDensity = properties.liquidDensity(); // kg/m3
+        double latentHeatVaporization = properties.heatOfVaporization(); // J/kg
 
         double windSpeed = input.getWindSpeed();
         double puddleArea = input.getSourceReleaseRate(); // expecting m²; adjust if needed
@@ -66,15 +50,23 @@ public class PuddleSourceStrengthModel implements DispersionModel {
         double evaporationFlux = saturatedConcentration * frictionVelocity * massTransferCoefficient;
         double evaporationRate = evaporationFlux * puddleArea;
 
-        DispersionResult result = new DispersionResult();
-        result.setHazardSummary(Map.of(
-                "evaporationRate_kg_per_s", evaporationRate,
-                "puddleTemperature_K", puddleTemp,
-                "vaporPressure_Pa", vaporPressure,
-                "liquidDensity_kg_per_m3", liquidDensity,
-                "heatOfVaporization_J_per_kg", latentHeatVaporization));
-
-        return result;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("evaporationRate_kg_per_s", evaporationRate);
+        summary.put("puddleTemperature_K", puddleTemp);
+        summary.put("vaporPressure_Pa", vaporPressure);
+        summary.put("liquidDensity_kg_per_m3", liquidDensity);
+        summary.put("heatOfVaporization_J_per_kg", latentHeatVaporization);
+
+        double inventory = input.getReleaseMass(); // kg, 0 if not given
+        ReleaseProfile profile;
+        if (inventory > 0 && evaporationRate > 0) {
+            profile = ReleaseProfile.constant(evaporationRate, inventory);
+            summary.put("releaseMass_kg", inventory);
+            summary.put("releaseDuration_s", inventory / evaporationRate);
+        } else {
+            profile = ReleaseProfile.constant(evaporationRate);
+        }
+        return new SourceTerm(evaporationRate, profile, summary);
     }
 
     private double calculateFrictionVelocity(double windSpeed, double height) {
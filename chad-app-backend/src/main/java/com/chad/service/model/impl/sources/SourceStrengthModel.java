@@ -0,0 +1,18 @@
+package com.chad.service.model.impl.sources;
+
+import com.chad.model.ChemicalProperties;
+import com.chad.model.DispersionInput;
+import com.chad.service.model.DispersionModel;
+
+/**
+ * A model that computes how fast material enters the atmosphere, as opposed
+ * to how it disperses.
+ */
+public interface SourceStrengthModel extends DispersionModel {
+
+    /**
+     * Computes the release for a scenario from already resolved chemical
+     * properties, so a pipeline can look the chemical up once.
+     */
+    SourceTerm sourceTerm(DispersionInput input, ChemicalProperties properties);
+}
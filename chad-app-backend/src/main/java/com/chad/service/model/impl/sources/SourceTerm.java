@@ -0,0 +1,27 @@
+package com.chad.service.model.impl.sources;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.model.impl.dispersion.ReleaseProfile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Release computed by a source-strength model, in a form a dispersion model
+ * can consume directly.
+ *
+ * @param initialRate emission rate at the start of the release, kg/s
+ * @param profile     emission rate over time
+ * @param summary     the model's reported quantities, as in its hazard summary
+ */
+public record SourceTerm(double initialRate, ReleaseProfile profile, Map<String, Object> summary) {
+
+    /**
+     * The source-strength-only result: just the summary.
+     */
+    public DispersionResult toResult() {
+        DispersionResult result = new DispersionResult();
+        result.setHazardSummary(new LinkedHashMap<>(summary));
+        return result;
+    }
+}
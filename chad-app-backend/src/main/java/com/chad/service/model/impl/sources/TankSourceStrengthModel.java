@@ -1,18 +1,18 @@
 package com.chad.service.model.impl.sources;
 
-import com.chad.model.Chemical;
+import com.chad.model.ChemicalProperties;
 import com.chad.model.DispersionInput;
 import com.chad.model.DispersionResult;
 import com.chad.service.ChemicalService;
-import com.chad.service.model.DispersionModel;
+import com.chad.service.model.impl.dispersion.ReleaseProfile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 
 @Component
-public class TankSourceStrengthModel implements DispersionModel {
+public class TankSourceStrengthModel implements SourceStrengthModel {
 
     private final ChemicalService chemicalService;
 
@@ -23,50 +23,24 @@ public class TankSourceStrengthModel implements DispersionModel {
 
     @Override
     public DispersionResult calculate(DispersionInput input) {
-        // Default physical properties
-        double liquidDensity = 1000; // kg/m3
-        double vaporPressure = 3000; // Pa
-        double tankPressure = 101325; // Pa, default atmospheric
-        double tankTemp = 298.15; // K (25°C)
-        double holeDiameter = 0.05; // 5 cm hole diameter (example)
-        double dischargeCoefficient = 0.61; // typical for holes
-        double holeArea = Math.PI * Math.pow(holeDiameter / 2.0, 2);
-
-        String chemicalName = input.getChemicalName();
-        if (chemicalName != null && !chemicalName.isEmpty()) {
-            Optional<Chemical> chemicalOpt = chemicalService.findByName(chemicalName);
-            if (chemicalOpt.isPresent()) {
-                Map<String, Object> properties = chemicalOpt.get().getProperties();
-                if (properties != null) {
-                    Object density = properties.get("liquidDensity");
-                    if (density instanceof Number)
-                        liquidDensity = ((Number) density).doubleValue();
-
-                    Object vp = properties.get("vaporPressure");
-                    if (vp instanceof Number)
-                        vaporPressure = ((Number) vp).doubleValue();
-
-                    Object tPressure = properties.get("tankPressure"); // Optional
-                    if (tPressure instanceof Number)
-                        tankPressure = ((Number) tPressure).doubleValue();
-
-                    Object tTemp = properties.get("tankTemperature"); // Optional
-                    if (tTemp instanceof Number)
-                        tankTemp = ((Number) tTemp).doubleValue();
-
-                    Object holeDiaObj = properties.get("holeDiameter");
-                    if (holeDiaObj instanceof Number) {
-                        holeDiameter = ((Number) holeDiaObj).doubleValue();
-                        holeArea = Math.PI * Math.pow(holeDiameter / 2.0, 2);
-                    }
+        // Physical properties, with defaults for unknown chemicals or missing values
+        return sourceTerm(input, chemicalService.propertiesFor(input.getChemicalName())).toResult();
+    }
 
-                    Object dCoefficient = properties.get("dischargeCoefficient");
-                    if (dCoefficient instanceof Number) {
-                        dischargeCoefficient = ((Number) dCoefficient).doubleValue();
-                    }
-                }
-            }
-        }
+    /**
+     * Initial outflow through the hole. If the input gives the tank inventory
+     * ({@code releaseMass}), the rate then decays as the liquid head drops;
+     * otherwise it is held constant.
+     */
+    @Override
+    public SourceTerm sourceTerm(DispersionInput input, ChemicalProperties properties) {
+        double liquidDensity = properties.liquidDensity(); // kg/m3
+        double vaporPressure = properties.vaporPressure(); // Pa
+        double tankPressure = properties.tankPressure(); // Pa, default atmospheric
+        double tankTemp = properties.tankTemperature(); // K
+        double holeDiameter = properties.holeDiameter(); // m
+        double dischargeCoefficient = properties.dischargeCoefficient(); // typical for holes
+        double holeArea = Math.PI * (holeDiameter / 2.0) * (holeDiameter / 2.0);
 
         // Bernoulli equation for liquid mass flow rate from tank hole (simplified for
         // non-boiling liquid below BP)
@@ -86,16 +60,25 @@ public class TankSourceStrengthModel implements DispersionModel {
         double massFlowRate = dischargeCoefficient * holeArea
                 * Math.sqrt(2 * liquidDensity * (drivingPressure - ambientPressure));
 
-        DispersionResult result = new DispersionResult();
-        result.setHazardSummary(Map.of(
-                "massFlowRate_kg_per_s", massFlowRate,
-                "liquidDensity_kg_per_m3", liquidDensity,
-                "vaporPressure_Pa", vaporPressure,
-                "tankPressure_Pa", tankPressure,
-                "tankTemperature_K", tankTemp,
-                "holeDiameter_m", holeDiameter,
-                "dischargeCoefficient", dischargeCoefficient));
-
-        return result;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("massFlowRate_kg_per_s", massFlowRate);
+        summary.put("liquidDensity_kg_per_m3", liquidDensity);
+        summary.put("vaporPressure_Pa", vaporPressure);
+        summary.put("tankPressure_Pa", tankPressure);
+        summary.put("tankTemperature_K", tankTemp);
+        summary.put("holeDiameter_m", holeDiameter);
+        summary.put("dischargeCoefficient", dischargeCoefficient);
+
+        double inventory = input.getReleaseMass(); // kg, 0 if not given
+        ReleaseProfile profile;
+        // A closed or zero-coefficient hole never drains the tank; keep the constant (zero) rate
+        if (inventory > 0 && massFlowRate > 0) {
+            profile = ReleaseProfile.tankDrain(massFlowRate, inventory);
+            summary.put("releaseMass_kg", inventory);
+            summary.put("releaseDuration_s", 2 * inventory / massFlowRate);
+        } else {
+            profile = ReleaseProfile.constant(massFlowRate);
+        }
+        return new SourceTerm(massFlowRate, profile, summary);
     }
 }
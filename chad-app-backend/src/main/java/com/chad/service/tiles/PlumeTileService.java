@@ -0,0 +1,103 @@
+package com.chad.service.tiles;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.DispersionService;
+import com.chad.service.StoredScenario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Mapbox Vector Tiles of a stored scenario's plume and contours, for map
+ * clients that watch the same incident. Each tile is cut and encoded once
+ * per scenario, on first request, then served from memory; concurrent first
+ * requests for a tile share one encoding. Tiles outside the plume are
+ * answered empty without touching the cache. Scenarios are looked up like
+ * any other stored scenario, so those reloaded from the database have tiles
+ * too.
+ *
+ * <p>Layers: {@code plume} with the outline, and {@code contours} with one
+ * feature per concentration or hazard level carrying the level's name and
+ * thresholds.
+ */
+@Service
+public class PlumeTileService {
+
+    public static final String MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+
+    private static final int MAX_ZOOM = 24;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Function<String, Optional<DispersionResult>> scenarios;
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final int extent;
+    private final int buffer;
+    private final Cache<String, TileSource> sources;
+    private final Cache<TileKey, byte[]> tiles;
+
+    @Autowired
+    public PlumeTileService(DispersionService dispersionService,
+            @Value("${chad.tiles.extent:4096}") int extent,
+            @Value("${chad.tiles.buffer:64}") int buffer,
+            @Value("${chad.tiles.cache.max-weight-mb:64}") long maxWeightMb,
+            @Value("${chad.scenarios.ttl-seconds:3600}") long ttlSeconds) {
+        this(scenarioId -> dispersionService.findScenario(scenarioId).map(StoredScenario::result), extent, buffer,
+                maxWeightMb, ttlSeconds);
+    }
+
+    /**
+     * @param scenarios looks up a scenario's result by id
+     */
+    public PlumeTileService(Function<String, Optional<DispersionResult>> scenarios, int extent, int buffer,
+            long maxWeightMb, long ttlSeconds) {
+        if (extent <= 0 || buffer < 0) {
+            throw new IllegalArgumentException("Tile extent must be positive and buffer non-negative");
+        }
+        this.scenarios = scenarios;
+        this.extent = extent;
+        this.buffer = buffer;
+        this.sources = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.tiles = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((TileKey key, byte[] tile) -> 64 + tile.length)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Tile z/x/y of the scenario, or empty if the scenario is unknown or has
+     * expired. A tile with nothing in it is a zero-length array.
+     */
+    public Optional<byte[]> tile(String scenarioId, int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Tile zoom must be between 0 and " + MAX_ZOOM);
+        }
+        long tilesPerSide = 1L << z;
+        if (x < 0 || y < 0 || x >= tilesPerSide || y >= tilesPerSide) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is outside the map");
+        }
+        Optional<DispersionResult> result = scenarios.apply(scenarioId);
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        TileSource source = sources.get(scenarioId,
+                id -> TileSource.of(result.get(), geometryFactory, extent, buffer));
+        if (!source.covers(z, x, y)) {
+            return Optional.of(EMPTY);
+        }
+        return Optional.of(tiles.get(new TileKey(scenarioId, z, x, y), key -> source.cut(z, x, y)));
+    }
+
+    private record TileKey(String scenarioId, int z, int x, int y) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.chad.service.tiles;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.GeometrySimplification;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The polygons of one result in Web Mercator world coordinates (0 to 1 from
+ * the north-west corner, y down), ready to be cut into tiles. Each zoom level
+ * gets its own copy simplified to half a tile unit, made the first time a
+ * tile at that zoom is asked for.
+ */
+final class TileSource {
+
+    static final String PLUME_LAYER = "plume";
+    static final String CONTOUR_LAYER = "contours";
+
+    // Web Mercator stops short of the poles
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final GeometryFactory geometryFactory;
+    private final int extent;
+    private final double buffer; // tile units
+    private final List<Feature> features;
+    private final Envelope envelope = new Envelope();
+    private final Map<Integer, List<Feature>> byZoom = new ConcurrentHashMap<>();
+
+    private TileSource(GeometryFactory geometryFactory, int extent, int buffer, List<Feature> features) {
+        this.geometryFactory = geometryFactory;
+        this.extent = extent;
+        this.buffer = buffer;
+        this.features = features;
+        for (Feature feature : features) {
+            envelope.expandToInclude(feature.envelope());
+        }
+    }
+
+    /**
+     * The plume outline and every contour with a polygonal geometry. Contour
+     * entries other than the geometry become feature properties.
+     */
+    static TileSource of(DispersionResult result, GeometryFactory geometryFactory, int extent, int buffer) {
+        List<Feature> features = new ArrayList<>();
+        if (isPolygonal(result.getPlume())) {
+            features.add(Feature.of(PLUME_LAYER, Collections.emptyMap(), toWorld(result.getPlume())));
+        }
+        if (result.getConcentrationContours() != null) {
+            for (Map<String, Object> contour : result.getConcentrationContours()) {
+                Object geometry = contour.get("geoJson");
+                if (!(geometry instanceof Geometry) || !isPolygonal((Geometry) geometry)) {
+                    continue;
+                }
+                Map<String, Object> properties = new LinkedHashMap<>(contour);
+                properties.remove("geoJson");
+                features.add(Feature.of(CONTOUR_LAYER, properties, toWorld((Geometry) geometry)));
+            }
+        }
+        return new TileSource(geometryFactory, extent, buffer, features);
+    }
+
+    /**
+     * Whether tile z/x/y, with its buffer, touches any feature.
+     */
+    boolean covers(int z, int x, int y) {
+        return !features.isEmpty() && tileBounds(z, x, y).intersects(envelope);
+    }
+
+    /**
+     * Encodes tile z/x/y; an empty array if nothing falls inside it.
+     */
+    byte[] cut(int z, int x, int y) {
+        Envelope bounds = tileBounds(z, x, y);
+        Geometry clip = null;
+        double tiles = Math.scalb(1.0, z);
+        double offsetX = x / tiles;
+        double offsetY = y / tiles;
+        double scale = tiles * extent;
+
+        VectorTileEncoder encoder = new VectorTileEncoder(extent);
+        for (Feature feature : featuresAt(z)) {
+            if (!bounds.intersects(feature.envelope())) {
+                continue;
+            }
+            Geometry geometry = feature.geometry();
+            // Only features that cross the tile edge need clipping
+            if (!bounds.contains(feature.envelope())) {
+                if (clip == null) {
+                    clip = geometryFactory.toGeometry(bounds);
+                }
+                geometry = OverlayNGRobust.overlay(geometry, clip, OverlayNG.INTERSECTION);
+                if (geometry.isEmpty()) {
+                    continue;
+                }
+            }
+            encoder.addFeature(feature.layer(), feature.properties(), geometry, offsetX, offsetY, scale);
+        }
+        return encoder.isEmpty() ? new byte[0] : encoder.encode();
+    }
+
+    private List<Feature> featuresAt(int z) {
+        return byZoom.computeIfAbsent(z, zoom -> {
+            double tolerance = 0.5 / (Math.scalb(1.0, zoom) * extent);
+            List<Feature> simplified = new ArrayList<>(features.size());
+            for (Feature feature : features) {
+                simplified.add(Feature.of(feature.layer(), feature.properties(),
+                        GeometrySimplification.simplify(feature.geometry(), tolerance)));
+            }
+            return simplified;
+        });
+    }
+
+    private Envelope tileBounds(int z, int x, int y) {
+        double tiles = Math.scalb(1.0, z);
+        double pad = buffer / extent;
+        return new Envelope((x - pad) / tiles, (x + 1 + pad) / tiles, (y - pad) / tiles, (y + 1 + pad) / tiles);
+    }
+
+    private static boolean isPolygonal(Geometry geometry) {
+        return geometry != null && !geometry.isEmpty()
+                && (geometry instanceof Polygon || geometry instanceof MultiPolygon);
+    }
+
+    // A copy of a lon/lat geometry in Web Mercator world coordinates
+    private static Geometry toWorld(Geometry geometry) {
+        Geometry world = geometry.copy();
+        world.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence seq, int i) {
+                double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, seq.getY(i))));
+                seq.setOrdinate(i, CoordinateSequence.X, (seq.getX(i) + 180.0) / 360.0);
+                seq.setOrdinate(i, CoordinateSequence.Y,
+                        0.5 - Math.log(Math.tan(Math.PI / 4 + lat / 2)) / (2 * Math.PI));
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return true;
+            }
+        });
+        return world;
+    }
+
+    private record Feature(String layer, Map<String, Object> properties, Geometry geometry, Envelope envelope) {
+        static Feature of(String layer, Map<String, Object> properties, Geometry geometry) {
+            return new Feature(layer, properties, geometry, geometry.getEnvelopeInternal());
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.chad.service.tiles;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds one Mapbox Vector Tile (specification 2.1) of polygon features. The
+ * protobuf wire format is written by hand; the tile schema needs only
+ * varints, lengths and doubles.
+ *
+ * <p>Geometries are given in any planar frame together with the offset and
+ * scale that take them to tile coordinates (0 to extent, y down). Vertices
+ * are rounded to whole tile units, repeated points dropped and rings that
+ * collapse skipped. Exterior rings are written clockwise on screen and holes
+ * anticlockwise, as the specification requires. Only polygons and
+ * multi-polygons are written.
+ */
+final class VectorTileEncoder {
+
+    // Tile fields
+    private static final int TILE_LAYERS = 3;
+    // Layer fields
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    // Feature fields
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+    // Value fields
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_BOOL = 7;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH = 2;
+
+    private static final int GEOM_POLYGON = 3;
+    private static final int CMD_MOVE_TO = 1;
+    private static final int CMD_LINE_TO = 2;
+    private static final int CMD_CLOSE_PATH = 7;
+
+    private final int extent;
+    private final Map<String, Layer> layers = new LinkedHashMap<>();
+
+    // Scratch reused across rings and features
+    private int[] ringX = new int[64];
+    private int[] ringY = new int[64];
+    private final Ints commands = new Ints();
+
+    VectorTileEncoder(int extent) {
+        this.extent = extent;
+    }
+
+    boolean isEmpty() {
+        return layers.isEmpty();
+    }
+
+    /**
+     * Adds a polygonal feature to the named layer. A vertex (x, y) lands at
+     * ((x - offsetX) * scale, (y - offsetY) * scale) in the tile. Returns
+     * false, adding nothing, if every ring collapses at tile resolution.
+     */
+    boolean addFeature(String layerName, Map<String, Object> properties, Geometry geometry,
+            double offsetX, double offsetY, double scale) {
+        commands.clear();
+        int[] cursor = new int[2];
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            Geometry part = geometry.getGeometryN(i);
+            if (part instanceof Polygon && !part.isEmpty()) {
+                polygon((Polygon) part, offsetX, offsetY, scale, cursor);
+            }
+        }
+        if (commands.size == 0) {
+            return false;
+        }
+        Layer layer = layers.computeIfAbsent(layerName, Layer::new);
+        layer.addFeature(properties, commands);
+        return true;
+    }
+
+    byte[] encode() {
+        ProtoWriter tile = new ProtoWriter();
+        for (Layer layer : layers.values()) {
+            tile.message(TILE_LAYERS, layer.encode(extent));
+        }
+        return tile.toByteArray();
+    }
+
+    private void polygon(Polygon polygon, double offsetX, double offsetY, double scale, int[] cursor) {
+        // Holes are meaningless without their shell
+        if (!ring(polygon.getExteriorRing().getCoordinateSequence(), true, offsetX, offsetY, scale, cursor)) {
+            return;
+        }
+        for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+            ring(polygon.getInteriorRingN(h).getCoordinateSequence(), false, offsetX, offsetY, scale, cursor);
+        }
+    }
+
+    private boolean ring(CoordinateSequence sequence, boolean exterior, double offsetX, double offsetY,
+            double scale, int[] cursor) {
+        int n = sequence.size();
+        if (ringX.length < n) {
+            ringX = new int[n];
+            ringY = new int[n];
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int x = (int) Math.round((sequence.getX(i) - offsetX) * scale);
+            int y = (int) Math.round((sequence.getY(i) - offsetY) * scale);
+            if (count > 0 && x == ringX[count - 1] && y == ringY[count - 1]) {
+                continue;
+            }
+            ringX[count] = x;
+            ringY[count] = y;
+            count++;
+        }
+        // The closing point is implied by ClosePath
+        while (count > 1 && ringX[count - 1] == ringX[0] && ringY[count - 1] == ringY[0]) {
+            count--;
+        }
+        if (count < 3) {
+            return false;
+        }
+
+        // Twice the signed area; positive is clockwise with y pointing down
+        long area = 0;
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+            area += (long) ringX[j] * ringY[i] - (long) ringX[i] * ringY[j];
+        }
+        if (area == 0) {
+            return false;
+        }
+        boolean reverse = exterior ? area < 0 : area > 0;
+
+        commands.add(command(CMD_MOVE_TO, 1));
+        for (int k = 0; k < count; k++) {
+            if (k == 1) {
+                commands.add(command(CMD_LINE_TO, count - 1));
+            }
+            // Keep the first vertex first so MoveTo stays where it was
+            int i = reverse && k > 0 ? count - k : k;
+            commands.add(zigzag(ringX[i] - cursor[0]));
+            commands.add(zigzag(ringY[i] - cursor[1]));
+            cursor[0] = ringX[i];
+            cursor[1] = ringY[i];
+        }
+        commands.add(command(CMD_CLOSE_PATH, 1));
+        return true;
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Features of one layer with their shared key and value tables.
+     */
+    private static final class Layer {
+        private final String name;
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Integer> keyIndex = new HashMap<>();
+        private final List<Object> values = new ArrayList<>();
+        private final Map<Object, Integer> valueIndex = new HashMap<>();
+        private final ProtoWriter features = new ProtoWriter();
+        private int featureCount;
+
+        Layer(String name) {
+            this.name = name;
+        }
+
+        void addFeature(Map<String, Object> properties, Ints geometry) {
+            Ints tags = new Ints();
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                Object value = property.getValue();
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof Number) {
+                    value = ((Number) value).doubleValue();
+                } else if (!(value instanceof Boolean)) {
+                    value = value.toString();
+                }
+                tags.add(keyIndex.computeIfAbsent(property.getKey(), key -> {
+                    keys.add(key);
+                    return keys.size() - 1;
+                }));
+                tags.add(valueIndex.computeIfAbsent(value, v -> {
+                    values.add(v);
+                    return values.size() - 1;
+                }));
+            }
+
+            ProtoWriter feature = new ProtoWriter();
+            feature.varintField(FEATURE_ID, ++featureCount);
+            if (tags.size > 0) {
+                feature.packed(FEATURE_TAGS, tags);
+            }
+            feature.varintField(FEATURE_TYPE, GEOM_POLYGON);
+            feature.packed(FEATURE_GEOMETRY, geometry);
+            features.message(LAYER_FEATURES, feature);
+        }
+
+        ProtoWriter encode(int extent) {
+            ProtoWriter layer = new ProtoWriter();
+            layer.varintField(LAYER_VERSION, 2);
+            layer.string(LAYER_NAME, name);
+            layer.append(features);
+            for (String key : keys) {
+                layer.string(LAYER_KEYS, key);
+            }
+            for (Object value : values) {
+                ProtoWriter encoded = new ProtoWriter();
+                if (value instanceof Double) {
+                    encoded.tag(VALUE_DOUBLE, WIRE_FIXED64);
+                    encoded.fixed64(Double.doubleToRawLongBits((Double) value));
+                } else if (value instanceof Boolean) {
+                    encoded.varintField(VALUE_BOOL, (Boolean) value ? 1 : 0);
+                } else {
+                    encoded.string(VALUE_STRING, (String) value);
+                }
+                layer.message(LAYER_VALUES, encoded);
+            }
+            layer.varintField(LAYER_EXTENT, extent);
+            return layer;
+        }
+    }
+
+    /**
+     * Growable int list for commands and tags.
+     */
+    private static final class Ints {
+        private int[] values = new int[256];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Protobuf wire-format writer over a growable byte array.
+     */
+    private static final class ProtoWriter {
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void tag(int field, int wireType) {
+            varint((field << 3) | wireType);
+        }
+
+        void varintField(int field, long value) {
+            tag(field, WIRE_VARINT);
+            varint(value);
+        }
+
+        void fixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void bytes(int field, byte[] bytes, int length) {
+            tag(field, WIRE_LENGTH);
+            varint(length);
+            ensure(length);
+            System.arraycopy(bytes, 0, buffer, position, length);
+            position += length;
+        }
+
+        void string(int field, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            bytes(field, utf8, utf8.length);
+        }
+
+        void message(int field, ProtoWriter message) {
+            bytes(field, message.buffer, message.position);
+        }
+
+        void append(ProtoWriter other) {
+            ensure(other.position);
+            System.arraycopy(other.buffer, 0, buffer, position, other.position);
+            position += other.position;
+        }
+
+        // Packed repeated uint32; values are written as unsigned 32-bit
+        void packed(int field, Ints values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (int i = 0; i < values.size; i++) {
+                packed.varint(values.values[i] & 0xFFFFFFFFL);
+            }
+            message(field, packed);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+}
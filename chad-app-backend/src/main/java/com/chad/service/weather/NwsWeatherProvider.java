@@ -0,0 +1,127 @@
+package com.chad.service.weather;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.DispersionInput.StabilityClass;
+import com.chad.model.WeatherObservation;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * Latest station observation from the US National Weather Service API:
+ * point metadata, then the nearest observation station, then that station's
+ * latest observation. Stability is estimated from wind speed, time of day
+ * and cloud cover (Turner's scheme).
+ */
+@Component
+@ConditionalOnProperty(name = "chad.weather.provider", havingValue = "nws", matchIfMissing = true)
+public class NwsWeatherProvider implements WeatherProvider {
+
+    private final WebClient client;
+    private final Duration timeout;
+
+    public NwsWeatherProvider(
+            @Value("${chad.weather.nws.base-url:https://api.weather.gov}") String baseUrl,
+            @Value("${chad.weather.nws.user-agent:chad-app-backend}") String userAgent,
+            @Value("${chad.weather.nws.timeout-ms:5000}") long timeoutMillis) {
+        // api.weather.gov rejects requests without a User-Agent
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.USER_AGENT, userAgent)
+                .defaultHeader(HttpHeaders.ACCEPT, "application/geo+json")
+                .build();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    @Override
+    public Mono<WeatherObservation> currentObservation(double latitude, double longitude) {
+        String pointPath = String.format(Locale.ROOT, "/points/%.4f,%.4f", latitude, longitude);
+        return getJson(pointPath)
+                .map(point -> point.path("properties").path("observationStations").asText(""))
+                .filter(url -> !url.isEmpty())
+                .flatMap(this::getJson)
+                .map(stations -> stations.path("features").path(0).path("properties")
+                        .path("stationIdentifier").asText(""))
+                .filter(id -> !id.isEmpty())
+                .flatMap(stationId -> getJson("/stations/" + stationId + "/observations/latest")
+                        .flatMap(observation -> Mono.justOrEmpty(
+                                toObservation(observation.path("properties"), stationId, longitude))))
+                .timeout(timeout);
+    }
+
+    @Override
+    public DispersionInput.WeatherSource source() {
+        return DispersionInput.WeatherSource.NWS;
+    }
+
+    private Mono<JsonNode> getJson(String uri) {
+        return client.get().uri(uri).retrieve().bodyToMono(JsonNode.class);
+    }
+
+    private static WeatherObservation toObservation(JsonNode properties, String stationId, double longitude) {
+        JsonNode speed = properties.path("windSpeed").path("value");
+        if (!speed.isNumber()) {
+            return null; // station is not reporting wind
+        }
+        // NWS reports wind speed in km/h
+        double windSpeed = speed.asDouble() / 3.6;
+        double windDirection = properties.path("windDirection").path("value").asDouble(0.0);
+
+        Instant observedAt;
+        try {
+            observedAt = Instant.parse(properties.path("timestamp").asText());
+        } catch (Exception e) {
+            observedAt = Instant.now();
+        }
+
+        boolean overcast = false;
+        for (JsonNode layer : properties.path("cloudLayers")) {
+            String amount = layer.path("amount").asText("");
+            if (amount.equals("BKN") || amount.equals("OVC")) {
+                overcast = true;
+                break;
+            }
+        }
+
+        StabilityClass stability = estimateStability(windSpeed, isDaytime(observedAt, longitude), overcast);
+        return new WeatherObservation(windSpeed, windDirection, stability, observedAt, stationId);
+    }
+
+    // Local solar time from longitude is close enough to split day from night
+    private static boolean isDaytime(Instant time, double longitude) {
+        double utcHours = time.atOffset(ZoneOffset.UTC).getHour() + time.atOffset(ZoneOffset.UTC).getMinute() / 60.0;
+        double solarHours = ((utcHours + longitude / 15.0) % 24 + 24) % 24;
+        return solarHours >= 7 && solarHours < 19;
+    }
+
+    /**
+     * Pasquill class from surface wind speed (m/s), assuming moderate insolation
+     * by day; heavy cloud pushes both day and night towards neutral.
+     */
+    static StabilityClass estimateStability(double windSpeed, boolean daytime, boolean overcast) {
+        if (overcast) {
+            return StabilityClass.D;
+        }
+        if (daytime) {
+            if (windSpeed < 2)
+                return StabilityClass.B;
+            if (windSpeed < 5)
+                return StabilityClass.C;
+            return StabilityClass.D;
+        }
+        if (windSpeed < 3)
+            return StabilityClass.F;
+        if (windSpeed < 5)
+            return StabilityClass.E;
+        return StabilityClass.D;
+    }
+}
@@ -0,0 +1,42 @@
+package com.chad.service.weather;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.WeatherObservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Fixed local weather for tests and offline use
+ * ({@code chad.weather.provider=stub}); never calls out.
+ */
+@Component
+@ConditionalOnProperty(name = "chad.weather.provider", havingValue = "stub")
+public class StubWeatherProvider implements WeatherProvider {
+
+    private final double windSpeed;
+    private final double windDirection;
+    private final DispersionInput.StabilityClass stabilityClass;
+
+    public StubWeatherProvider(
+            @Value("${chad.weather.stub.wind-speed:3.0}") double windSpeed,
+            @Value("${chad.weather.stub.wind-direction:270.0}") double windDirection,
+            @Value("${chad.weather.stub.stability-class:D}") DispersionInput.StabilityClass stabilityClass) {
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.stabilityClass = stabilityClass;
+    }
+
+    @Override
+    public Mono<WeatherObservation> currentObservation(double latitude, double longitude) {
+        return Mono.just(new WeatherObservation(windSpeed, windDirection, stabilityClass, Instant.now(), "stub"));
+    }
+
+    @Override
+    public DispersionInput.WeatherSource source() {
+        return DispersionInput.WeatherSource.STUB;
+    }
+}
@@ -0,0 +1,22 @@
+package com.chad.service.weather;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.WeatherObservation;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking source of current surface weather at a point.
+ */
+public interface WeatherProvider {
+
+    /**
+     * Latest observation near the given point. Completes empty if no usable
+     * observation is available and with an error if the upstream call fails.
+     */
+    Mono<WeatherObservation> currentObservation(double latitude, double longitude);
+
+    /**
+     * Source recorded on runs that use this provider's observations.
+     */
+    DispersionInput.WeatherSource source();
+}
@@ -0,0 +1,160 @@
+package com.chad.service.weather;
+
+import com.chad.model.DispersionInput;
+import com.chad.model.Location;
+import com.chad.model.WeatherObservation;
+import com.chad.repository.LocationRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Current weather for dispersion runs, cached per spatial bucket.
+ *
+ * <p>Points are snapped to a lat/lon bucket and the provider is asked for the
+ * bucket centre, so nearby requests share one observation and concurrent
+ * misses for the same bucket share one upstream call. Entries are refreshed in
+ * the background after {@code refresh-after-seconds} (callers keep getting the
+ * previous observation meanwhile), and the buckets of all registered
+ * {@link Location}s are prefetched on a schedule.
+ */
+@Service
+public class WeatherService {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
+
+    // Used when no observation is available in time
+    static final double FALLBACK_WIND_SPEED = 1.5;
+    static final double FALLBACK_WIND_DIRECTION = 180.0;
+    static final DispersionInput.StabilityClass FALLBACK_STABILITY = DispersionInput.StabilityClass.D;
+
+    private static final int LOCATION_PAGE_SIZE = 1000;
+
+    private final WeatherProvider provider;
+    private final LocationRepository locationRepository;
+    private final double bucketDegrees;
+    private final long coldWaitMillis;
+    private final AsyncLoadingCache<Bucket, WeatherObservation> cache;
+
+    public WeatherService(
+            WeatherProvider provider,
+            LocationRepository locationRepository,
+            @Value("${chad.weather.bucket-degrees:0.1}") double bucketDegrees,
+            @Value("${chad.weather.ttl-seconds:1800}") long ttlSeconds,
+            @Value("${chad.weather.refresh-after-seconds:600}") long refreshAfterSeconds,
+            @Value("${chad.weather.cold-wait-ms:0}") long coldWaitMillis) {
+        if (!(bucketDegrees > 0)) {
+            throw new IllegalArgumentException("chad.weather.bucket-degrees must be positive, got " + bucketDegrees);
+        }
+        this.provider = provider;
+        this.locationRepository = locationRepository;
+        this.bucketDegrees = bucketDegrees;
+        this.coldWaitMillis = coldWaitMillis;
+        // A provider that completes empty yields null, which Caffeine does not cache
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .buildAsync((bucket, executor) -> provider
+                        .currentObservation(bucket.latitude(bucketDegrees), bucket.longitude(bucketDegrees))
+                        .toFuture());
+    }
+
+    /**
+     * Current observation for the bucket containing the point, loading it if
+     * necessary. Completes empty if the provider has nothing for the area.
+     */
+    public Mono<WeatherObservation> currentObservation(double latitude, double longitude) {
+        return Mono.fromFuture(cache.get(Bucket.of(latitude, longitude, bucketDegrees)));
+    }
+
+    /**
+     * Fills wind speed, direction and stability class on {@code input} without
+     * waiting on the network: a cached observation is used if present;
+     * otherwise the load is started, awaited for at most
+     * {@code chad.weather.cold-wait-ms}, and fallback values are used if it has
+     * not finished. The input's weather source records which of the two it got.
+     */
+    public void applyCurrentWeather(DispersionInput input) {
+        WeatherObservation observation = null;
+        CompletableFuture<WeatherObservation> future = cache.get(
+                Bucket.of(input.getLatitude(), input.getLongitude(), bucketDegrees));
+        try {
+            if (future.isDone()) {
+                observation = future.getNow(null);
+            } else if (coldWaitMillis > 0) {
+                observation = future.get(coldWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            // still loading; the next request for this bucket will get it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Weather lookup failed for ({}, {}): {}", input.getLatitude(), input.getLongitude(),
+                    e.toString());
+        }
+
+        if (observation != null) {
+            input.setWindSpeed(observation.getWindSpeed());
+            input.setWindDirection(observation.getWindDirection());
+            input.setStabilityClass(observation.getStabilityClass());
+            input.setWeatherSource(provider.source());
+        } else {
+            input.setWindSpeed(FALLBACK_WIND_SPEED);
+            input.setWindDirection(FALLBACK_WIND_DIRECTION);
+            input.setStabilityClass(FALLBACK_STABILITY);
+            input.setWeatherSource(DispersionInput.WeatherSource.FALLBACK);
+        }
+    }
+
+    /**
+     * Refreshes the buckets of all registered locations so requests for them
+     * are served from the cache.
+     */
+    @Scheduled(initialDelayString = "${chad.weather.prefetch-initial-delay-ms:10000}",
+            fixedDelayString = "${chad.weather.prefetch-interval-ms:600000}")
+    public void prefetchLocations() {
+        Set<Bucket> buckets = new LinkedHashSet<>();
+        try {
+            locationRepository.forEachView(LOCATION_PAGE_SIZE, location ->
+                    buckets.add(Bucket.of(location.getLatitude(), location.getLongitude(), bucketDegrees)));
+        } catch (RuntimeException e) {
+            log.warn("Weather prefetch skipped: could not list locations: {}", e.toString());
+            return;
+        }
+        for (Bucket bucket : buckets) {
+            // Loads absent buckets and reloads present ones; both run asynchronously
+            cache.synchronous().refresh(bucket);
+        }
+        log.debug("Weather prefetch requested for {} buckets at {}", buckets.size(), Instant.now());
+    }
+
+    /** Lat/lon cell index at {@code bucketDegrees} resolution. */
+    record Bucket(long latIndex, long lonIndex) {
+
+        static Bucket of(double latitude, double longitude, double bucketDegrees) {
+            return new Bucket(Math.round(latitude / bucketDegrees), Math.round(longitude / bucketDegrees));
+        }
+
+        double latitude(double bucketDegrees) {
+            return latIndex * bucketDegrees;
+        }
+
+        double longitude(double bucketDegrees) {
+            return lonIndex * bucketDegrees;
+        }
+    }
+}
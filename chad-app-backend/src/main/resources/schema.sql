@@ -0,0 +1,46 @@
+-- Spatial schema, applied on every start before Hibernate's ddl-auto=update.
+-- Every statement must be idempotent. Requires PostGIS 3 on PostgreSQL 12+.
+
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+CREATE TABLE IF NOT EXISTS public.location (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255),
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL
+);
+
+-- Kept in step with latitude/longitude by the database, so rows written by
+-- other tools are indexed too
+ALTER TABLE public.location ADD COLUMN IF NOT EXISTS geom geometry(Point, 4326)
+    GENERATED ALWAYS AS (ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)) STORED;
+CREATE INDEX IF NOT EXISTS location_geom_gist ON public.location USING GIST (geom);
+
+CREATE TABLE IF NOT EXISTS public.scenario_result (
+    scenario_id VARCHAR(36) PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    model VARCHAR(64),
+    chemical_name VARCHAR(255),
+    hazard_summary JSONB,
+    plume geometry(Geometry, 4326)
+);
+-- Added for reloading and editing stored scenarios: the input that was run,
+-- the compact concentration grid and the scenario an edit started from
+ALTER TABLE public.scenario_result ADD COLUMN IF NOT EXISTS parent_scenario_id VARCHAR(36);
+ALTER TABLE public.scenario_result ADD COLUMN IF NOT EXISTS input JSONB;
+ALTER TABLE public.scenario_result ADD COLUMN IF NOT EXISTS grid BYTEA;
+CREATE INDEX IF NOT EXISTS scenario_result_plume_gist ON public.scenario_result USING GIST (plume);
+CREATE INDEX IF NOT EXISTS scenario_result_created_at ON public.scenario_result (created_at);
+
+CREATE TABLE IF NOT EXISTS public.scenario_contour (
+    id BIGSERIAL PRIMARY KEY,
+    scenario_id VARCHAR(36) NOT NULL REFERENCES public.scenario_result (scenario_id) ON DELETE CASCADE,
+    level VARCHAR(64) NOT NULL,
+    threshold_ppm DOUBLE PRECISION,
+    probability DOUBLE PRECISION,
+    geom geometry(Geometry, 4326) NOT NULL
+);
+ALTER TABLE public.scenario_contour ADD COLUMN IF NOT EXISTS threshold_kg_per_m3 DOUBLE PRECISION;
+ALTER TABLE public.scenario_contour ADD COLUMN IF NOT EXISTS properties JSONB;
+CREATE INDEX IF NOT EXISTS scenario_contour_scenario ON public.scenario_contour (scenario_id, level);
+CREATE INDEX IF NOT EXISTS scenario_contour_geom_gist ON public.scenario_contour USING GIST (geom);
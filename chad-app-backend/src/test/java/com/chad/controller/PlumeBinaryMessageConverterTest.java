@@ -0,0 +1,233 @@
+package com.chad.controller;
+
+import com.chad.model.DispersionResult;
+import com.chad.service.model.grid.ConcentrationGrid;
+import com.chad.service.model.grid.GridSpec;
+import com.chad.service.model.grid.LocalTangentProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PlumeBinaryMessageConverterTest {
+
+    private static final int DECIMALS = 6;
+
+    private final GeometryFactory factory = new GeometryFactory();
+    private final PlumeBinaryMessageConverter converter =
+            new PlumeBinaryMessageConverter(new ObjectMapper(), DECIMALS);
+
+    @Test
+    void writesGridAndContoursWithHoles() throws IOException {
+        Polygon plume = polygon(
+                ring(-95.370000, 29.760000, -95.360000, 29.760000, -95.360000, 29.770000, -95.370000, 29.760000));
+        Polygon zone = polygon(
+                ring(-95.380000, 29.750000, -95.350000, 29.750000, -95.350000, 29.780000, -95.380000, 29.780000,
+                        -95.380000, 29.750000),
+                ring(-95.370000, 29.760000, -95.360000, 29.760000, -95.365000, 29.770000, -95.370000, 29.760000));
+        Geometry twoZones = factory.createMultiPolygon(new Polygon[] { plume, zone });
+
+        GridSpec spec = new GridSpec(3, 2, -100, 500, -200, 200);
+        double[] values = { 0.0, 1.5e-3, 2.0e-4, 0.0, 7.25e-6, 1.0e-9 };
+        DispersionResult result = new DispersionResult();
+        result.setHazardSummary(new LinkedHashMap<>(Map.of("weatherSource", "NWS")));
+        result.setPlume(plume);
+        result.setConcentrationGrid(new ConcentrationGrid(spec, values, 1.5e-3));
+        result.setGridProjection(LocalTangentProjection.alongWind(-95.37, 29.76, 225.0));
+        List<Map<String, Object>> contours = new ArrayList<>();
+        contours.add(contour("AEGL-1", "threshold_kg_per_m3", 2.0e-5, zone));
+        contours.add(contour("AEGL-2", "threshold_ppm", 12.0, twoZones));
+        result.setConcentrationContours(contours);
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(result, PlumeBinaryMessageConverter.MEDIA_TYPE, message);
+
+        assertEquals(PlumeBinaryMessageConverter.MEDIA_TYPE, message.getHeaders().getContentType());
+        Reader in = new Reader(message.getBodyAsBytes());
+        in.header(true);
+        assertEquals("{\"weatherSource\":\"NWS\"}", in.summary());
+        assertEquals(scaled(plume), in.geometry());
+
+        assertEquals(-95.37, in.f64());
+        assertEquals(29.76, in.f64());
+        assertEquals(result.getGridProjection().getBearing(), in.f64());
+        assertEquals(3, in.u32());
+        assertEquals(2, in.u32());
+        assertEquals(-100.0, in.f64());
+        assertEquals(500.0, in.f64());
+        assertEquals(-200.0, in.f64());
+        assertEquals(200.0, in.f64());
+        for (double value : values) {
+            assertEquals((float) value, in.f32());
+        }
+
+        assertEquals(2, in.u32());
+        assertEquals("AEGL-1", in.string());
+        assertEquals("threshold_kg_per_m3", in.string());
+        assertEquals(2.0e-5, in.f64());
+        assertEquals(scaled(zone), in.geometry());
+        assertEquals("AEGL-2", in.string());
+        assertEquals("threshold_ppm", in.string());
+        assertEquals(12.0, in.f64());
+        assertEquals(scaled(twoZones), in.geometry());
+        assertFalse(in.buffer.hasRemaining());
+    }
+
+    @Test
+    void writesResultWithoutGridOrContours() throws IOException {
+        DispersionResult result = new DispersionResult();
+        result.setConcentrationContours(Collections.emptyList());
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(result, PlumeBinaryMessageConverter.MEDIA_TYPE, message);
+
+        Reader in = new Reader(message.getBodyAsBytes());
+        in.header(false);
+        assertEquals("{}", in.summary());
+        assertEquals(List.of(0L), in.geometry());
+        assertEquals(0, in.u32());
+        assertFalse(in.buffer.hasRemaining());
+    }
+
+    private Map<String, Object> contour(String level, String thresholdKey, double threshold, Geometry zone) {
+        Map<String, Object> contour = new LinkedHashMap<>();
+        contour.put("level", level);
+        contour.put(thresholdKey, threshold);
+        contour.put("geoJson", zone);
+        return contour;
+    }
+
+    private LinearRing ring(double... lonLat) {
+        Coordinate[] coordinates = new Coordinate[lonLat.length / 2];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new Coordinate(lonLat[2 * i], lonLat[2 * i + 1]);
+        }
+        return factory.createLinearRing(coordinates);
+    }
+
+    private Polygon polygon(LinearRing shell, LinearRing... holes) {
+        return factory.createPolygon(shell, holes);
+    }
+
+    // Counts and absolute coordinates in scaled units, in the order the format writes them
+    private static List<Long> scaled(Geometry geometry) {
+        double scale = Math.pow(10, DECIMALS);
+        List<Long> flat = new ArrayList<>();
+        flat.add((long) geometry.getNumGeometries());
+        for (int p = 0; p < geometry.getNumGeometries(); p++) {
+            Polygon polygon = (Polygon) geometry.getGeometryN(p);
+            flat.add(1L + polygon.getNumInteriorRing());
+            for (int r = 0; r <= polygon.getNumInteriorRing(); r++) {
+                Coordinate[] coordinates = (r == 0 ? polygon.getExteriorRing() : polygon.getInteriorRingN(r - 1))
+                        .getCoordinates();
+                flat.add((long) coordinates.length);
+                for (Coordinate coordinate : coordinates) {
+                    flat.add(Math.round(coordinate.x * scale));
+                    flat.add(Math.round(coordinate.y * scale));
+                }
+            }
+        }
+        return flat;
+    }
+
+    /** Decoder for the layout documented on the converter. */
+    private static final class Reader {
+        final ByteBuffer buffer;
+
+        Reader(byte[] bytes) {
+            buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void header(boolean grid) {
+            byte[] magic = new byte[4];
+            buffer.get(magic);
+            assertArrayEquals(new byte[] { 'C', 'H', 'P', 'L' }, magic);
+            assertEquals(1, buffer.get());
+            assertEquals(grid ? 1 : 0, buffer.get());
+            assertEquals(DECIMALS, buffer.get());
+            assertEquals(0, buffer.get());
+        }
+
+        String summary() {
+            byte[] json = new byte[u32()];
+            buffer.get(json);
+            return new String(json, StandardCharsets.UTF_8);
+        }
+
+        int u32() {
+            return buffer.getInt();
+        }
+
+        float f32() {
+            return buffer.getFloat();
+        }
+
+        double f64() {
+            return buffer.getDouble();
+        }
+
+        String string() {
+            byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long zigzag() {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        // Same flattening as scaled(); deltas run on from polygon to polygon and ring to ring
+        List<Long> geometry() {
+            long x = 0;
+            long y = 0;
+            List<Long> flat = new ArrayList<>();
+            long polygons = varint();
+            flat.add(polygons);
+            for (long p = 0; p < polygons; p++) {
+                long rings = varint();
+                flat.add(rings);
+                for (long r = 0; r < rings; r++) {
+                    long points = varint();
+                    flat.add(points);
+                    for (long i = 0; i < points; i++) {
+                        x += zigzag();
+                        y += zigzag();
+                        flat.add(x);
+                        flat.add(y);
+                    }
+                }
+            }
+            return flat;
+        }
+    }
+}
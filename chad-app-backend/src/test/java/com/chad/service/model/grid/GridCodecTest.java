@@ -0,0 +1,81 @@
+package com.chad.service.model.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridCodecTest {
+
+    // Plume-like field: zero upwind of the source, a Gaussian cross-section downwind
+    private static ConcentrationGrid plumeGrid() {
+        GridSpec spec = new GridSpec(120, 80, -500, 5500, -2000, 2000);
+        double[] values = new double[spec.size()];
+        double max = 0;
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int column = 0; column < spec.getColumns(); column++) {
+                double x = spec.x(column);
+                if (x <= 0) {
+                    continue;
+                }
+                double sigma = 0.08 * x;
+                double y = spec.y(row);
+                double value = 1e-3 / (x * x) * Math.exp(-0.5 * y * y / (sigma * sigma));
+                values[spec.index(column, row)] = value;
+                max = Math.max(max, value);
+            }
+        }
+        return new ConcentrationGrid(spec, values, max);
+    }
+
+    @Test
+    void decodeRestoresGridAndProjection() {
+        ConcentrationGrid grid = plumeGrid();
+        LocalTangentProjection projection = LocalTangentProjection.alongWind(-95.37, 29.76, 225.0);
+
+        GridCodec.Decoded decoded = GridCodec.decode(GridCodec.encode(grid, projection));
+
+        GridSpec spec = decoded.grid().getSpec();
+        assertEquals(grid.getSpec().getColumns(), spec.getColumns());
+        assertEquals(grid.getSpec().getRows(), spec.getRows());
+        assertEquals(grid.getSpec().getXMin(), spec.getXMin());
+        assertEquals(grid.getSpec().getXMax(), spec.getXMax());
+        assertEquals(grid.getSpec().getYMin(), spec.getYMin());
+        assertEquals(grid.getSpec().getYMax(), spec.getYMax());
+        assertEquals(grid.getMaxValue(), decoded.grid().getMaxValue());
+
+        assertEquals(projection.getOriginLon(), decoded.projection().getOriginLon());
+        assertEquals(projection.getOriginLat(), decoded.projection().getOriginLat());
+        assertEquals(projection.getBearing(), decoded.projection().getBearing());
+
+        // Values are stored as float32
+        double[] expected = Arrays.stream(grid.getValues()).map(v -> (float) v).toArray();
+        assertArrayEquals(expected, decoded.grid().getValues());
+    }
+
+    @Test
+    void encodedGridIsSmallerThanItsFloats() {
+        ConcentrationGrid grid = plumeGrid();
+        byte[] encoded = GridCodec.encode(grid, LocalTangentProjection.eastNorth(0, 0));
+        assertTrue(encoded.length < grid.getValues().length * Float.BYTES);
+    }
+
+    @Test
+    void decodeRejectsOtherData() {
+        byte[] encoded = GridCodec.encode(plumeGrid(), LocalTangentProjection.eastNorth(0, 0));
+        encoded[0] ^= 0x7f;
+        assertThrows(IllegalArgumentException.class, () -> GridCodec.decode(encoded));
+    }
+
+    @Test
+    void decodeRejectsTruncatedData() {
+        byte[] encoded = GridCodec.encode(plumeGrid(), LocalTangentProjection.eastNorth(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> GridCodec.decode(Arrays.copyOf(encoded, 40)));
+        assertThrows(IllegalArgumentException.class,
+                () -> GridCodec.decode(Arrays.copyOf(encoded, encoded.length / 2)));
+    }
+}